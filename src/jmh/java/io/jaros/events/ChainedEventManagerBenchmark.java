@@ -0,0 +1,120 @@
+package io.jaros.events;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.jaros.events.generic.IEventHandler;
+
+/**
+ * Compares raising an event with a small, stable set of strong handlers through the loop shared
+ * by every EventManager and through a ChainedEventManager. Before measuring, other events with
+ * handlers of several different classes are raised, as they would be in an application, so the
+ * shared loop's call site is megamorphic. The constant benchmarks raise through a manager held
+ * in a static final field, which lets the JIT inline the whole chain.
+ * 
+ * @author cjaros
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChainedEventManagerBenchmark {
+
+    private static final EventManager<EventArgs> LOOP_CONSTANT = new EventManager<>();
+    private static final ChainedEventManager<EventArgs> CHAIN_CONSTANT = new ChainedEventManager<>();
+
+    @Param({"1", "2", "4", "8"})
+    public int handlerCount;
+    
+    @Param({"loop", "chain"})
+    public String engine;
+    
+    private EventManager<EventArgs> _event;
+    private boolean _chained;
+    private EventArgs _args;
+    
+    @Setup
+    public void setUp() {
+        _chained = "chain".equals(engine);
+        _event = _chained ? new ChainedEventManager<>() : new EventManager<>();
+        _args = new EventArgs();
+        
+        EventManager<EventArgs> constant = _chained ? CHAIN_CONSTANT : LOOP_CONSTANT;
+        constant.clearHandlers();
+        
+        for(int i = 0; i < handlerCount; i++) {
+            _event.addStrongHandler(new CountingHandler<>());
+            constant.addStrongHandler(new CountingHandler<>());
+        }
+        
+        pollute();
+    }
+    
+    /**
+     * Raises events whose handlers are of several other classes through both engines
+     */
+    private static void pollute() {
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        IEventHandler<EventArgs>[] others = new IEventHandler[] {
+            new IEventHandler<EventArgs>() {
+                @Override
+                public void handleEvent(Object sender, EventArgs args) {
+                }
+            },
+            new IEventHandler<EventArgs>() {
+                @Override
+                public void handleEvent(Object sender, EventArgs args) {
+                    args.hashCode();
+                }
+            },
+            new IEventHandler<EventArgs>() {
+                @Override
+                public void handleEvent(Object sender, EventArgs args) {
+                    sender.hashCode();
+                }
+            },
+            new CountingHandler<EventArgs>()
+        };
+        
+        EventManager<EventArgs> loop = new EventManager<>();
+        ChainedEventManager<EventArgs> chain = new ChainedEventManager<>();
+        
+        for(IEventHandler<EventArgs> handler: others) {
+            loop.addStrongHandler(handler);
+            chain.addStrongHandler(handler);
+        }
+        
+        EventArgs args = new EventArgs();
+        
+        for(int i = 0; i < 100000; i++) {
+            loop.raise(others, args);
+            chain.raise(others, args);
+        }
+    }
+    
+    @Benchmark
+    public void raise() {
+        _event.raise(this, _args);
+    }
+    
+    @Benchmark
+    public void raiseConstant() {
+        if(_chained)
+            CHAIN_CONSTANT.raise(this, _args);
+        else
+            LOOP_CONSTANT.raise(this, _args);
+    }
+}
@@ -0,0 +1,82 @@
+package io.jaros.events;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures an event that is raised from several threads at once, both on its own and
+ * while another thread keeps subscribing and unsubscribing.
+ * 
+ * @author cjaros
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContentionBenchmark {
+
+    @Param({"10", "1000"})
+    public int handlerCount;
+    
+    private EventManager<EventArgs> _event;
+    private EventArgs _args;
+    private CountingHandler<EventArgs>[] _handlers;
+    
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    @Setup
+    public void setUp() {
+        _event = new EventManager<>();
+        _args = new EventArgs();
+        _handlers = new CountingHandler[handlerCount];
+        
+        for(int i = 0; i < handlerCount; i++) {
+            _handlers[i] = new CountingHandler<>();
+            _event.addHandler(_handlers[i]);
+        }
+    }
+    
+    /**
+     * A handler owned by a single subscribing thread
+     */
+    @State(Scope.Thread)
+    public static class Churn {
+        public final CountingHandler<EventArgs> handler = new CountingHandler<>();
+    }
+    
+    @Benchmark
+    @Group("raiseOnly")
+    @GroupThreads(4)
+    public void raiseOnly() {
+        _event.raise(this, _args);
+    }
+    
+    @Benchmark
+    @Group("raiseWhileSubscribing")
+    @GroupThreads(3)
+    public void raiser() {
+        _event.raise(this, _args);
+    }
+    
+    @Benchmark
+    @Group("raiseWhileSubscribing")
+    @GroupThreads(1)
+    public void subscriber(Churn churn) {
+        _event.getEvent().subscribe(churn.handler);
+        _event.getEvent().unsubscribe(churn.handler);
+    }
+}
@@ -0,0 +1,19 @@
+package io.jaros.events;
+
+import io.jaros.events.generic.IEventHandler;
+
+/**
+ * A minimal handler for benchmarks. It counts the events it receives so the call cannot
+ * be optimized away.
+ * 
+ * @author cjaros
+ */
+public class CountingHandler<T extends EventArgs> implements IEventHandler<T> {
+
+    public int count;
+    
+    @Override
+    public void handleEvent(Object sender, T args) {
+        count++;
+    }
+}
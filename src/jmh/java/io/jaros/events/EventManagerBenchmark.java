@@ -0,0 +1,68 @@
+package io.jaros.events;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of raising an event with different numbers of soft, weak or strong subscribers.
+ * 
+ * @author cjaros
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventManagerBenchmark {
+
+    @Param({"1", "10", "1000", "100000"})
+    public int handlerCount;
+    
+    @Param({"soft", "weak", "strong"})
+    public String mode;
+    
+    private EventManager<EventArgs> _event;
+    private EventArgs _args;
+    
+    // Keeps the handlers strongly reachable so weak subscriptions are not collected
+    private CountingHandler<EventArgs>[] _handlers;
+    
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    @Setup
+    public void setUp() {
+        _event = new EventManager<>();
+        _args = new EventArgs();
+        _handlers = new CountingHandler[handlerCount];
+        
+        for(int i = 0; i < handlerCount; i++) {
+            _handlers[i] = new CountingHandler<>();
+            
+            if("strong".equals(mode))
+                _event.addStrongHandler(_handlers[i]);
+            else
+                _event.addHandler(_handlers[i], "weak".equals(mode));
+        }
+    }
+    
+    @Benchmark
+    public void raise() {
+        _event.raise(this, _args);
+    }
+    
+    @Benchmark
+    public void raiseNewArgs() {
+        _event.raise(this, new EventArgs());
+    }
+}
@@ -0,0 +1,67 @@
+package io.jaros.events;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.jaros.events.generic.EventArg;
+import io.jaros.events.generic.IIntEventHandler;
+
+/**
+ * Compares raising an int value through IntEventManager with raising a boxed EventArg
+ * through EventManager. Run with -prof gc to see the allocation difference.
+ * 
+ * @author cjaros
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IntEventManagerBenchmark {
+
+    private IntEventManager _intEvent;
+    private EventManager<EventArg<Integer>> _boxedEvent;
+    
+    private final IntHandler _intHandler = new IntHandler();
+    private final CountingHandler<EventArg<Integer>> _boxedHandler = new CountingHandler<>();
+    private int _next;
+    
+    static final class IntHandler implements IIntEventHandler {
+        public long sum;
+        
+        @Override
+        public void handleEvent(Object sender, int value) {
+            sum += value;
+        }
+    }
+    
+    @Setup
+    public void setUp() {
+        _intEvent = new IntEventManager();
+        _intEvent.addHandler(_intHandler);
+        
+        _boxedEvent = new EventManager<>();
+        _boxedEvent.addHandler(_boxedHandler);
+    }
+    
+    @Benchmark
+    public void raiseInt() {
+        _intEvent.raise(this, 1000 + (_next++ & 0xffff));
+    }
+    
+    @Benchmark
+    public void raiseBoxed() {
+        _boxedEvent.raise(this, new EventArg<Integer>(1000 + (_next++ & 0xffff)));
+    }
+}
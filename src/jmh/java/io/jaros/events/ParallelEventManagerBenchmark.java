@@ -0,0 +1,77 @@
+package io.jaros.events;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the latency of a serial raise with a joined parallel raise for large numbers of
+ * subscribers.
+ * 
+ * @author cjaros
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParallelEventManagerBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int handlerCount;
+    
+    @Param({"256", "4096"})
+    public int chunkSize;
+    
+    private ForkJoinPool _pool;
+    private EventManager<EventArgs> _serial;
+    private ParallelEventManager<EventArgs> _parallel;
+    private EventArgs _args;
+    
+    // Keeps the handlers strongly reachable
+    private CountingHandler<EventArgs>[] _handlers;
+    
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    @Setup
+    public void setUp() {
+        _pool = new ForkJoinPool();
+        _serial = new EventManager<>();
+        _parallel = new ParallelEventManager<>(_pool, 1, chunkSize, true, null);
+        _args = new EventArgs();
+        _handlers = new CountingHandler[handlerCount];
+        
+        for(int i = 0; i < handlerCount; i++) {
+            _handlers[i] = new CountingHandler<>();
+            _serial.addHandler(_handlers[i]);
+            _parallel.addHandler(_handlers[i]);
+        }
+    }
+    
+    @TearDown
+    public void tearDown() {
+        _pool.shutdown();
+    }
+    
+    @Benchmark
+    public void serial() {
+        _serial.raise(this, _args);
+    }
+    
+    @Benchmark
+    public void parallel() {
+        _parallel.raise(this, _args);
+    }
+}
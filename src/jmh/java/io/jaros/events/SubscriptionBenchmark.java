@@ -0,0 +1,68 @@
+package io.jaros.events;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures subscribing to and unsubscribing from an event that already has a number of
+ * other subscribers. Each invocation subscribes a handler and removes it again, so the
+ * subscriber count stays constant.
+ * 
+ * @author cjaros
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SubscriptionBenchmark {
+
+    @Param({"1", "10", "1000", "100000"})
+    public int handlerCount;
+    
+    private EventManager<EventArgs> _event;
+    private CountingHandler<EventArgs>[] _handlers;
+    private CountingHandler<EventArgs> _churn;
+    
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    @Setup
+    public void setUp() {
+        _event = new EventManager<>();
+        _handlers = new CountingHandler[handlerCount];
+        _churn = new CountingHandler<>();
+        
+        for(int i = 0; i < handlerCount; i++) {
+            _handlers[i] = new CountingHandler<>();
+            _event.addHandler(_handlers[i]);
+        }
+    }
+    
+    @Benchmark
+    public void subscribeUnsubscribe() {
+        _event.getEvent().subscribe(_churn);
+        _event.removeHandler(_churn);
+    }
+    
+    @Benchmark
+    public void subscribeClose() {
+        _event.getEvent().subscribe(_churn).close();
+    }
+    
+    @Benchmark
+    public void subscribeWeakUnsubscribe() {
+        _event.getEvent().subscribeWeak(_churn);
+        _event.getEvent().unsubscribe(_churn);
+    }
+}
@@ -0,0 +1,59 @@
+package io.jaros.events.util;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.jaros.events.CountingHandler;
+import io.jaros.events.generic.EventArg;
+
+/**
+ * Measures the NotifyingInteger example, where every change allocates a new EventArg 
+ * and boxes the value.
+ * 
+ * @author cjaros
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NotifyingIntegerBenchmark {
+
+    @Param({"0", "1", "10"})
+    public int handlerCount;
+    
+    private NotifyingInteger _value;
+    private CountingHandler<EventArg<Integer>>[] _handlers;
+    private int _next;
+    
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    @Setup
+    public void setUp() {
+        _value = new NotifyingInteger();
+        _handlers = new CountingHandler[handlerCount];
+        
+        for(int i = 0; i < handlerCount; i++) {
+            _handlers[i] = new CountingHandler<>();
+            _value.eValueChanged().subscribe(_handlers[i]);
+        }
+    }
+    
+    @Benchmark
+    public int setValue() {
+        // Values outside the Integer cache so boxing allocates as it would for real counters
+        _value.setValue(1000 + (_next++ & 0xffff));
+        return _value.getValue();
+    }
+}
@@ -0,0 +1,168 @@
+package io.jaros.events;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import io.jaros.events.generic.IEventHandler;
+
+
+/**
+ * An EventManager that delivers events on an Executor instead of the thread that raises them.
+ * A slow handler therefore does not hold up the publisher. Any Executor may be used, such as a
+ * bounded thread pool or, on runtimes that support them, a virtual-thread-per-task executor.
+ * 
+ * Subscriptions keep the same weak and soft reference semantics as EventManager. The handlers
+ * are resolved when the event is raised, so a handler that is live at that moment will receive
+ * the event even if its reference is cleared before the delivery runs.
+ * 
+ * Failures are reported on the handle returned by raiseAsync. raise and raiseAll discard that
+ * handle, so a handler's exception is instead passed to the uncaught exception handler of the
+ * thread that ran it, and a rejected delivery to that of the raising thread.
+ * 
+ * Ordering: each raise submits one task per handler. Within a single raise, handlers may run
+ * concurrently and in any order. Deliveries to the same handler from successive raises run in
+ * raise order only if the Executor runs tasks one at a time in submission order, such as a
+ * single thread executor. Otherwise, a handler may see events out of order and may be called
+ * from several threads at once, so it must be thread-safe.
+ * 
+ * @author cjaros
+ *
+ * @param &lt;T&gt; extends EventArgs - the object type that will carry data to observers of this event 
+ */
+public class AsyncEventManager<T extends EventArgs> extends EventManager<T> {
+
+    private final Executor _executor;
+    
+    /**
+     * Creates a new instance of AsyncEventManager that delivers events on the supplied executor
+     * 
+     * @param executor - the executor that will run the event handlers
+     */
+    public AsyncEventManager(Executor executor) {
+        if(executor == null)
+            throw new IllegalArgumentException("executor must not be null");
+        
+        _executor = executor;
+    }
+    
+    /**
+     * Publishes the event without waiting for it to be delivered. This is equivalent to
+     * calling raiseAsync and discarding the result, except that failures are passed to an
+     * uncaught exception handler instead of being recorded.
+     * 
+     * @param sender - the object who is raising the event
+     * @param args - the event arguments containing the data payload
+     */
+    @Override
+    public void raise(Object sender, T args) {
+        submit(sender, args, true);
+    }
+    
+    /**
+     * Publishes each event in the batch without waiting for it to be delivered. Each event is
+     * submitted separately, as if by raise, so batch handlers receive the events one at a
+     * time through handleEvent.
+     * 
+     * @param sender - the object who is raising the events
+     * @param args - the event arguments of each event
+     */
+    @Override
+    public void raiseAll(Object sender, List<? extends T> args) {
+        for(int i = 0; i < args.size(); i++)
+            submit(sender, args.get(i), true);
+    }
+    
+    /**
+     * Publishes the event by submitting a delivery to the executor for each handler. If the
+     * executor rejects a delivery, the rejection is recorded on the returned handle as that
+     * handler's failure and the remaining handlers are still submitted.
+     * 
+     * @param sender - the object who is raising the event
+     * @param args - the event arguments containing the data payload
+     * @return a handle that completes once every handler has returned
+     */
+    public RaiseFuture raiseAsync(Object sender, T args) {
+        return submit(sender, args, false);
+    }
+    
+    /**
+     * @param report - if true, failures are also passed to an uncaught exception handler,
+     * since the caller will not look at the returned handle
+     */
+    private RaiseFuture submit(Object sender, T args, boolean report) {
+        HandlerList.Snapshot<IEventHandler<T>> targets = snapshot();
+        
+        RaiseFuture future = new RaiseFuture(targets.count());
+        
+        for(int i = 0; i < targets.count(); i++) {
+            IEventHandler<T> handler = targets.get(i);
+            
+            if(handler == null) {
+                future.complete(null);
+                continue;
+            }
+            
+            try {
+                _executor.execute(new Delivery<>(handler, sender, args, future, report));
+            }
+            catch(RuntimeException ex) {
+                future.complete(ex);
+                
+                if(report)
+                    uncaught(ex);
+            }
+        }
+        
+        return future;
+    }
+    
+    /**
+     * @return the executor used to deliver events
+     */
+    public Executor getExecutor() {
+        return _executor;
+    }
+    
+    private static void uncaught(Throwable ex) {
+        Thread current = Thread.currentThread();
+        current.getUncaughtExceptionHandler().uncaughtException(current, ex);
+    }
+    
+    /**
+     * A single delivery of an event to one handler
+     */
+    private static final class Delivery<T extends EventArgs> implements Runnable {
+        
+        private final IEventHandler<T> _handler;
+        private final Object _sender;
+        private final T _args;
+        private final RaiseFuture _future;
+        private final boolean _report;
+        
+        Delivery(IEventHandler<T> handler, Object sender, T args, RaiseFuture future, boolean report) {
+            _handler = handler;
+            _sender = sender;
+            _args = args;
+            _future = future;
+            _report = report;
+        }
+
+        @Override
+        public void run() {
+            Throwable failure = null;
+            
+            try {
+                _handler.handleEvent(_sender, _args);
+            }
+            catch(Throwable ex) {
+                failure = ex;
+            }
+            finally {
+                _future.complete(failure);
+            }
+            
+            if(failure != null && _report)
+                uncaught(failure);
+        }
+    }
+}
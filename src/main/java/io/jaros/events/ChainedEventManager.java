@@ -0,0 +1,247 @@
+package io.jaros.events;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.MutableCallSite;
+import java.lang.ref.Reference;
+import java.lang.reflect.UndeclaredThrowableException;
+
+import io.jaros.events.generic.IEventHandler;
+
+
+/**
+ * An EventManager that calls its strongly subscribed handlers through a chain of method handles
+ * built for its current subscriptions, instead of through the loop shared by every
+ * EventManager. That loop has one handleEvent call site for the whole application, which
+ * becomes megamorphic once a few handler classes have passed through it, so the JIT can no
+ * longer inline any handler. Each handler in the chain is bound as the receiver of its own
+ * handle, so the calls are direct and may be inlined into the chain.
+ *
+ * The chain is the target of a call site owned by this manager. When the manager itself is a
+ * constant to the JIT, such as a static final field, the whole chain can be inlined into the
+ * code that raises the event. Otherwise the chain is still entered through one call, but each
+ * handler call inside it only ever sees one receiver.
+ *
+ * The chain is rebuilt on the first raise after the strong subscriptions change, and the JIT
+ * recompiles the code that inlined the old chain, so this suits events with a small set of
+ * strong handlers that rarely changes. Weak and soft subscriptions are not chained, since a
+ * chain would keep their handlers reachable; they are called after the chain as usual, and
+ * changes to them, or collection of their handlers, leave the chain in place. Events with
+ * more than MAX_CHAINED strong handlers are called through a plain loop instead.
+ *
+ * removeHandler and clearHandlers rebuild the chain straight away. A strong handler whose
+ * ISubscription is closed is no longer called by any raise that starts afterwards, but the
+ * old chain keeps it reachable until the next raise rebuilds it.
+ *
+ * This manager does not record metrics or support keyed subscriptions.
+ *
+ * @author cjaros
+ *
+ * @param &lt;T&gt; extends EventArgs - the object type that will carry data to observers of this event
+ */
+public class ChainedEventManager<T extends EventArgs> extends EventManager<T> {
+
+    /**
+     * The most strong handlers chained together. Longer chains are slow to build and too deep
+     * to be inlined, so above this the handlers are called in a loop.
+     */
+    public static final int MAX_CHAINED = 16;
+
+    private static final MethodType RAISE = MethodType.methodType(void.class, Object.class, EventArgs.class);
+
+    // (IEventHandler, Object, EventArgs)void
+    private static final MethodHandle HANDLE_EVENT;
+    // (Object[], Object, EventArgs)void
+    private static final MethodHandle LOOP;
+    private static final MethodHandle NOTHING;
+
+    static {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+        try {
+            HANDLE_EVENT = lookup.findVirtual(IEventHandler.class, "handleEvent", RAISE);
+            LOOP = lookup.findStatic(ChainedEventManager.class, "loop", RAISE.insertParameterTypes(0, Object[].class));
+            NOTHING = lookup.findStatic(ChainedEventManager.class, "nothing", RAISE);
+        }
+        catch(NoSuchMethodException | IllegalAccessException ex) {
+            throw new ExceptionInInitializerError(ex);
+        }
+    }
+
+    private final MutableCallSite _site = new MutableCallSite(NOTHING);
+    private final MethodHandle _invoker = _site.dynamicInvoker();
+
+    // The strong handlers the call site's target was built from. Written after
+    // the target is set and synced, so a raise that reads it also sees that target
+    private volatile Linked _linked;
+
+    /**
+     * Creates a new instance of ChainedEventManager
+     */
+    public ChainedEventManager() {
+        super(null, null);
+    }
+
+    /**
+     * Publishes the event, calling the strong handlers through the chain and then the weak and
+     * soft handlers, each in the order they were subscribed.
+     *
+     * @param sender - the object who is raising the event
+     * @param args - the event arguments containing the data payload
+     */
+    @Override
+    public void raise(Object sender, T args) {
+        HandlerList.Snapshot<IEventHandler<T>> targets = snapshot();
+        Linked linked = _linked;
+
+        if(linked == null || !linked.matches(targets))
+            relink();
+
+        try {
+            _invoker.invokeExact(sender, (EventArgs)args);
+        }
+        catch(RuntimeException | Error ex) {
+            throw ex;
+        }
+        catch(Throwable ex) {
+            throw new UndeclaredThrowableException(ex);
+        }
+
+        Reference<IEventHandler<T>>[] items = targets.items;
+
+        for(int i = 0; i < targets.size; i++) {
+            IEventHandler<T> handler = items[i].get();
+
+            if(handler != null)
+                handler.handleEvent(sender, args);
+        }
+    }
+
+    /**
+     * Removes every subscription of the handler and rebuilds the chain without it
+     *
+     * @param handler - the handler to remove
+     */
+    @Override
+    public void removeHandler(IEventHandler<T> handler) {
+        super.removeHandler(handler);
+        relink();
+    }
+
+    /**
+     * Clears all the handlers from the list and empties the chain
+     */
+    @Override
+    public void clearHandlers() {
+        super.clearHandlers();
+        relink();
+    }
+
+    /**
+     * @return true if the strong handlers are called through a chain of method handles rather
+     * than a loop, as of the last raise
+     */
+    public boolean isChained() {
+        Linked linked = _linked;
+
+        return linked != null && linked.chained;
+    }
+
+    /**
+     * @return the call site's current target
+     */
+    MethodHandle target() {
+        return _site.getTarget();
+    }
+
+    /**
+     * Builds the call site's target from the current strong subscriptions, unless it was
+     * already built from them
+     */
+    private synchronized void relink() {
+        HandlerList.Snapshot<IEventHandler<T>> targets = snapshot();
+        Linked linked = _linked;
+
+        // Another raise may already have linked these handlers
+        if(linked != null && linked.matches(targets))
+            return;
+
+        Object[] handlers = new Object[live(targets)];
+
+        for(int i = 0, j = 0; i < targets.strongSize; i++) {
+            if(targets.strong[i] != null)
+                handlers[j++] = targets.strong[i];
+        }
+
+        _site.setTarget(link(handlers));
+
+        // Without a sync, threads may go on calling the old target, and so
+        // the handlers it was built from, for as long as they like
+        MutableCallSite.syncAll(new MutableCallSite[] { _site });
+        _linked = new Linked(targets, handlers.length <= MAX_CHAINED);
+    }
+
+    private static MethodHandle link(Object[] handlers) {
+        if(handlers.length == 0)
+            return NOTHING;
+
+        if(handlers.length > MAX_CHAINED)
+            return LOOP.bindTo(handlers);
+
+        // Folding runs each handler before the rest of the chain
+        MethodHandle chain = HANDLE_EVENT.bindTo(handlers[handlers.length - 1]);
+
+        for(int i = handlers.length - 2; i >= 0; i--)
+            chain = MethodHandles.foldArguments(chain, HANDLE_EVENT.bindTo(handlers[i]));
+
+        return chain;
+    }
+
+    private static int live(HandlerList.Snapshot<?> targets) {
+        int live = 0;
+
+        for(int i = 0; i < targets.strongSize; i++) {
+            if(targets.strong[i] != null)
+                live++;
+        }
+
+        return live;
+    }
+
+    /**
+     * The strong handlers a call site target was built from. Strong handlers are only added at
+     * the end, and are removed by clearing their entry, so they are unchanged as long as the
+     * array, its size and its number of cleared entries are.
+     */
+    private static final class Linked {
+
+        private final Object[] _strong;
+        private final int _strongSize;
+        private final int _strongCleared;
+
+        final boolean chained;
+
+        Linked(HandlerList.Snapshot<?> targets, boolean chained) {
+            _strong = targets.strong;
+            _strongSize = targets.strongSize;
+            _strongCleared = targets.strongCleared;
+            this.chained = chained;
+        }
+
+        boolean matches(HandlerList.Snapshot<?> targets) {
+            return targets.strong == _strong && targets.strongSize == _strongSize
+                    && targets.strongCleared == _strongCleared;
+        }
+    }
+
+    @SuppressWarnings({ "unused", "unchecked", "rawtypes" })
+    private static void loop(Object[] handlers, Object sender, EventArgs args) {
+        for(int i = 0; i < handlers.length; i++)
+            ((IEventHandler)handlers[i]).handleEvent(sender, args);
+    }
+
+    @SuppressWarnings("unused")
+    private static void nothing(Object sender, EventArgs args) {
+    }
+}
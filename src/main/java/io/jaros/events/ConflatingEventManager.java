@@ -0,0 +1,171 @@
+package io.jaros.events;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import io.jaros.events.generic.IKeyExtractor;
+
+
+/**
+ * An EventManager for events that carry state, where subscribers only care about the newest
+ * value. Raising an event does not call the handlers. Instead it stores the event in a pending
+ * slot for its key, replacing any event already waiting there. Handlers receive only the latest
+ * event for each key the next time the pending events are drained. A burst of updates therefore
+ * costs the handlers one call per key per drain rather than one call per update, and the final
+ * state is never lost.
+ * 
+ * By default the key is the sender, so each publishing object keeps its own slot. An
+ * IKeyExtractor can be supplied to conflate on something else, such as an entity id.
+ * 
+ * Pending events are drained either by calling drain(), for example from a UI or game loop,
+ * or automatically on an Executor when one is supplied. Only one drain runs at a time, so the
+ * handlers never see an older event for a key after a newer one. Events for different keys are
+ * delivered in no particular order. If a handler throws during a drain on the Executor, the
+ * exception is passed to the uncaught exception handler of the thread running the drain, and
+ * the events not yet delivered are drained again.
+ * 
+ * @author cjaros
+ *
+ * @param &lt;T&gt; extends EventArgs - the object type that will carry data to observers of this event 
+ */
+public class ConflatingEventManager<T extends EventArgs> extends EventManager<T> {
+
+    private static final Object NULL_KEY = new Object();
+    
+    private final IKeyExtractor<T> _keys;
+    private final Executor _executor;
+    private final ConcurrentHashMap<Object, Pending<T>> _pending = new ConcurrentHashMap<>();
+    private final AtomicBoolean _scheduled = new AtomicBoolean();
+    private final Object _drainLock = new Object();
+    
+    private final Runnable _drainTask = new Runnable() {
+        @Override
+        public void run() {
+            // Clear the flag first, so a raise that happens while draining
+            // schedules another drain rather than being left behind
+            _scheduled.set(false);
+            
+            try {
+                drain();
+            }
+            catch(Throwable ex) {
+                // Thrown out of the task, it would kill a pool thread or be kept by
+                // a scheduled executor's future where nothing looks at it
+                Thread current = Thread.currentThread();
+                current.getUncaughtExceptionHandler().uncaughtException(current, ex);
+            }
+            
+            if(!_pending.isEmpty())
+                schedule();
+        }
+    };
+    
+    /**
+     * Creates a new ConflatingEventManager that conflates by sender and is drained by
+     * calling drain()
+     */
+    public ConflatingEventManager() {
+        this(null, null);
+    }
+    
+    /**
+     * Creates a new ConflatingEventManager.
+     * 
+     * @param keys - picks the key events are conflated on, or null to conflate by sender
+     * @param executor - drains pending events after each raise, or null to drain only when
+     * drain() is called
+     */
+    public ConflatingEventManager(IKeyExtractor<T> keys, Executor executor) {
+        _keys = keys;
+        _executor = executor;
+    }
+    
+    /**
+     * Stores the event as the latest for its key, replacing any event for that key that has 
+     * not been delivered yet.
+     * 
+     * @param sender - the object who is raising the event
+     * @param args - the event arguments containing the data payload
+     */
+    @Override
+    public void raise(Object sender, T args) {
+        Object key = _keys != null ? _keys.getKey(sender, args) : sender;
+        
+        _pending.put(key != null ? key : NULL_KEY, new Pending<>(sender, args));
+        
+        if(_executor != null)
+            schedule();
+    }
+    
+    /**
+     * Stores each event in the batch as the latest for its key, as if raised one at a time.
+     * 
+     * @param sender - the object who is raising the events
+     * @param args - the event arguments of each event, in raise order
+     */
+    @Override
+    public void raiseAll(Object sender, List<? extends T> args) {
+        for(int i = 0; i < args.size(); i++)
+            raise(sender, args.get(i));
+    }
+    
+    /**
+     * Delivers the latest pending event for each key to the handlers. Events raised while
+     * draining are delivered by this drain if their key has not been reached yet, otherwise
+     * they stay pending for the next drain. If a handler throws, the exception is passed on
+     * and the events not yet delivered stay pending.
+     * 
+     * @return the number of events delivered
+     */
+    public int drain() {
+        int delivered = 0;
+        
+        synchronized(_drainLock) {
+            for(Iterator<Map.Entry<Object, Pending<T>>> it = _pending.entrySet().iterator(); it.hasNext(); ) {
+                // Removing by key takes whichever event is latest at this moment
+                Pending<T> pending = _pending.remove(it.next().getKey());
+                
+                if(pending != null) {
+                    delivered++;
+                    super.raise(pending.sender, pending.args);
+                }
+            }
+        }
+        
+        return delivered;
+    }
+    
+    /**
+     * @return the number of keys with an event waiting to be delivered
+     */
+    public int getPendingCount() {
+        return _pending.size();
+    }
+    
+    private void schedule() {
+        if(_scheduled.compareAndSet(false, true)) {
+            try {
+                _executor.execute(_drainTask);
+            }
+            catch(RuntimeException ex) {
+                _scheduled.set(false);
+                throw ex;
+            }
+        }
+    }
+    
+    private static final class Pending<T> {
+        
+        final Object sender;
+        final T args;
+        
+        Pending(Object sender, T args) {
+            this.sender = sender;
+            this.args = args;
+        }
+    }
+}
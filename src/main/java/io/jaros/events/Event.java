@@ -38,9 +38,10 @@ public class Event<T extends EventArgs> {
      * scope to avoid leaking memory.
      * 
      * @param handler - the handler to be added as an observer of this event 
+     * @return a subscription that can be closed to remove this handler
      */
-    public void subscribe(IEventHandler<T> handler) {
-        _owner.addHandler(handler, false);
+    public ISubscription subscribe(IEventHandler<T> handler) {
+        return _owner.addHandler(handler, false);
     }
     
     /**
@@ -53,13 +54,82 @@ public class Event<T extends EventArgs> {
      * that it doesn't get garbage collected.
      * 
      * @param handler - the handler to be added as an observer of this event
+     * @return a subscription that can be closed to remove this handler
      */
-    public void subscribeWeak(IEventHandler<T> handler) {
-        _owner.addHandler(handler, true);
+    public ISubscription subscribeWeak(IEventHandler<T> handler) {
+        return _owner.addHandler(handler, true);
+    }
+    
+    /**
+     * Adds an event handler instance to this Event as a strong subscription. The handler is stored
+     * directly, without a WeakReference or SoftReference around it, which makes the subscription
+     * smaller and cheaper to raise. This suits events with very many subscribers whose lifetime
+     * the caller manages explicitly.
+     * 
+     * A strongly subscribed handler will never be garbage collected while it is subscribed, so you
+     * must unsubscribe it, or close the subscription, when you are done with it.
+     * 
+     * @param handler - the handler to be added as an observer of this event
+     * @return a subscription that can be closed to remove this handler
+     */
+    public ISubscription subscribeStrong(IEventHandler<T> handler) {
+        return _owner.addStrongHandler(handler);
+    }
+
+    /**
+     * Adds an event handler instance to this Event as a SoftReference, to receive only the events
+     * whose key equals the supplied key. Raising an event with a different key does not call the
+     * handler at all. The event must have been created with an IKeyExtractor.
+     * 
+     * @param key - the key of the events the handler receives, such as an entity id
+     * @param handler - the handler to be added as an observer of this event 
+     * @return a subscription that can be closed to remove this handler
+     * @throws IllegalStateException if the event is not keyed
+     */
+    public ISubscription subscribe(Object key, IEventHandler<T> handler) {
+        return _owner.addKeyedHandler(key, handler, false);
+    }
+    
+    /**
+     * Adds an event handler instance to this Event as a WeakReference, to receive only the events
+     * whose key equals the supplied key. The event must have been created with an IKeyExtractor.
+     * 
+     * @param key - the key of the events the handler receives, such as an entity id
+     * @param handler - the handler to be added as an observer of this event
+     * @return a subscription that can be closed to remove this handler
+     * @throws IllegalStateException if the event is not keyed
+     */
+    public ISubscription subscribeWeak(Object key, IEventHandler<T> handler) {
+        return _owner.addKeyedHandler(key, handler, true);
+    }
+    
+    /**
+     * Adds an event handler instance to this Event as a strong subscription, to receive only the
+     * events whose key equals the supplied key. The event must have been created with an
+     * IKeyExtractor.
+     * 
+     * @param key - the key of the events the handler receives, such as an entity id
+     * @param handler - the handler to be added as an observer of this event
+     * @return a subscription that can be closed to remove this handler
+     * @throws IllegalStateException if the event is not keyed
+     */
+    public ISubscription subscribeStrong(Object key, IEventHandler<T> handler) {
+        return _owner.addStrongKeyedHandler(key, handler);
+    }
+    
+    /**
+     * Removes a handler instance's subscriptions under a single key from this Event.
+     * 
+     * @param key - the key the handler was subscribed with
+     * @param handler - the handler to be removed as an observer of this event
+     */
+    public void unsubscribe(Object key, IEventHandler<T> handler) {
+        _owner.removeKeyedHandler(key, handler);
     }
 
     /**
-     * Removes a handler instance from this Event.
+     * Removes a handler instance from this Event. If the handler was subscribed more than once,
+     * every subscription is removed.
      * 
      * @param handler - the handler to be removed as an observer of this event
      */
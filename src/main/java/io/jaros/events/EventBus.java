@@ -0,0 +1,206 @@
+package io.jaros.events;
+
+import java.lang.ref.Reference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import io.jaros.events.annotation.Dispatchers;
+import io.jaros.events.generic.IEventHandler;
+
+
+/**
+ * A central event channel that routes events by type. Handlers subscribe to a subclass of
+ * EventArgs, and a published EventArgs instance reaches the handlers subscribed to its own
+ * class and to each of its superclasses, most specific class first. This avoids wiring up a
+ * separate EventManager field for every kind of event.
+ * 
+ * The handlers for each concrete class are resolved once and cached, so publishing is a single
+ * map lookup followed by a walk over an array. The cache is discarded whenever a handler is
+ * subscribed or unsubscribed through the bus. Closing an ISubscription does not discard it,
+ * the closed handler is simply skipped until the next change.
+ * 
+ * Subscriptions have the same weak and soft reference semantics as EventManager, except that
+ * the bus holds the subscriptions made by register until they are closed.
+ * 
+ * @author cjaros
+ */
+public class EventBus {
+
+    @SuppressWarnings("rawtypes")
+    private static final Reference[] EMPTY = new Reference[0];
+
+    private final ConcurrentMap<Class<?>, HandlerList<IEventHandler<?>>> _handlers = new ConcurrentHashMap<>();
+
+    // Replaced as a whole when subscriptions change, so a resolution that
+    // races with a change can only be stored into a map that is discarded
+    private volatile ConcurrentMap<Class<?>, Reference<IEventHandler<?>>[]> _resolved = new ConcurrentHashMap<>();
+
+    // Keeps the handlers generated for registered subscribers reachable until they are closed
+    private final Set<Registration> _registered =
+            Collections.newSetFromMap(new ConcurrentHashMap<Registration, Boolean>());
+
+    /**
+     * Subscribes a handler to events of the supplied type and its subclasses as a SoftReference.
+     * 
+     * @param type - the type of event to receive
+     * @param handler - the handler to be added as an observer of the event type
+     * @return a subscription that can be closed to remove this handler
+     */
+    public <T extends EventArgs> ISubscription subscribe(Class<T> type, IEventHandler<? super T> handler) {
+        return subscribe(type, handler, false);
+    }
+
+    /**
+     * Subscribes a handler to events of the supplied type and its subclasses as a WeakReference.
+     * 
+     * @param type - the type of event to receive
+     * @param handler - the handler to be added as an observer of the event type
+     * @return a subscription that can be closed to remove this handler
+     */
+    public <T extends EventArgs> ISubscription subscribeWeak(Class<T> type, IEventHandler<? super T> handler) {
+        return subscribe(type, handler, true);
+    }
+
+    /**
+     * Subscribes every method of the subscriber that is annotated with @Subscribe, including
+     * those declared by its superclasses, to the events of the type it takes. The methods are
+     * called through dispatchers generated at compile time by the SubscribeProcessor, so no
+     * reflection is used when an event is delivered.
+     * 
+     * The bus holds the subscription until it is closed or the bus is cleared, so the methods
+     * keep receiving events, and the subscriber stays reachable, even if the returned
+     * subscription is discarded. Close it when the methods should stop receiving events.
+     * 
+     * @param subscriber - the object whose annotated methods will receive events
+     * @return a subscription that can be closed to remove all of the subscriber's methods
+     * @throws IllegalArgumentException if no dispatcher was generated for the subscriber's class
+     */
+    public ISubscription register(Object subscriber) {
+        Registration registration = new Registration(Dispatchers.register(subscriber, this));
+        _registered.add(registration);
+
+        return registration;
+    }
+
+    /**
+     * Removes a handler from events of the supplied type. Subscriptions of the same handler
+     * to other types are not affected.
+     * 
+     * @param type - the type of event the handler was subscribed to
+     * @param handler - the handler to be removed
+     */
+    public <T extends EventArgs> void unsubscribe(Class<T> type, IEventHandler<? super T> handler) {
+        HandlerList<IEventHandler<?>> handlers = _handlers.get(type);
+
+        if(handlers != null) {
+            handlers.remove(handler);
+            _resolved = new ConcurrentHashMap<>();
+        }
+    }
+
+    /**
+     * Publishes an event to every handler subscribed to its class or one of its superclasses.
+     * 
+     * @param sender - the object who is raising the event
+     * @param args - the event arguments containing the data payload
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public void publish(Object sender, EventArgs args) {
+        Reference<IEventHandler<?>>[] targets = resolve(args.getClass());
+
+        for(int i = 0; i < targets.length; i++) {
+            IEventHandler handler = targets[i].get();
+
+            if(handler != null)
+                handler.handleEvent(sender, args);
+        }
+    }
+
+    /**
+     * Removes every handler from the bus.
+     */
+    public void clear() {
+        for(HandlerList<IEventHandler<?>> handlers: _handlers.values())
+            handlers.clear();
+
+        _registered.clear();
+        _resolved = new ConcurrentHashMap<>();
+    }
+
+    private ISubscription subscribe(Class<?> type, IEventHandler<?> handler, boolean weakref) {
+        if(type == null)
+            throw new IllegalArgumentException("type must not be null");
+
+        HandlerList<IEventHandler<?>> handlers = _handlers.get(type);
+
+        if(handlers == null) {
+            HandlerList<IEventHandler<?>> created = new HandlerList<>(null);
+            handlers = _handlers.putIfAbsent(type, created);
+
+            if(handlers == null)
+                handlers = created;
+        }
+
+        ISubscription subscription = handlers.add(handler, weakref);
+        _resolved = new ConcurrentHashMap<>();
+
+        return subscription;
+    }
+
+    /**
+     * Returns the cached handlers for a concrete event class, resolving them if needed
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private Reference<IEventHandler<?>>[] resolve(Class<?> type) {
+        ConcurrentMap<Class<?>, Reference<IEventHandler<?>>[]> resolved = _resolved;
+        Reference<IEventHandler<?>>[] targets = resolved.get(type);
+
+        if(targets != null)
+            return targets;
+
+        ArrayList<Reference<IEventHandler<?>>> found = new ArrayList<>();
+
+        for(Class<?> current = type; current != null && EventArgs.class.isAssignableFrom(current);
+                current = current.getSuperclass()) {
+            HandlerList<IEventHandler<?>> handlers = _handlers.get(current);
+
+            if(handlers == null)
+                continue;
+
+            HandlerList.Snapshot<IEventHandler<?>> snapshot = handlers.snapshot();
+
+            for(int i = 0; i < snapshot.size; i++) {
+                if(snapshot.items[i].get() != null)
+                    found.add(snapshot.items[i]);
+            }
+        }
+
+        targets = found.isEmpty() ? EMPTY : found.toArray(new Reference[found.size()]);
+        resolved.putIfAbsent(type, targets);
+
+        return targets;
+    }
+
+    /**
+     * The subscription returned by register, which the bus holds until it is closed. The
+     * generated handlers are only referenced by the dispatcher's subscription, which would
+     * otherwise leave them to be collected as soon as the caller let go of it.
+     */
+    private final class Registration implements ISubscription {
+
+        private final ISubscription _subscription;
+
+        Registration(ISubscription subscription) {
+            _subscription = subscription;
+        }
+
+        @Override
+        public void close() {
+            _registered.remove(this);
+            _subscription.close();
+        }
+    }
+}
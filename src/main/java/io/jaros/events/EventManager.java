@@ -1,12 +1,17 @@
 package io.jaros.events;
 
 import java.lang.ref.Reference;
-import java.lang.ref.SoftReference;
-import java.lang.ref.WeakReference;
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+import io.jaros.events.generic.IBatchEventHandler;
+import io.jaros.events.generic.IEventArgsSupplier;
 import io.jaros.events.generic.IEventHandler;
+import io.jaros.events.generic.IKeyExtractor;
+import io.jaros.events.metrics.EventMetrics;
 
 
 /**
@@ -17,6 +22,20 @@ import io.jaros.events.generic.IEventHandler;
  * generic, with the generic parameter being a payload of information that will
  * be sent to the observers when an event is raised.
  * 
+ * Adding, removing and clearing handlers publish a new snapshot of the handler list through a
+ * volatile field, while <code>raise</code> reads the current snapshot without taking a lock and
+ * without allocating. A snapshot holds the handler arrays and the sizes they had when it was
+ * published. Later subscriptions may be appended into spare capacity past those sizes, and
+ * closed subscriptions are cleared in place, so a raise skips cleared entries but never sees a
+ * handler added after it started. Raising an event from many threads at once therefore does
+ * not serialize on a monitor.
+ * 
+ * An EventManager created with an IKeyExtractor also routes events by key. Handlers added with
+ * a key, such as the id of an entity, are stored in a hash map from key to handler list, and
+ * raise only visits the handlers stored under the key of the event being raised. Handlers
+ * added without a key receive every event, before the keyed handlers. Handlers that are only
+ * interested in a few keys therefore cost nothing when other keys are raised.
+ * 
  * For more information on how to use this system, see README.md
  * and check out {@link io.jaros.events.test.util.NotifyingInteger}
  * 
@@ -26,14 +45,46 @@ import io.jaros.events.generic.IEventHandler;
  */
 public class EventManager<T extends EventArgs> {
 
-    private ArrayList<Reference<IEventHandler<T>>> _handlers;
+    private final HandlerList<IEventHandler<T>> _handlers;
+    private final EventMetrics _metrics;
+    private final IKeyExtractor<T> _keys;
     private Event<T> _event;
     
+    // Only written while holding _keyedLock, so an empty list is never
+    // removed while a handler is being added to it
+    private final ConcurrentMap<Object, HandlerList<IEventHandler<T>>> _keyed;
+    private final Object _keyedLock = new Object();
+    private int _keyedAdds;
+    
     /**
      * Creates a new instance of EventManager
      */
     public EventManager() {
-        _handlers = new ArrayList<>();
+        this(null, null);
+    }
+    
+    /**
+     * Creates a new instance of EventManager that records its activity. See EventMetrics for
+     * what is recorded.
+     * 
+     * @param metrics - the metrics to record into, or null to record nothing
+     */
+    public EventManager(EventMetrics metrics) {
+        this(null, metrics);
+    }
+    
+    /**
+     * Creates a new instance of EventManager that routes events to keyed handlers by the key of
+     * each event.
+     * 
+     * @param keys - picks the key of each raised event, or null if this EventManager is not keyed
+     * @param metrics - the metrics to record into, or null to record nothing
+     */
+    public EventManager(IKeyExtractor<T> keys, EventMetrics metrics) {
+        _metrics = metrics;
+        _keys = keys;
+        _handlers = new HandlerList<>(metrics);
+        _keyed = keys != null ? new ConcurrentHashMap<Object, HandlerList<IEventHandler<T>>>() : null;
         _event = new Event<>(this);    
     }
 
@@ -47,9 +98,10 @@ public class EventManager<T extends EventArgs> {
      * scope to avoid leaking memory.
      * 
      * @param handler - the handler to be added as an observer of this event 
+     * @return a subscription that can be closed to remove this handler
      */
-    public void addHandler(IEventHandler<T> handler) {
-        addHandler(handler, false);
+    public ISubscription addHandler(IEventHandler<T> handler) {
+        return addHandler(handler, false);
     }
         
     /**
@@ -66,77 +118,409 @@ public class EventManager<T extends EventArgs> {
      * 
      * @param handler - the handler to be added as an observer of this event
      * @param weakref - If true, adds handler as a WeakReference. Otherwise, adds handler as a SoftReference
+     * @return a subscription that can be closed to remove this handler
+     */
+    public ISubscription addHandler(IEventHandler<T> handler, boolean weakref) {
+        return _handlers.add(handler, weakref);
+    }
+
+    /**
+     * Adds an event handler that only receives events whose key equals the supplied key. The
+     * handler is held as either a WeakReference or a SoftReference, as with addHandler.
+     * 
+     * @param key - the key of the events the handler receives
+     * @param handler - the handler to be added as an observer of this event
+     * @param weakref - If true, adds handler as a WeakReference. Otherwise, adds handler as a SoftReference
+     * @return a subscription that can be closed to remove this handler
+     * @throws IllegalStateException if this EventManager was created without an IKeyExtractor
+     */
+    public ISubscription addKeyedHandler(Object key, IEventHandler<T> handler, boolean weakref) {
+        if(_keyed == null)
+            throw new IllegalStateException("this event is not keyed");
+        if(key == null)
+            throw new IllegalArgumentException("key must not be null");
+        
+        synchronized(_keyedLock) {
+            return keyedHandlers(key).add(handler, weakref);
+        }
+    }
+
+    /**
+     * Adds an event handler that is held strongly until it is removed or its subscription is
+     * closed. Unlike a WeakReference or SoftReference subscription, a strong subscription costs
+     * no object of its own, and the handler is stored directly in a compact array, so events with
+     * very many subscribers take less memory and raise faster. Strong subscriptions are called
+     * before weak and soft ones.
+     * 
+     * The handler will never be garbage collected while it is subscribed, so callers must remove
+     * it, or close the subscription, when they are done with it.
+     * 
+     * @param handler - the handler to be added as an observer of this event
+     * @return a subscription that can be closed to remove this handler
+     */
+    public ISubscription addStrongHandler(IEventHandler<T> handler) {
+        return _handlers.addStrong(handler);
+    }
+
+    /**
+     * Adds an event handler that only receives events whose key equals the supplied key. The
+     * handler is held strongly, as with addStrongHandler.
+     * 
+     * @param key - the key of the events the handler receives
+     * @param handler - the handler to be added as an observer of this event
+     * @return a subscription that can be closed to remove this handler
+     * @throws IllegalStateException if this EventManager was created without an IKeyExtractor
+     */
+    public ISubscription addStrongKeyedHandler(Object key, IEventHandler<T> handler) {
+        if(_keyed == null)
+            throw new IllegalStateException("this event is not keyed");
+        if(key == null)
+            throw new IllegalArgumentException("key must not be null");
+        
+        synchronized(_keyedLock) {
+            return keyedHandlers(key).addStrong(handler);
+        }
+    }
+    
+    /**
+     * Finds or creates the handler list for a key. Must be called while holding _keyedLock.
      */
-    public void addHandler(IEventHandler<T> handler, boolean weakref) {
-        // Add handlers in a synchronized block so we don't
-        // stomp on other operations that could be happening
-        // concurrently
-        synchronized(_event) {
-            if(weakref)
-                _handlers.add(new WeakReference<IEventHandler<T>>(handler));
-            else
-                _handlers.add(new SoftReference<IEventHandler<T>>(handler));
+    private HandlerList<IEventHandler<T>> keyedHandlers(Object key) {
+        // Lists left empty by closed or collected subscriptions are swept
+        // once there have been as many adds as there are keys, which keeps
+        // the cost of the sweep constant when amortized over the adds
+        if(++_keyedAdds > _keyed.size()) {
+            _keyedAdds = 0;
+            sweepKeyed();
+        }
+        
+        HandlerList<IEventHandler<T>> handlers = _keyed.get(key);
+        
+        if(handlers == null) {
+            handlers = new HandlerList<>(_metrics);
+            _keyed.put(key, handlers);
         }
+        
+        return handlers;
     }
 
     /**
-     * Removes a handler instance from this EventManager.
+     * Removes a handler instance from this EventManager. If the handler was added more than once,
+     * every subscription is removed. The handler's subscriptions are found through an identity
+     * index, so this does not search the whole handler list. Keyed subscriptions are removed as
+     * well, which visits every key. To remove a single subscription, close the ISubscription 
+     * returned when it was added.
      * 
      * @param handler - the handler to be removed as an observer of this event
      */
-    public void removeHandler(IEventHandler<T> handler) {        
-        // Remove handlers in a synchronized block so we don't
-        // stomp on other operations that could be happening
-        // concurrently
-        synchronized(_event) {            
-            for(Iterator<Reference<IEventHandler<T>>> it = _handlers.iterator(); it.hasNext(); ) {
-                IEventHandler<T> itemRef = it.next().get();
+    public void removeHandler(IEventHandler<T> handler) {
+        _handlers.remove(handler);
+        
+        if(_keyed != null) {
+            for(HandlerList<IEventHandler<T>> handlers: _keyed.values())
+                handlers.remove(handler);
+        }
+    }
+    
+    /**
+     * Removes a handler's subscriptions under a single key.
+     * 
+     * @param key - the key the handler was added with
+     * @param handler - the handler to be removed as an observer of this event
+     */
+    public void removeKeyedHandler(Object key, IEventHandler<T> handler) {
+        if(_keyed == null || key == null)
+            return;
+        
+        synchronized(_keyedLock) {
+            HandlerList<IEventHandler<T>> handlers = _keyed.get(key);
+            
+            if(handlers != null) {
+                handlers.remove(handler);
                 
-                if(itemRef == null || handler == itemRef) {
-                    it.remove();
-                }
+                if(handlers.isEmpty())
+                    _keyed.remove(key);
             }
         }
     }
-
+    
+    /**
+     * Removes keys whose handlers have all been closed or collected. Must be called while
+     * holding _keyedLock.
+     */
+    private void sweepKeyed() {
+        Iterator<HandlerList<IEventHandler<T>>> lists = _keyed.values().iterator();
+        
+        while(lists.hasNext()) {
+            if(lists.next().isEmpty())
+                lists.remove();
+        }
+    }
     
     /**
      * This publishes the event, calling each of the event handlers in order with
-     * the supplied parameters.
+     * the supplied parameters. If this EventManager is keyed, the handlers added under
+     * the event's key are called after the handlers added without a key.
      * 
      * @param sender - the object who is raising the event
      * @param args - the event arguments containing the data payload
      */
     public void raise(Object sender, T args) {
-        ArrayList<IEventHandler<T>> targets = new ArrayList<>();
+        // Read the current snapshot once. Its sizes are fixed when it is published,
+        // so handlers added during the raise are not called, and no lock is needed
+        // to walk it. Entries cleared before the raise reaches them are skipped
+        HandlerList.Snapshot<IEventHandler<T>> targets = _handlers.snapshot();
+        HandlerList.Snapshot<IEventHandler<T>> keyed = _keyed != null ? keyedSnapshot(sender, args) : null;
+        
+        if(_metrics != null) {
+            raiseMeasured(sender, args, targets, keyed, _metrics);
+            return;
+        }
+        
+        deliver(sender, args, targets);
+        
+        if(keyed != null)
+            deliver(sender, args, keyed);
+    }
+    
+    private static <T extends EventArgs> void deliver(Object sender, T args, HandlerList.Snapshot<IEventHandler<T>> targets) {
+        for(int i = 0; i < targets.strongSize; i++) {
+            IEventHandler<T> handler = targets.strong(i);
+            
+            if(handler != null)
+                handler.handleEvent(sender, args);
+        }
+        
+        Reference<IEventHandler<T>>[] items = targets.items;
+        
+        for(int i = 0; i < targets.size; i++) {
+            IEventHandler<T> handler = items[i].get();
+            
+            // Removed and collected handlers leave a cleared reference
+            // behind until the handler list is compacted
+            if(handler != null)
+                handler.handleEvent(sender, args);
+        }
+    }
+    
+    /**
+     * @return the snapshot of the handlers under the event's key, or null if there are none
+     */
+    private HandlerList.Snapshot<IEventHandler<T>> keyedSnapshot(Object sender, T args) {
+        Object key = _keys.getKey(sender, args);
+        
+        if(key == null)
+            return null;
+        
+        HandlerList<IEventHandler<T>> handlers = _keyed.get(key);
+        
+        return handlers != null ? handlers.snapshot() : null;
+    }
+    
+    /**
+     * This publishes an event whose arguments are only built if there is a handler to receive
+     * them. When no live handler is subscribed, the supplier is not called and nothing is
+     * allocated. Otherwise the arguments are built once and raised as by raise(Object, T).
+     * 
+     * In Java 7, an anonymous supplier that captures local values is itself allocated on each
+     * call, so for arguments built from local values, checking hasHandlers before building them
+     * avoids the allocation entirely.
+     * 
+     * @param sender - the object who is raising the event
+     * @param argsSupplier - builds the event arguments
+     */
+    public void raise(Object sender, IEventArgsSupplier<? extends T> argsSupplier) {
+        if(hasHandlers())
+            raise(sender, argsSupplier.get());
+    }
+    
+    /**
+     * Checks whether any live handler is subscribed. When no handler has ever been subscribed,
+     * or every handler has been removed and compacted away, this is a single volatile read and
+     * takes no lock.
+     * 
+     * @return true if at least one handler is subscribed and has not been closed or collected
+     */
+    public boolean hasHandlers() {
+        HandlerList.Snapshot<IEventHandler<T>> targets = _handlers.snapshot();
+        
+        for(int i = 0; i < targets.count(); i++) {
+            if(targets.get(i) != null)
+                return true;
+        }
         
-        // Do a synchronized iteration through the handlers list to find
-        // the active handlers who are subscribed
-        synchronized(_event) {
-            for(Iterator<Reference<IEventHandler<T>>> it = _handlers.iterator(); it.hasNext(); ) {
-                IEventHandler<T> itemRef = it.next().get();
+        // The handlers under the event's key cannot be known without
+        // building the event, so any keyed handler counts
+        return _keyed != null && !_keyed.isEmpty();
+    }
+    
+    /**
+     * This publishes a batch of events from the same sender. The handler list is read once for
+     * the whole batch. Each handler that implements IBatchEventHandler receives the batch in a 
+     * single call, and every other handler receives the events one at a time, in order. As with
+     * raise, an exception thrown by a handler stops delivery to the remaining handlers.
+     * 
+     * If this EventManager is keyed, the events are raised one at a time instead, since each
+     * event may route to different handlers.
+     * 
+     * @param sender - the object who is raising the events
+     * @param args - the event arguments of each event, in the order they should be delivered
+     */
+    public void raiseAll(Object sender, List<? extends T> args) {
+        if(args.isEmpty())
+            return;
+        
+        if(_keyed != null) {
+            for(int i = 0; i < args.size(); i++)
+                raise(sender, args.get(i));
+            
+            return;
+        }
+        
+        HandlerList.Snapshot<IEventHandler<T>> targets = _handlers.snapshot();
+        List<T> batch = Collections.unmodifiableList(args);
+        EventMetrics metrics = _metrics;
+        int delivered = 0;
+        
+        try {
+            for(int i = 0; i < targets.count(); i++) {
+                IEventHandler<T> handler = targets.get(i);
+                
+                if(handler == null)
+                    continue;
+                
+                delivered++;
+                
+                if(metrics == null) {
+                    deliverAll(handler, sender, batch);
+                    continue;
+                }
                 
-                if(itemRef == null)
-                    it.remove();
-                else
-                    targets.add(itemRef);
+                long start = System.nanoTime();
+                
+                try {
+                    deliverAll(handler, sender, batch);
+                }
+                catch(RuntimeException ex) {
+                    metrics.recordFailure(handler, ex);
+                    throw ex;
+                }
+                finally {
+                    metrics.recordHandler(handler, System.nanoTime() - start);
+                }
             }
         }
+        finally {
+            if(metrics != null) {
+                for(int i = 0; i < batch.size(); i++)
+                    metrics.recordRaise(delivered);
+            }
+        }
+    }
+    
+    private static <T extends EventArgs> void deliverAll(IEventHandler<T> handler, Object sender, List<T> batch) {
+        if(handler instanceof IBatchEventHandler) {
+            ((IBatchEventHandler<T>)handler).handleEvents(sender, batch);
+            return;
+        }
+        
+        for(int i = 0; i < batch.size(); i++)
+            handler.handleEvent(sender, batch.get(i));
+    }
+    
+    /**
+     * Publishes the event like raise, recording each handler's latency and failures and the
+     * number of handlers reached.
+     */
+    private void raiseMeasured(Object sender, T args, HandlerList.Snapshot<IEventHandler<T>> targets, 
+            HandlerList.Snapshot<IEventHandler<T>> keyed, EventMetrics metrics) {
+        int delivered = 0;
         
-        // Publish the event to each handler outside of the
-        // synchronized block so we don't block other threads
-        // during event handling
-        for(IEventHandler<T> handler: targets) {
-            handler.handleEvent(sender, args);
+        try {
+            // Visits the unkeyed handlers, then the keyed handlers if there are any
+            for(HandlerList.Snapshot<IEventHandler<T>> current = targets; current != null; 
+                    current = current == targets ? keyed : null) {
+                for(int i = 0; i < current.count(); i++) {
+                    IEventHandler<T> handler = current.get(i);
+                    
+                    if(handler == null)
+                        continue;
+                    
+                    delivered++;
+                    long start = System.nanoTime();
+                    
+                    try {
+                        handler.handleEvent(sender, args);
+                    }
+                    catch(RuntimeException ex) {
+                        metrics.recordFailure(handler, ex);
+                        throw ex;
+                    }
+                    finally {
+                        metrics.recordHandler(handler, System.nanoTime() - start);
+                    }
+                }
+            }
+        }
+        finally {
+            metrics.recordRaise(delivered);
         }
     }
     
+    /**
+     * @return the metrics this EventManager records into, or null if it records nothing
+     */
+    public EventMetrics getMetrics() {
+        return _metrics;
+    }
+    
+    /**
+     * Estimates the heap used to hold this event's subscriptions, including keyed ones. This
+     * visits every subscription, so it is meant for diagnostics rather than regular polling.
+     * 
+     * @return the estimated footprint, with the bytes per subscription
+     */
+    public SubscriptionFootprint getFootprint() {
+        SubscriptionFootprint footprint = _handlers.footprint();
+        
+        if(_keyed != null) {
+            for(HandlerList<IEventHandler<T>> handlers: _keyed.values())
+                footprint = footprint.plus(handlers.footprint());
+        }
+        
+        return footprint;
+    }
+    
+    /**
+     * @return the current handler snapshot. The returned array must not be modified.
+     */
+    HandlerList.Snapshot<IEventHandler<T>> snapshot() {
+        return _handlers.snapshot();
+    }
+    
+    /**
+     * Attaches an object to a strong subscription taken from snapshot(), unless one is already
+     * attached
+     * 
+     * @return the object now attached to the subscription
+     */
+    Object attachStrong(HandlerList.Snapshot<IEventHandler<T>> targets, int index, Object attachment) {
+        return _handlers.attachStrong(targets, index, attachment);
+    }
+    
     /**
      * Clears all the handlers from the list.
      */
     public void clearHandlers() {
-        synchronized(_event) {
-            _handlers.clear();
+        _handlers.clear();
+        
+        if(_keyed != null) {
+            synchronized(_keyedLock) {
+                for(HandlerList<IEventHandler<T>> handlers: _keyed.values())
+                    handlers.clear();
+                
+                _keyed.clear();
+            }
         }
     }
     
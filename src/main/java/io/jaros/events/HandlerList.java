@@ -0,0 +1,850 @@
+package io.jaros.events;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+
+import io.jaros.events.metrics.EventMetrics;
+
+
+/**
+ * The handler list shared by the event managers. Readers get an immutable Snapshot through a
+ * volatile field, so they can walk the handlers without taking a lock and without allocating.
+ * Writers hold the lock and publish a new Snapshot after each change.
+ * 
+ * Each subscription is a WeakReference or SoftReference that also implements ISubscription.
+ * Closing a subscription clears the reference and enqueues it on this list's ReferenceQueue,
+ * which takes constant time and no lock. Handlers cleared by the garbage collector arrive on
+ * the same queue. A removed or collected subscription stays in the array as a cleared entry,
+ * which readers skip, until cleared entries make up half the list. The array is then compacted
+ * in one pass, so the cost of removal is constant when amortized over the removals.
+ * 
+ * New subscriptions are appended into spare capacity at the end of the array. Readers only
+ * walk up to the size recorded in their snapshot, so an append is not visible to a snapshot
+ * taken before it.
+ * 
+ * An identity hash index from handler to subscriptions lets removeHandler find a handler's
+ * subscriptions without scanning the list. The index is built from the subscriptions themselves,
+ * so it does not keep weakly subscribed handlers reachable.
+ * 
+ * Strong subscriptions are kept apart, for callers that manage the handler's lifetime
+ * themselves. The handlers are stored directly in an array of their own, with a parallel array
+ * of subscription ids, so a strong subscription costs no object of its own, gives the garbage
+ * collector no reference to process, and is one pointer closer to the handler when raising.
+ * A removed strong subscription leaves a null behind, and the strong array is compacted by the
+ * same rule as the references. An open addressing identity index from handler to position
+ * finds strong subscriptions for removal.
+ * 
+ * @author cjaros
+ * 
+ * @param &lt;H&gt; - the handler type stored in this list
+ */
+final class HandlerList<H> {
+
+    /**
+     * Cleared entries are only compacted once there are at least this many
+     */
+    private static final int MIN_COMPACT = 16;
+
+    private static final int MIN_CAPACITY = 4;
+
+    /**
+     * An immutable view of the list. Entries from 0 to size - 1 are subscriptions, which
+     * may have been cleared and must be checked for null. Strong subscriptions are listed
+     * separately and are delivered before the others.
+     */
+    static final class Snapshot<H> {
+
+        final Reference<H>[] items;
+        final int size;
+        
+        /**
+         * The strongly subscribed handlers, from 0 to strongSize - 1. Removed ones are null.
+         */
+        final Object[] strong;
+        final int strongSize;
+        
+        /**
+         * The number of removed strong handlers. Removal clears the entry in place, so together
+         * with strong and strongSize this tells whether the strong handlers have changed.
+         */
+        final int strongCleared;
+        
+        /**
+         * The ids of the strong subscriptions and the objects attached to them, at the same
+         * positions as strong. There are no attachments until the first one is made.
+         */
+        final int[] strongIds;
+        final Object[] strongAttachments;
+
+        Snapshot(Reference<H>[] items, int size, Object[] strong, int strongSize, int strongCleared, int[] strongIds,
+                Object[] strongAttachments) {
+            this.items = items;
+            this.size = size;
+            this.strong = strong;
+            this.strongSize = strongSize;
+            this.strongCleared = strongCleared;
+            this.strongIds = strongIds;
+            this.strongAttachments = strongAttachments;
+        }
+        
+        /**
+         * @return the strongly subscribed handler at an index, or null if it has been removed
+         */
+        @SuppressWarnings("unchecked")
+        H strong(int index) {
+            return (H)strong[index];
+        }
+        
+        /**
+         * @return the number of subscriptions in the snapshot, including removed ones
+         */
+        int count() {
+            return strongSize + size;
+        }
+        
+        /**
+         * Looks up a subscription by its position among all of them, the strong subscriptions
+         * first. Hot loops should walk strong and items directly instead.
+         * 
+         * @param index - from 0 to count() - 1
+         * @return the handler, or null if the subscription has been removed or collected
+         */
+        H get(int index) {
+            return index < strongSize ? strong(index) : items[index - strongSize].get();
+        }
+    }
+
+    private volatile Snapshot<H> _snapshot;
+    private final ReferenceQueue<H> _collected = new ReferenceQueue<>();
+    private final EventMetrics _metrics;
+
+    // Guarded by this
+    private Reference<H>[] _items;
+    private int _size;
+    private int _cleared;
+    private Entry<H>[] _index;
+    private int _indexed;
+    
+    // Strong subscriptions, also guarded by this. The index maps each
+    // handler to its position in the strong array, with null keys empty
+    private Object[] _strong;
+    private int[] _strongIds;
+    private Object[] _strongAttachments;
+    private int _strongSize;
+    private int _strongCleared;
+    private Object[] _strongKeys;
+    private int[] _strongSlots;
+    private int _nextStrongId;
+
+    /**
+     * @param metrics - records handlers purged after being collected, may be null
+     */
+    HandlerList(EventMetrics metrics) {
+        _metrics = metrics;
+        reset();
+    }
+
+    /**
+     * Adds a handler as either a WeakReference or a SoftReference.
+     * 
+     * @param handler - the handler to add
+     * @param weakref - If true, adds handler as a WeakReference. Otherwise, adds handler as a SoftReference
+     * @return the new subscription
+     */
+    ISubscription add(H handler, boolean weakref) {
+        if(handler == null)
+            throw new IllegalArgumentException("handler must not be null");
+
+        Entry<H> entry = weakref
+                ? new WeakEntry<>(handler, _collected)
+                : new SoftEntry<>(handler, _collected);
+
+        // Add handlers in a synchronized block so we don't
+        // stomp on other operations that could be happening
+        // concurrently
+        synchronized(this) {
+            expunge(null);
+
+            if(_size == _items.length)
+                _items = Arrays.copyOf(_items, _items.length * 2);
+
+            _items[_size++] = entry.reference();
+            index(entry);
+
+            publish();
+        }
+
+        return entry;
+    }
+
+    /**
+     * Adds a handler that is held strongly, until its subscription is closed or the handler
+     * is removed.
+     * 
+     * @param handler - the handler to add
+     * @return the new subscription
+     */
+    ISubscription addStrong(H handler) {
+        if(handler == null)
+            throw new IllegalArgumentException("handler must not be null");
+
+        int id;
+
+        synchronized(this) {
+            expunge(null);
+
+            if(_strongSize == _strong.length) {
+                _strong = Arrays.copyOf(_strong, _strong.length * 2);
+                _strongIds = Arrays.copyOf(_strongIds, _strong.length);
+                
+                if(_strongAttachments != null)
+                    _strongAttachments = Arrays.copyOf(_strongAttachments, _strong.length);
+            }
+
+            id = _nextStrongId++;
+            _strong[_strongSize] = handler;
+            _strongIds[_strongSize] = id;
+            indexStrong(handler, _strongSize);
+            _strongSize++;
+
+            publish();
+        }
+
+        return new StrongSubscription<>(this, handler, id);
+    }
+
+    /**
+     * Removes every subscription of the supplied handler.
+     * 
+     * @param handler - the handler to remove
+     */
+    void remove(H handler) {
+        if(handler == null)
+            return;
+
+        synchronized(this) {
+            expunge(null);
+
+            Entry<H> entry = _index[bucket(System.identityHashCode(handler))];
+
+            while(entry != null) {
+                Entry<H> next = entry.next();
+
+                if(entry.reference().get() == handler) {
+                    entry.close();
+                    cleared(entry);
+                }
+
+                entry = next;
+            }
+
+            compactIfNeeded();
+            
+            if(removeStrong(handler, false, 0))
+                publish();
+        }
+    }
+
+    /**
+     * Removes all the handlers.
+     */
+    void clear() {
+        synchronized(this) {
+            while(_collected.poll() != null);
+
+            // Anything still on its way to the queue belongs to the old array
+            for(int i = 0; i < _size; i++)
+                ((Entry<?>)_items[i]).removed(true);
+
+            reset();
+        }
+    }
+
+    /**
+     * @return true if every subscription in this list has been closed, removed or collected
+     */
+    boolean isEmpty() {
+        synchronized(this) {
+            expunge(null);
+            return _size == _cleared && _strongSize == _strongCleared;
+        }
+    }
+
+    /**
+     * @return an estimate of the heap used by this list's subscriptions
+     */
+    synchronized SubscriptionFootprint footprint() {
+        expunge(null);
+
+        int weak = 0;
+        int soft = 0;
+        long bytes = 0;
+
+        for(int i = 0; i < _size; i++) {
+            Reference<H> ref = _items[i];
+            boolean live = ref.get() != null;
+
+            if(ref instanceof WeakEntry) {
+                bytes += SubscriptionFootprint.WEAK_ENTRY;
+                weak += live ? 1 : 0;
+            }
+            else {
+                bytes += SubscriptionFootprint.SOFT_ENTRY;
+                soft += live ? 1 : 0;
+            }
+        }
+
+        bytes += SubscriptionFootprint.array(_items.length, SubscriptionFootprint.REFERENCE);
+        bytes += SubscriptionFootprint.array(_index.length, SubscriptionFootprint.REFERENCE);
+        bytes += SubscriptionFootprint.array(_strong.length, SubscriptionFootprint.REFERENCE);
+        bytes += SubscriptionFootprint.array(_strongIds.length, 4);
+        
+        if(_strongAttachments != null)
+            bytes += SubscriptionFootprint.array(_strongAttachments.length, SubscriptionFootprint.REFERENCE);
+        bytes += SubscriptionFootprint.array(_strongKeys.length, SubscriptionFootprint.REFERENCE);
+        bytes += SubscriptionFootprint.array(_strongSlots.length, 4);
+
+        return new SubscriptionFootprint(_strongSize - _strongCleared, weak, soft, bytes);
+    }
+
+    /**
+     * @return the current snapshot. Its array must not be modified.
+     */
+    Snapshot<H> snapshot() {
+        // Polling an empty queue is a single field read, so this only
+        // takes the lock when a subscription has been closed or collected
+        Reference<? extends H> collected = _collected.poll();
+
+        if(collected != null) {
+            synchronized(this) {
+                expunge(collected);
+            }
+        }
+
+        return _snapshot;
+    }
+
+    /**
+     * Drains the reference queue, accounting for each closed or collected subscription, and
+     * compacts the array if enough of it has been cleared. Must be called while holding the lock.
+     * 
+     * @param polled - a reference already taken from the queue, or null
+     */
+    @SuppressWarnings("unchecked")
+    private void expunge(Reference<? extends H> polled) {
+        Reference<? extends H> ref = polled != null ? polled : _collected.poll();
+
+        if(ref == null)
+            return;
+
+        for(; ref != null; ref = _collected.poll())
+            cleared((Entry<H>)ref);
+
+        compactIfNeeded();
+    }
+
+    /**
+     * Accounts for a subscription that has been cleared, removing it from the index. Must be
+     * called while holding the lock.
+     */
+    private void cleared(Entry<H> entry) {
+        if(entry.removed())
+            return;
+
+        entry.removed(true);
+        unindex(entry);
+        _cleared++;
+        
+        if(_metrics != null && !entry.closed())
+            _metrics.recordCollected();
+    }
+
+    /**
+     * Copies the live subscriptions into a new array once cleared entries make up half the
+     * list. The old array is left untouched for readers that are still walking it. Must be
+     * called while holding the lock.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private void compactIfNeeded() {
+        if(_cleared < MIN_COMPACT || _cleared * 2 < _size)
+            return;
+
+        Reference<H>[] next = new Reference[Math.max(MIN_CAPACITY, (_size - _cleared) * 2)];
+        int count = 0;
+
+        for(int i = 0; i < _size; i++) {
+            Reference<H> ref = _items[i];
+
+            if(ref.get() != null)
+                next[count++] = ref;
+            else
+                cleared((Entry<H>)ref);
+        }
+
+        _items = next;
+        _size = count;
+        _cleared = 0;
+        publish();
+    }
+
+    /**
+     * Removes strong subscriptions of a handler, then compacts the strong array if enough of it
+     * has been cleared. Must be called while holding the lock.
+     * 
+     * @param one - if true, only removes the subscription with the supplied id
+     * @return true if a subscription was removed
+     */
+    private boolean removeStrong(Object handler, boolean one, int id) {
+        int mask = _strongKeys.length - 1;
+        int cell = strongBucket(handler);
+        boolean removed = false;
+
+        while(_strongKeys[cell] != null) {
+            int slot = _strongSlots[cell];
+
+            if(_strongKeys[cell] != handler || (one && _strongIds[slot] != id)) {
+                cell = (cell + 1) & mask;
+                continue;
+            }
+
+            _strong[slot] = null;
+            _strongCleared++;
+            
+            if(_strongAttachments != null)
+                _strongAttachments[slot] = null;
+            removed = true;
+
+            // Deleting shifts a later entry into this cell, so look at it again
+            unindexStrong(cell);
+
+            if(one)
+                break;
+        }
+
+        if(!removed)
+            return false;
+
+        if(_strongCleared >= MIN_COMPACT && _strongCleared * 2 >= _strongSize) {
+            Object[] next = new Object[Math.max(MIN_CAPACITY, (_strongSize - _strongCleared) * 2)];
+            int[] ids = new int[next.length];
+            Object[] attachments = _strongAttachments != null ? new Object[next.length] : null;
+            int count = 0;
+
+            for(int i = 0; i < _strongSize; i++) {
+                if(_strong[i] != null) {
+                    next[count] = _strong[i];
+                    ids[count] = _strongIds[i];
+                    
+                    if(attachments != null)
+                        attachments[count] = _strongAttachments[i];
+                    
+                    count++;
+                }
+            }
+
+            // The array is new, so readers walking the old one are not disturbed
+            _strong = next;
+            _strongIds = ids;
+            _strongAttachments = attachments;
+            _strongSize = count;
+            _strongCleared = 0;
+            rebuildStrongIndex(_strongKeys.length);
+        }
+
+        return true;
+    }
+
+    /**
+     * Removes a single strong subscription, if it is still there
+     */
+    private synchronized void closeStrong(Object handler, int id) {
+        if(removeStrong(handler, true, id))
+            publish();
+    }
+
+    /**
+     * Publishes a new snapshot of the current arrays. Must be called while holding the lock.
+     */
+    private void publish() {
+        _snapshot = new Snapshot<>(_items, _size, _strong, _strongSize, _strongCleared, _strongIds, _strongAttachments);
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private void reset() {
+        _items = new Reference[MIN_CAPACITY];
+        _size = 0;
+        _cleared = 0;
+        _index = new Entry[MIN_CAPACITY];
+        _indexed = 0;
+        _strong = new Object[MIN_CAPACITY];
+        _strongIds = new int[MIN_CAPACITY];
+        _strongAttachments = null;
+        _strongSize = 0;
+        _strongCleared = 0;
+        _strongKeys = new Object[MIN_CAPACITY * 2];
+        _strongSlots = new int[MIN_CAPACITY * 2];
+        publish();
+    }
+
+    private int bucket(int hash) {
+        return (hash ^ (hash >>> 16)) & (_index.length - 1);
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private void index(Entry<H> entry) {
+        if(_indexed >= _index.length - (_index.length >>> 2)) {
+            Entry<H>[] old = _index;
+            _index = new Entry[old.length * 2];
+
+            for(Entry<H> head: old) {
+                while(head != null) {
+                    Entry<H> next = head.next();
+                    int bucket = bucket(head.hash());
+                    head.next(_index[bucket]);
+                    _index[bucket] = head;
+                    head = next;
+                }
+            }
+        }
+
+        int bucket = bucket(entry.hash());
+        entry.next(_index[bucket]);
+        _index[bucket] = entry;
+        _indexed++;
+    }
+
+    private int strongBucket(Object handler) {
+        return bucket(System.identityHashCode(handler), _strongKeys.length);
+    }
+
+    private static int bucket(int hash, int length) {
+        return (hash ^ (hash >>> 16)) & (length - 1);
+    }
+
+    /**
+     * Adds a handler's position to the strong index, keeping the index at most half full
+     */
+    private void indexStrong(Object handler, int slot) {
+        if((_strongSize - _strongCleared + 1) * 2 > _strongKeys.length)
+            rebuildStrongIndex(_strongKeys.length * 2);
+
+        int mask = _strongKeys.length - 1;
+        int cell = strongBucket(handler);
+
+        while(_strongKeys[cell] != null)
+            cell = (cell + 1) & mask;
+
+        _strongKeys[cell] = handler;
+        _strongSlots[cell] = slot;
+    }
+
+    /**
+     * Empties a cell of the strong index, moving later entries of the same probe run back so
+     * that lookups never stop at a gap before reaching them
+     */
+    private void unindexStrong(int cell) {
+        int mask = _strongKeys.length - 1;
+        int gap = cell;
+
+        for(int next = (gap + 1) & mask; _strongKeys[next] != null; next = (next + 1) & mask) {
+            int home = strongBucket(_strongKeys[next]);
+
+            // The entry may move back only if its home cell is not between
+            // the gap and where it sits now
+            if(((next - home) & mask) >= ((next - gap) & mask)) {
+                _strongKeys[gap] = _strongKeys[next];
+                _strongSlots[gap] = _strongSlots[next];
+                gap = next;
+            }
+        }
+
+        _strongKeys[gap] = null;
+    }
+
+    /**
+     * Rebuilds the strong index from the strong array, which is needed after the array is
+     * compacted and positions change
+     */
+    private void rebuildStrongIndex(int length) {
+        while((_strongSize - _strongCleared + 1) * 2 > length)
+            length *= 2;
+
+        _strongKeys = new Object[length];
+        _strongSlots = new int[length];
+        int mask = length - 1;
+
+        for(int i = 0; i < _strongSize; i++) {
+            if(_strong[i] == null)
+                continue;
+
+            int cell = strongBucket(_strong[i]);
+
+            while(_strongKeys[cell] != null)
+                cell = (cell + 1) & mask;
+
+            _strongKeys[cell] = _strong[i];
+            _strongSlots[cell] = i;
+        }
+    }
+
+    private void unindex(Entry<H> entry) {
+        int bucket = bucket(entry.hash());
+        Entry<H> prev = null;
+
+        for(Entry<H> current = _index[bucket]; current != null; prev = current, current = current.next()) {
+            if(current == entry) {
+                if(prev == null)
+                    _index[bucket] = current.next();
+                else
+                    prev.next(current.next());
+
+                current.next(null);
+                _indexed--;
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return the object attached to a subscription taken from a snapshot, or null
+     */
+    static Object attachment(Reference<?> subscription) {
+        return ((Entry<?>)subscription).attachment();
+    }
+
+    /**
+     * Attaches an object to a subscription taken from a snapshot, so that a manager can keep
+     * per-subscription state that lives exactly as long as the subscription.
+     */
+    static void attach(Reference<?> subscription, Object attachment) {
+        ((Entry<?>)subscription).attach(attachment);
+    }
+
+    /**
+     * @return the object attached to a strong subscription taken from a snapshot, or null
+     */
+    static Object strongAttachment(Snapshot<?> snapshot, int index) {
+        Object[] attachments = snapshot.strongAttachments;
+
+        return attachments != null ? attachments[index] : null;
+    }
+
+    /**
+     * Attaches an object to a strong subscription taken from a snapshot, unless one is already
+     * attached. Strong subscriptions have no object of their own, so the attachments are kept
+     * in an array beside the strong array, which is only allocated once something is attached.
+     * 
+     * @param snapshot - the snapshot the subscription was taken from
+     * @param index - the position of the subscription in the snapshot's strong array
+     * @param attachment - the object to attach
+     * @return the object now attached, which is the existing one if there was one, or the
+     * supplied one, even if the subscription has since been removed
+     */
+    synchronized Object attachStrong(Snapshot<H> snapshot, int index, Object attachment) {
+        Object handler = snapshot.strong[index];
+        int slot = index;
+
+        if(handler == null)
+            return attachment;
+
+        // Positions only move when the array is replaced, so find it again by handler and id
+        if(snapshot.strong != _strong) {
+            int mask = _strongKeys.length - 1;
+            int id = snapshot.strongIds[index];
+            slot = -1;
+
+            for(int cell = strongBucket(handler); _strongKeys[cell] != null; cell = (cell + 1) & mask) {
+                if(_strongKeys[cell] == handler && _strongIds[_strongSlots[cell]] == id) {
+                    slot = _strongSlots[cell];
+                    break;
+                }
+            }
+
+            if(slot < 0)
+                return attachment;
+        }
+
+        if(_strongAttachments == null) {
+            _strongAttachments = new Object[_strong.length];
+            publish();
+        }
+
+        if(_strongAttachments[slot] == null)
+            _strongAttachments[slot] = attachment;
+
+        return _strongAttachments[slot];
+    }
+
+    /**
+     * The handle returned for a strong subscription. It is not stored in the list; closing it
+     * finds the subscription through the strong index, by handler and id.
+     */
+    private static final class StrongSubscription<H> implements ISubscription {
+
+        private final HandlerList<H> _list;
+        private final H _handler;
+        private final int _id;
+
+        StrongSubscription(HandlerList<H> list, H handler, int id) {
+            _list = list;
+            _handler = handler;
+            _id = id;
+        }
+
+        @Override
+        public void close() {
+            _list.closeStrong(_handler, _id);
+        }
+    }
+
+    /**
+     * A subscription stored in the list. Implemented by reference subclasses so that the
+     * subscription, the reference and the index node are a single object.
+     */
+    private interface Entry<H> extends ISubscription {
+        Reference<H> reference();
+        int hash();
+        boolean closed();
+        Entry<H> next();
+        void next(Entry<H> next);
+        boolean removed();
+        void removed(boolean removed);
+        Object attachment();
+        void attach(Object attachment);
+    }
+
+    private static final class WeakEntry<H> extends WeakReference<H> implements Entry<H> {
+
+        private final int _hash;
+        private volatile boolean _closed;
+        private Entry<H> _next;
+        private boolean _removed;
+        private volatile Object _attachment;
+
+        WeakEntry(H handler, ReferenceQueue<? super H> queue) {
+            super(handler, queue);
+            _hash = System.identityHashCode(handler);
+        }
+
+        @Override
+        public void close() {
+            _closed = true;
+            clear();
+            enqueue();
+        }
+
+        @Override
+        public Reference<H> reference() {
+            return this;
+        }
+
+        @Override
+        public int hash() {
+            return _hash;
+        }
+
+        @Override
+        public boolean closed() {
+            return _closed;
+        }
+
+        @Override
+        public Entry<H> next() {
+            return _next;
+        }
+
+        @Override
+        public void next(Entry<H> next) {
+            _next = next;
+        }
+
+        @Override
+        public boolean removed() {
+            return _removed;
+        }
+
+        @Override
+        public void removed(boolean removed) {
+            _removed = removed;
+        }
+
+        @Override
+        public Object attachment() {
+            return _attachment;
+        }
+
+        @Override
+        public void attach(Object attachment) {
+            _attachment = attachment;
+        }
+    }
+
+    private static final class SoftEntry<H> extends SoftReference<H> implements Entry<H> {
+
+        private final int _hash;
+        private volatile boolean _closed;
+        private Entry<H> _next;
+        private boolean _removed;
+        private volatile Object _attachment;
+
+        SoftEntry(H handler, ReferenceQueue<? super H> queue) {
+            super(handler, queue);
+            _hash = System.identityHashCode(handler);
+        }
+
+        @Override
+        public void close() {
+            _closed = true;
+            clear();
+            enqueue();
+        }
+
+        @Override
+        public Reference<H> reference() {
+            return this;
+        }
+
+        @Override
+        public int hash() {
+            return _hash;
+        }
+
+        @Override
+        public boolean closed() {
+            return _closed;
+        }
+
+        @Override
+        public Entry<H> next() {
+            return _next;
+        }
+
+        @Override
+        public void next(Entry<H> next) {
+            _next = next;
+        }
+
+        @Override
+        public boolean removed() {
+            return _removed;
+        }
+
+        @Override
+        public void removed(boolean removed) {
+            _removed = removed;
+        }
+
+        @Override
+        public Object attachment() {
+            return _attachment;
+        }
+
+        @Override
+        public void attach(Object attachment) {
+            _attachment = attachment;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package io.jaros.events;
+
+/**
+ * A handle to a single subscription of a handler to an event. Closing it removes that
+ * subscription in constant time, without searching the event's handler list. Closing a
+ * subscription more than once, or after the handler has been removed or collected, has
+ * no effect.
+ * 
+ * Because this is an AutoCloseable, a subscription that should only last for a block of
+ * code can be held in a try-with-resources statement.
+ * 
+ * @author cjaros
+ */
+public interface ISubscription extends AutoCloseable {
+
+    /**
+     * Removes this subscription from the event. The handler will not be called by any raise
+     * that starts after this returns.
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,64 @@
+package io.jaros.events;
+
+import io.jaros.events.generic.IIntEventHandler;
+
+
+/**
+ * This is a restricted access child of the IntEventManager object. It provides access
+ * for subscribing to and unsubscribing from the owner. It cannot raise the event or
+ * clear all the children.
+ * 
+ * For more information on how to use this system, see README.md
+ * 
+ * @author cjaros
+ */
+public class IntEvent {
+
+    private IntEventManager _owner;
+
+    /**
+     * Creates a new IntEvent instance that will provide restricted access for the
+     * supplied IntEventManager instance.
+     * 
+     * @param owner
+     */
+    protected IntEvent(IntEventManager owner) {
+        _owner = owner;
+    }
+
+    /**
+     * Adds an event handler instance to this event as a SoftReference. See
+     * {@link Event#subscribe(io.jaros.events.generic.IEventHandler)} for details.
+     * 
+     * @param handler - the handler to be added as an observer of this event
+     * @return a subscription that can be closed to remove this handler
+     */
+    public ISubscription subscribe(IIntEventHandler handler) {
+        return _owner.addHandler(handler, false);
+    }
+
+    /**
+     * Adds an event handler instance to this event as a WeakReference. See
+     * {@link Event#subscribeWeak(io.jaros.events.generic.IEventHandler)} for details.
+     * 
+     * @param handler - the handler to be added as an observer of this event
+     * @return a subscription that can be closed to remove this handler
+     */
+    public ISubscription subscribeWeak(IIntEventHandler handler) {
+        return _owner.addHandler(handler, true);
+    }
+
+    /**
+     * Removes a handler instance from this event.
+     * 
+     * @param handler - the handler to be removed as an observer of this event
+     */
+    public void unsubscribe(IIntEventHandler handler) {
+        _owner.removeHandler(handler);
+    }
+
+    @Override
+    protected Object clone() throws CloneNotSupportedException {
+        throw new CloneNotSupportedException();
+    }
+}
@@ -0,0 +1,103 @@
+package io.jaros.events;
+
+import java.lang.ref.Reference;
+
+import io.jaros.events.generic.IIntEventHandler;
+
+
+/**
+ * An EventManager specialized for events that carry a single int value. Handlers receive the
+ * value directly, so raising the event does not box the value or allocate an EventArgs. This
+ * suits counters and gauges that change very often.
+ * 
+ * Subscriptions behave exactly as they do for EventManager, including weak and soft references
+ * and the restricted IntEvent facade.
+ * 
+ * @author cjaros
+ */
+public class IntEventManager {
+
+    private final HandlerList<IIntEventHandler> _handlers;
+    private IntEvent _event;
+
+    /**
+     * Creates a new instance of IntEventManager
+     */
+    public IntEventManager() {
+        _handlers = new HandlerList<>(null);
+        _event = new IntEvent(this);
+    }
+
+    /**
+     * Adds an event handler instance to this IntEventManager as a SoftReference.
+     * 
+     * @param handler - the handler to be added as an observer of this event
+     * @return a subscription that can be closed to remove this handler
+     */
+    public ISubscription addHandler(IIntEventHandler handler) {
+        return addHandler(handler, false);
+    }
+
+    /**
+     * Adds an event handler instance to this IntEventManager as either a WeakReference or a
+     * SoftReference. See {@link EventManager#addHandler(io.jaros.events.generic.IEventHandler, boolean)}
+     * for details.
+     * 
+     * @param handler - the handler to be added as an observer of this event
+     * @param weakref - If true, adds handler as a WeakReference. Otherwise, adds handler as a SoftReference
+     * @return a subscription that can be closed to remove this handler
+     */
+    public ISubscription addHandler(IIntEventHandler handler, boolean weakref) {
+        return _handlers.add(handler, weakref);
+    }
+
+    /**
+     * Removes a handler instance from this IntEventManager.
+     * 
+     * @param handler - the handler to be removed as an observer of this event
+     */
+    public void removeHandler(IIntEventHandler handler) {
+        _handlers.remove(handler);
+    }
+
+    /**
+     * This publishes the event, calling each of the event handlers in order with
+     * the supplied parameters.
+     * 
+     * @param sender - the object who is raising the event
+     * @param value - the value published with the event
+     */
+    public void raise(Object sender, int value) {
+        HandlerList.Snapshot<IIntEventHandler> targets = _handlers.snapshot();
+        Reference<IIntEventHandler>[] items = targets.items;
+
+        for(int i = 0; i < targets.size; i++) {
+            IIntEventHandler handler = items[i].get();
+
+            if(handler != null)
+                handler.handleEvent(sender, value);
+        }
+    }
+
+    /**
+     * Clears all the handlers from the list.
+     */
+    public void clearHandlers() {
+        _handlers.clear();
+    }
+
+    /**
+     * This provides access to a restricted event object that can only subscribe to and
+     * unsubscribe from this IntEventManager instance.
+     * 
+     * @return an IntEvent object with restricted access to the event.
+     */
+    public IntEvent getEvent() {
+        return _event;
+    }
+
+    @Override
+    protected Object clone() throws CloneNotSupportedException {
+        throw new CloneNotSupportedException();
+    }
+}
@@ -0,0 +1,297 @@
+package io.jaros.events;
+
+import java.lang.ref.Reference;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.jaros.events.generic.IEventHandler;
+import io.jaros.events.generic.IHandlerErrorSink;
+import io.jaros.events.metrics.EventMetrics;
+
+
+/**
+ * An EventManager that isolates its handlers from one another, so that one bad handler cannot
+ * break or stall delivery to the rest.
+ *
+ * An exception thrown by a handler is passed to the error sink, and delivery continues with the
+ * next handler. Without an error sink, the exception is passed to the raising thread's uncaught
+ * exception handler instead.
+ *
+ * Each time a handler throws, or takes longer than the latency budget, it earns a strike. A
+ * handler that returns normally within the budget has its strikes cleared. Once a handler has
+ * earned maxStrikes strikes in a row, it is quarantined for the cooldown period. While it is
+ * quarantined, it is either delivered to on the quarantine Executor, where it cannot hold up the
+ * raising thread, or, if there is no quarantine Executor, it is skipped entirely, like an open
+ * circuit breaker. After the cooldown, the next raise calls it on the raising thread again as a
+ * trial. If the trial succeeds within the budget the handler is restored, otherwise it goes
+ * straight back into quarantine.
+ *
+ * A handler that blocks forever cannot be interrupted, so the raise that runs it will still
+ * block. Only later raises are protected, once the handler has been quarantined.
+ *
+ * Quarantined deliveries on the Executor may run concurrently with one another and out of order.
+ *
+ * Strikes are kept per subscription. Weak and soft subscriptions keep them on their reference,
+ * and strong subscriptions in an array beside the handlers, which is only allocated once a
+ * strong subscriber misbehaves.
+ *
+ * @author cjaros
+ *
+ * @param &lt;T&gt; extends EventArgs - the object type that will carry data to observers of this event
+ */
+public class IsolatingEventManager<T extends EventArgs> extends EventManager<T> {
+
+    private final IHandlerErrorSink _errorSink;
+    private final long _latencyBudget;
+    private final int _maxStrikes;
+    private final long _cooldown;
+    private final Executor _quarantine;
+
+    /**
+     * Creates a new instance of IsolatingEventManager that reports exceptions to the supplied sink.
+     * A handler that throws five times in a row is suspended for ten seconds. There is no latency
+     * budget.
+     *
+     * @param errorSink - receives the exceptions thrown by handlers, or null to use the uncaught exception handler
+     */
+    public IsolatingEventManager(IHandlerErrorSink errorSink) {
+        this(errorSink, Long.MAX_VALUE, 5, 10000000000L, null, null);
+    }
+
+    /**
+     * Creates a new instance of IsolatingEventManager
+     *
+     * @param errorSink - receives the exceptions thrown by handlers, or null to use the uncaught exception handler
+     * @param latencyBudgetNanos - a handler taking longer than this earns a strike. Long.MAX_VALUE disables the budget
+     * @param maxStrikes - the number of strikes in a row that quarantines a handler
+     * @param cooldownNanos - how long a handler stays quarantined before it is tried again
+     * @param quarantine - runs deliveries to quarantined handlers, or null to skip them
+     * @param metrics - the metrics to record this event's activity into, or null
+     */
+    public IsolatingEventManager(IHandlerErrorSink errorSink, long latencyBudgetNanos, int maxStrikes,
+            long cooldownNanos, Executor quarantine, EventMetrics metrics) {
+        super(metrics);
+
+        if(latencyBudgetNanos < 0)
+            throw new IllegalArgumentException("latencyBudgetNanos must not be negative");
+        if(maxStrikes < 1)
+            throw new IllegalArgumentException("maxStrikes must be at least one");
+        if(cooldownNanos < 0)
+            throw new IllegalArgumentException("cooldownNanos must not be negative");
+
+        _errorSink = errorSink;
+        _latencyBudget = latencyBudgetNanos;
+        _maxStrikes = maxStrikes;
+        _cooldown = cooldownNanos;
+        _quarantine = quarantine;
+    }
+
+    /**
+     * This publishes the event, calling each handler that is not quarantined in order. An
+     * exception thrown by a handler does not stop delivery to the remaining handlers.
+     *
+     * @param sender - the object who is raising the event
+     * @param args - the event arguments containing the data payload
+     */
+    @Override
+    public void raise(Object sender, T args) {
+        HandlerList.Snapshot<IEventHandler<T>> targets = snapshot();
+        EventMetrics metrics = getMetrics();
+        int delivered = 0;
+
+        // Strong subscriptions come first, as in EventManager
+        for(int i = 0; i < targets.count(); i++) {
+            IEventHandler<T> handler = targets.get(i);
+
+            if(handler == null)
+                continue;
+
+            Isolation isolation = isolation(targets, i);
+
+            if(isolation != null && isolation.isQuarantined(System.nanoTime())) {
+                if(_quarantine != null)
+                    quarantined(handler, sender, args);
+
+                continue;
+            }
+
+            delivered++;
+            deliver(targets, i, handler, sender, args, isolation);
+        }
+
+        if(metrics != null)
+            metrics.recordRaise(delivered);
+    }
+
+    /**
+     * Publishes each event in the batch with raise, so that each handler is isolated for every
+     * event. Batch handlers receive the events one at a time through handleEvent.
+     *
+     * @param sender - the object who is raising the events
+     * @param args - the event arguments of each event, in the order they should be delivered
+     */
+    @Override
+    public void raiseAll(Object sender, List<? extends T> args) {
+        for(int i = 0; i < args.size(); i++)
+            raise(sender, args.get(i));
+    }
+
+    /**
+     * @param handler - a handler subscribed to this event
+     * @return true if any subscription of the handler is currently quarantined
+     */
+    public boolean isQuarantined(IEventHandler<T> handler) {
+        HandlerList.Snapshot<IEventHandler<T>> targets = snapshot();
+        long now = System.nanoTime();
+
+        for(int i = 0; i < targets.count(); i++) {
+            if(targets.get(i) != handler)
+                continue;
+
+            Isolation isolation = isolation(targets, i);
+
+            if(isolation != null && isolation.isQuarantined(now))
+                return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Calls a handler on the raising thread, catching its exceptions and recording a strike if
+     * it fails or runs over budget
+     */
+    private void deliver(HandlerList.Snapshot<IEventHandler<T>> targets, int index, IEventHandler<T> handler,
+            Object sender, T args, Isolation isolation) {
+        EventMetrics metrics = getMetrics();
+        long start = System.nanoTime();
+        RuntimeException failure = null;
+
+        try {
+            handler.handleEvent(sender, args);
+        }
+        catch(RuntimeException ex) {
+            failure = ex;
+        }
+
+        long end = System.nanoTime();
+        long elapsed = end - start;
+
+        if(metrics != null)
+            metrics.recordHandler(handler, elapsed);
+
+        // Reported after timing, so the time spent in the error sink is not held against the handler
+        if(failure != null)
+            failed(handler, sender, args, failure);
+
+        if(failure != null || elapsed > _latencyBudget) {
+            if(isolation == null)
+                isolation = isolate(targets, index);
+
+            isolation.strike(end, _maxStrikes, _cooldown);
+        }
+        else if(isolation != null) {
+            isolation.restore();
+        }
+    }
+
+    /**
+     * Submits a delivery to a quarantined handler to the quarantine Executor
+     */
+    private void quarantined(final IEventHandler<T> handler, final Object sender, final T args) {
+        try {
+            _quarantine.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        handler.handleEvent(sender, args);
+                    }
+                    catch(RuntimeException ex) {
+                        failed(handler, sender, args, ex);
+                    }
+                }
+            });
+        }
+        catch(RuntimeException ex) {
+            failed(handler, sender, args, ex);
+        }
+    }
+
+    private void failed(Object handler, Object sender, T args, RuntimeException failure) {
+        EventMetrics metrics = getMetrics();
+
+        if(metrics != null)
+            metrics.recordFailure(handler, failure);
+
+        if(_errorSink != null) {
+            _errorSink.handlerFailed(handler, sender, args, failure);
+        }
+        else {
+            Thread current = Thread.currentThread();
+            current.getUncaughtExceptionHandler().uncaughtException(current, failure);
+        }
+    }
+
+    /**
+     * @return the isolation state of a subscription, by its position in the snapshot with the
+     * strong subscriptions first, or null if it has not misbehaved
+     */
+    private static Isolation isolation(HandlerList.Snapshot<?> targets, int index) {
+        if(index < targets.strongSize)
+            return (Isolation)HandlerList.strongAttachment(targets, index);
+
+        return (Isolation)HandlerList.attachment(targets.items[index - targets.strongSize]);
+    }
+
+    /**
+     * Attaches the isolation state to a subscription the first time it earns a strike
+     */
+    private Isolation isolate(HandlerList.Snapshot<IEventHandler<T>> targets, int index) {
+        if(index < targets.strongSize)
+            return (Isolation)attachStrong(targets, index, new Isolation());
+
+        Reference<?> subscription = targets.items[index - targets.strongSize];
+
+        synchronized(subscription) {
+            Isolation isolation = (Isolation)HandlerList.attachment(subscription);
+
+            if(isolation == null) {
+                isolation = new Isolation();
+                HandlerList.attach(subscription, isolation);
+            }
+
+            return isolation;
+        }
+    }
+
+    /**
+     * The strikes and quarantine state of one subscription. Only subscriptions that have
+     * misbehaved have one.
+     */
+    private static final class Isolation {
+
+        private final AtomicInteger _strikes = new AtomicInteger();
+        private volatile boolean _quarantined;
+        private volatile long _until;
+
+        boolean isQuarantined(long now) {
+            return _quarantined && now - _until < 0;
+        }
+
+        void strike(long now, int maxStrikes, long cooldown) {
+            if(_strikes.incrementAndGet() >= maxStrikes) {
+                // Strikes are kept, so a failed trial after the cooldown quarantines it again
+                _until = now + cooldown;
+                _quarantined = true;
+            }
+        }
+
+        void restore() {
+            if(_strikes.get() != 0) {
+                _strikes.set(0);
+                _quarantined = false;
+            }
+        }
+    }
+}
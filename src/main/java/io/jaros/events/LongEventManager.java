@@ -0,0 +1,103 @@
+package io.jaros.events;
+
+import java.lang.ref.Reference;
+
+import io.jaros.events.generic.ILongEventHandler;
+
+
+/**
+ * An EventManager specialized for events that carry a single long value. Handlers receive the
+ * value directly, so raising the event does not box the value or allocate an EventArgs. This
+ * suits counters and gauges that change very often.
+ * 
+ * Subscriptions behave exactly as they do for EventManager, including weak and soft references
+ * and the restricted LongEvent facade.
+ * 
+ * @author cjaros
+ */
+public class LongEventManager {
+
+    private final HandlerList<ILongEventHandler> _handlers;
+    private LongEvent _event;
+
+    /**
+     * Creates a new instance of LongEventManager
+     */
+    public LongEventManager() {
+        _handlers = new HandlerList<>(null);
+        _event = new LongEvent(this);
+    }
+
+    /**
+     * Adds an event handler instance to this LongEventManager as a SoftReference.
+     * 
+     * @param handler - the handler to be added as an observer of this event
+     * @return a subscription that can be closed to remove this handler
+     */
+    public ISubscription addHandler(ILongEventHandler handler) {
+        return addHandler(handler, false);
+    }
+
+    /**
+     * Adds an event handler instance to this LongEventManager as either a WeakReference or a
+     * SoftReference. See {@link EventManager#addHandler(io.jaros.events.generic.IEventHandler, boolean)}
+     * for details.
+     * 
+     * @param handler - the handler to be added as an observer of this event
+     * @param weakref - If true, adds handler as a WeakReference. Otherwise, adds handler as a SoftReference
+     * @return a subscription that can be closed to remove this handler
+     */
+    public ISubscription addHandler(ILongEventHandler handler, boolean weakref) {
+        return _handlers.add(handler, weakref);
+    }
+
+    /**
+     * Removes a handler instance from this LongEventManager.
+     * 
+     * @param handler - the handler to be removed as an observer of this event
+     */
+    public void removeHandler(ILongEventHandler handler) {
+        _handlers.remove(handler);
+    }
+
+    /**
+     * This publishes the event, calling each of the event handlers in order with
+     * the supplied parameters.
+     * 
+     * @param sender - the object who is raising the event
+     * @param value - the value published with the event
+     */
+    public void raise(Object sender, long value) {
+        HandlerList.Snapshot<ILongEventHandler> targets = _handlers.snapshot();
+        Reference<ILongEventHandler>[] items = targets.items;
+
+        for(int i = 0; i < targets.size; i++) {
+            ILongEventHandler handler = items[i].get();
+
+            if(handler != null)
+                handler.handleEvent(sender, value);
+        }
+    }
+
+    /**
+     * Clears all the handlers from the list.
+     */
+    public void clearHandlers() {
+        _handlers.clear();
+    }
+
+    /**
+     * This provides access to a restricted event object that can only subscribe to and
+     * unsubscribe from this LongEventManager instance.
+     * 
+     * @return an LongEvent object with restricted access to the event.
+     */
+    public LongEvent getEvent() {
+        return _event;
+    }
+
+    @Override
+    protected Object clone() throws CloneNotSupportedException {
+        throw new CloneNotSupportedException();
+    }
+}
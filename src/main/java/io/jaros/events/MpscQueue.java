@@ -0,0 +1,67 @@
+package io.jaros.events;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+
+/**
+ * An unbounded, lock-free queue for many producers and a single consumer. Offering an item is
+ * one atomic swap of the tail, with no retry loop, however many threads offer at once. Polling
+ * takes no atomic operation at all, since only one thread ever polls.
+ * 
+ * An offer links its node to the queue just after swapping the tail, so for a moment the
+ * consumer may not yet see an item that a later offer has already completed behind it. poll
+ * then returns null although the queue is not empty. A consumer that knows an item is there,
+ * from a count updated after offer returns, should retry.
+ * 
+ * @author cjaros
+ *
+ * @param &lt;E&gt; - the type of the items in the queue
+ */
+final class MpscQueue<E> {
+
+    private final AtomicReference<Node<E>> _tail;
+    
+    // Only touched by the consumer. The head is a node whose item has been taken
+    private Node<E> _head;
+    
+    MpscQueue() {
+        Node<E> stub = new Node<>(null);
+        _head = stub;
+        _tail = new AtomicReference<>(stub);
+    }
+    
+    /**
+     * Adds an item to the tail of the queue. May be called from any thread.
+     */
+    void offer(E item) {
+        Node<E> node = new Node<>(item);
+        _tail.getAndSet(node).next = node;
+    }
+    
+    /**
+     * Removes the item at the head of the queue. Must only be called by the consumer.
+     * 
+     * @return the item, or null if none is visible yet
+     */
+    E poll() {
+        Node<E> next = _head.next;
+        
+        if(next == null)
+            return null;
+        
+        E item = next.item;
+        next.item = null;
+        _head = next;
+        return item;
+    }
+    
+    private static final class Node<E> {
+        
+        E item;
+        volatile Node<E> next;
+        
+        Node(E item) {
+            this.item = item;
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package io.jaros.events;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.jaros.events.generic.IKeyExtractor;
+import io.jaros.events.metrics.EventMetrics;
+
+
+/**
+ * An EventManager that delivers events on an Executor while keeping the events for each key in
+ * raise order. Each event is hashed by its key to one of a fixed number of lanes. A lane is a
+ * mailbox, drained by one task at a time on the executor, so events in the same lane are
+ * delivered one after another in the order they were raised, while different lanes are
+ * delivered in parallel. Events for the same entity are therefore handled in order without
+ * funnelling every event through one thread.
+ *
+ * By default the key is the sender. An IKeyExtractor can be supplied to order by something
+ * else, such as an entity id. The manager can be built with the same extractor for keyed
+ * subscriptions, so that each event only reaches the handlers subscribed to its key.
+ *
+ * Each lane's mailbox is a lock-free queue, so raising never blocks and never waits for a
+ * lane's worker. Mailboxes are unbounded; getLaneDepth shows how far behind each lane is.
+ * A lane only occupies an executor thread while it has events, and gives the thread up after
+ * a run of events so that other lanes sharing the executor are not starved.
+ *
+ * Handlers are resolved when an event is delivered, not when it is raised. If a handler throws,
+ * even an Error, the exception is passed to the uncaught exception handler of the worker thread, and the lane
+ * carries on with its next event. If the executor rejects a lane's task, the raising thread
+ * drains the lane itself. Since a handler may be called from several lanes at once, it
+ * must be thread-safe, but it will only see events for any one key in order.
+ *
+ * @author cjaros
+ *
+ * @param &lt;T&gt; extends EventArgs - the object type that will carry data to observers of this event
+ */
+public class OrderedAsyncEventManager<T extends EventArgs> extends EventManager<T> {
+
+    // Events a lane delivers before giving up its thread
+    private static final int THROUGHPUT = 64;
+
+    private static final Object NULL_KEY = new Object();
+
+    private final IKeyExtractor<T> _keys;
+    private final Executor _executor;
+    private final Lane[] _lanes;
+
+    /**
+     * Creates a new OrderedAsyncEventManager
+     *
+     * @param keys - picks the key events are ordered by, or null to order by sender
+     * @param executor - the executor that drains the lanes
+     * @param lanes - the number of lanes, which bounds how many events are delivered at once
+     */
+    public OrderedAsyncEventManager(IKeyExtractor<T> keys, Executor executor, int lanes) {
+        this(keys, executor, lanes, false, null);
+    }
+
+    /**
+     * Creates a new OrderedAsyncEventManager
+     *
+     * @param keys - picks the key events are ordered by, or null to order by sender
+     * @param executor - the executor that drains the lanes
+     * @param lanes - the number of lanes, which bounds how many events are delivered at once
+     * @param keyedSubscriptions - if true, keyed subscriptions are routed by the same keys
+     * @param metrics - records raises and handler latencies, or null to record nothing
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public OrderedAsyncEventManager(IKeyExtractor<T> keys, Executor executor, int lanes, boolean keyedSubscriptions,
+            EventMetrics metrics) {
+        super(keyedSubscriptions ? keys : null, metrics);
+
+        if(executor == null)
+            throw new IllegalArgumentException("executor must not be null");
+        if(lanes < 1)
+            throw new IllegalArgumentException("there must be at least one lane");
+        if(keyedSubscriptions && keys == null)
+            throw new IllegalArgumentException("keyed subscriptions need a key extractor");
+
+        _keys = keys;
+        _executor = executor;
+        _lanes = new OrderedAsyncEventManager.Lane[lanes];
+
+        for(int i = 0; i < lanes; i++)
+            _lanes[i] = new Lane();
+    }
+
+    /**
+     * Adds the event to the lane for its key and returns without waiting for it to be delivered
+     *
+     * @param sender - the object who is raising the event
+     * @param args - the event arguments containing the data payload
+     */
+    @Override
+    public void raise(Object sender, T args) {
+        Object key = _keys != null ? _keys.getKey(sender, args) : sender;
+
+        _lanes[laneOf(key)].add(new Pending<>(sender, args));
+    }
+
+    /**
+     * Adds each event in the batch to the lane for its key, as if raised one at a time
+     *
+     * @param sender - the object who is raising the events
+     * @param args - the event arguments of each event, in raise order
+     */
+    @Override
+    public void raiseAll(Object sender, List<? extends T> args) {
+        for(int i = 0; i < args.size(); i++)
+            raise(sender, args.get(i));
+    }
+
+    /**
+     * @param key - the key of an event
+     * @return the lane that events with the key are delivered in
+     */
+    public int laneOf(Object key) {
+        int hash = (key != null ? key : NULL_KEY).hashCode();
+
+        // Spreads the high bits, since many hash codes differ only there
+        hash ^= hash >>> 16;
+
+        return (hash & 0x7fffffff) % _lanes.length;
+    }
+
+    /**
+     * @return the number of lanes
+     */
+    public int getLaneCount() {
+        return _lanes.length;
+    }
+
+    /**
+     * @param lane - the index of a lane
+     * @return the number of events raised in the lane that have not finished being delivered
+     */
+    public int getLaneDepth(int lane) {
+        return _lanes[lane]._depth.get();
+    }
+
+    /**
+     * @return the number of events raised that have not finished being delivered, in all lanes
+     */
+    public long getPendingCount() {
+        long pending = 0;
+
+        for(Lane lane: _lanes)
+            pending += lane._depth.get();
+
+        return pending;
+    }
+
+    /**
+     * @return the executor that drains the lanes
+     */
+    public Executor getExecutor() {
+        return _executor;
+    }
+
+    private void deliver(Pending<T> pending) {
+        try {
+            super.raise(pending.sender, pending.args);
+        }
+        catch(Throwable ex) {
+            // Errors are caught too, or the lane's depth would never return to
+            // zero and it would not be scheduled again
+            Thread current = Thread.currentThread();
+            current.getUncaughtExceptionHandler().uncaughtException(current, ex);
+        }
+    }
+
+    /**
+     * A mailbox of events and the task that drains it. The depth counts the events added and not
+     * yet delivered. The raise that takes it from zero submits the drain task, and the drain
+     * stops once it brings it back to zero, so at most one drain runs per lane.
+     */
+    private final class Lane implements Runnable {
+
+        private final MpscQueue<Pending<T>> _mailbox = new MpscQueue<>();
+        private final AtomicInteger _depth = new AtomicInteger();
+
+        void add(Pending<T> pending) {
+            _mailbox.offer(pending);
+
+            if(_depth.getAndIncrement() != 0)
+                return;
+
+            try {
+                _executor.execute(this);
+            }
+            catch(RuntimeException ex) {
+                // The lane must still be drained, or it would never be scheduled again
+                run();
+            }
+        }
+
+        @Override
+        public void run() {
+            for(int delivered = 1; ; delivered++) {
+                Pending<T> pending = _mailbox.poll();
+
+                // The depth says an event is there, but its offer has
+                // not finished linking it to the queue yet
+                while(pending == null) {
+                    Thread.yield();
+                    pending = _mailbox.poll();
+                }
+
+                deliver(pending);
+
+                if(_depth.decrementAndGet() == 0)
+                    return;
+
+                if(delivered == THROUGHPUT && resubmit())
+                    return;
+            }
+        }
+
+        /**
+         * Hands the rest of the lane to a new task, so other lanes get a turn on this thread
+         *
+         * @return false if the executor rejected the task, and this one should carry on
+         */
+        private boolean resubmit() {
+            try {
+                _executor.execute(this);
+                return true;
+            }
+            catch(RuntimeException ex) {
+                return false;
+            }
+        }
+    }
+
+    private static final class Pending<T> {
+
+        final Object sender;
+        final T args;
+
+        Pending(Object sender, T args) {
+            this.sender = sender;
+            this.args = args;
+        }
+    }
+}
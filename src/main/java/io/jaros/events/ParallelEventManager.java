@@ -0,0 +1,293 @@
+package io.jaros.events;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+import io.jaros.events.generic.IEventHandler;
+import io.jaros.events.metrics.EventMetrics;
+
+
+/**
+ * An EventManager for events with very large numbers of independent handlers, such as one
+ * handler per connection. Once the number of subscriptions reaches a threshold, the handler
+ * list is split into chunks that are delivered in parallel on a ForkJoinPool, so the time
+ * taken by a raise no longer grows linearly with the number of handlers. Below the threshold,
+ * the event is delivered on the raising thread, where the cost of splitting would outweigh
+ * the gain.
+ *
+ * Handlers in different chunks run concurrently and in no particular order, so they must be
+ * thread-safe and must not depend on the order of delivery.
+ *
+ * Unlike EventManager, an exception thrown by a handler does not stop delivery to the other
+ * handlers. Every failure is collected, and the first is reported with the rest attached to
+ * it as suppressed exceptions. When the manager joins, raise waits for every chunk and then
+ * throws the first failure. When it does not join, raise returns as soon as the delivery has
+ * been submitted, and failures are passed to the uncaught exception handler of the worker
+ * thread that finished the delivery. raiseParallel returns a RaiseFuture for callers that want
+ * to wait for, or inspect, a single delivery.
+ *
+ * Batches passed to raiseAll are delivered serially, as by EventManager.
+ *
+ * @author cjaros
+ *
+ * @param &lt;T&gt; extends EventArgs - the object type that will carry data to observers of this event
+ */
+public class ParallelEventManager<T extends EventArgs> extends EventManager<T> {
+
+    private final ForkJoinPool _pool;
+    private final int _threshold;
+    private final int _chunkSize;
+    private final boolean _join;
+
+    /**
+     * Creates a new instance of ParallelEventManager that goes parallel at 1024 subscriptions,
+     * delivers 256 handlers per chunk and joins before raise returns.
+     *
+     * @param pool - the pool that chunks are delivered on
+     */
+    public ParallelEventManager(ForkJoinPool pool) {
+        this(pool, 1024, 256, true, null);
+    }
+
+    /**
+     * Creates a new instance of ParallelEventManager
+     *
+     * @param pool - the pool that chunks are delivered on
+     * @param threshold - the number of subscriptions at which delivery goes parallel
+     * @param chunkSize - the largest number of handlers delivered by a single task
+     * @param join - if true, raise waits for every handler to return. Otherwise raise returns once delivery is submitted
+     * @param metrics - the metrics to record this event's activity into, or null
+     */
+    public ParallelEventManager(ForkJoinPool pool, int threshold, int chunkSize, boolean join, EventMetrics metrics) {
+        super(metrics);
+
+        if(pool == null)
+            throw new IllegalArgumentException("pool must not be null");
+        if(threshold < 1)
+            throw new IllegalArgumentException("threshold must be at least one");
+        if(chunkSize < 1)
+            throw new IllegalArgumentException("chunkSize must be at least one");
+
+        _pool = pool;
+        _threshold = threshold;
+        _chunkSize = chunkSize;
+        _join = join;
+    }
+
+    /**
+     * Publishes the event to every handler. If this manager joins, or there are fewer
+     * subscriptions than the threshold, this returns once every handler has returned and
+     * throws the first handler failure, if any. Otherwise it returns once delivery has been
+     * submitted to the pool.
+     *
+     * @param sender - the object who is raising the event
+     * @param args - the event arguments containing the data payload
+     */
+    @Override
+    public void raise(Object sender, T args) {
+        HandlerList.Snapshot<IEventHandler<T>> targets = snapshot();
+
+        if(_join || targets.count() < _threshold)
+            rethrow(deliver(targets, sender, args, true, false).join());
+        else
+            deliver(targets, sender, args, false, true);
+    }
+
+    /**
+     * Publishes the event to every handler without waiting for the handlers to return, unless
+     * there are fewer subscriptions than the threshold, in which case the event is delivered on
+     * the calling thread. Handler failures are recorded on the returned handle and are not thrown
+     * or passed to an uncaught exception handler.
+     *
+     * @param sender - the object who is raising the event
+     * @param args - the event arguments containing the data payload
+     * @return a handle that completes once every handler has returned
+     */
+    public RaiseFuture raiseParallel(Object sender, T args) {
+        return deliver(snapshot(), sender, args, false, false);
+    }
+
+    /**
+     * @return the pool that chunks are delivered on
+     */
+    public ForkJoinPool getPool() {
+        return _pool;
+    }
+
+    /**
+     * @return the number of subscriptions at which delivery goes parallel
+     */
+    public int getThreshold() {
+        return _threshold;
+    }
+
+    /**
+     * @return true if raise waits for every handler to return
+     */
+    public boolean isJoin() {
+        return _join;
+    }
+
+    /**
+     * Delivers the event on the calling thread below the threshold, and on the pool otherwise
+     * 
+     * @param join - if true, runs the delivery on the calling thread when it is one of the pool's workers
+     * @param report - if true, failures are passed to the worker's uncaught exception handler
+     */
+    private RaiseFuture deliver(HandlerList.Snapshot<IEventHandler<T>> targets, Object sender, T args,
+            boolean join, boolean report) {
+        RaiseFuture future = new RaiseFuture(1);
+        Delivery<T> delivery = new Delivery<>(targets, sender, args, _chunkSize, getMetrics(), future, report);
+
+        if(targets.count() < _threshold)
+            delivery.deliverSerially();
+        else if(join && isWorker())
+            delivery.invoke();
+        else
+            _pool.execute(delivery);
+
+        return future;
+    }
+
+    /**
+     * @return true if the calling thread belongs to this manager's pool, in which case the
+     * delivery can run on it directly rather than blocking a worker while it waits
+     */
+    private boolean isWorker() {
+        Thread current = Thread.currentThread();
+        
+        return current instanceof ForkJoinWorkerThread && ((ForkJoinWorkerThread)current).getPool() == _pool;
+    }
+
+    private static void rethrow(Throwable failure) {
+        if(failure == null)
+            return;
+
+        if(failure instanceof RuntimeException)
+            throw (RuntimeException)failure;
+        if(failure instanceof Error)
+            throw (Error)failure;
+
+        throw new RuntimeException(failure);
+    }
+
+    /**
+     * Delivers one raise, splitting the handlers into chunks and completing the future once
+     * every chunk has finished
+     */
+    private static final class Delivery<T extends EventArgs> extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final HandlerList.Snapshot<IEventHandler<T>> _targets;
+        private final Object _sender;
+        private final T _args;
+        private final int _chunkSize;
+        private final EventMetrics _metrics;
+        private final RaiseFuture _future;
+        private final boolean _report;
+
+        Delivery(HandlerList.Snapshot<IEventHandler<T>> targets, Object sender, T args, int chunkSize,
+                EventMetrics metrics, RaiseFuture future, boolean report) {
+            _targets = targets;
+            _sender = sender;
+            _args = args;
+            _chunkSize = chunkSize;
+            _metrics = metrics;
+            _future = future;
+            _report = report;
+        }
+
+        void deliverSerially() {
+            finish(new Chunk<>(this, 0, _targets.count()).deliver());
+        }
+
+        @Override
+        protected void compute() {
+            finish(new Chunk<>(this, 0, _targets.count()).compute());
+        }
+
+        private void finish(int delivered) {
+            if(_metrics != null)
+                _metrics.recordRaise(delivered);
+
+            _future.complete(null);
+
+            // Nobody is waiting on a delivery that was raised without joining
+            Throwable failure = _future.failure();
+
+            if(_report && failure != null) {
+                Thread current = Thread.currentThread();
+                current.getUncaughtExceptionHandler().uncaughtException(current, failure);
+            }
+        }
+    }
+
+    /**
+     * A range of handlers, which is split in half until it is no larger than the chunk size.
+     * Computes the number of handlers that were live and delivered to.
+     */
+    private static final class Chunk<T extends EventArgs> extends RecursiveTask<Integer> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Delivery<T> _delivery;
+        private final int _from;
+        private final int _to;
+
+        Chunk(Delivery<T> delivery, int from, int to) {
+            _delivery = delivery;
+            _from = from;
+            _to = to;
+        }
+
+        @Override
+        protected Integer compute() {
+            if(_to - _from <= _delivery._chunkSize)
+                return deliver();
+
+            int middle = (_from + _to) >>> 1;
+            Chunk<T> left = new Chunk<>(_delivery, _from, middle);
+            Chunk<T> right = new Chunk<>(_delivery, middle, _to);
+
+            left.fork();
+            int delivered = right.compute();
+
+            return delivered + left.join();
+        }
+
+        int deliver() {
+            HandlerList.Snapshot<IEventHandler<T>> targets = _delivery._targets;
+            EventMetrics metrics = _delivery._metrics;
+            int delivered = 0;
+
+            for(int i = _from; i < _to; i++) {
+                IEventHandler<T> handler = targets.get(i);
+
+                if(handler == null)
+                    continue;
+
+                delivered++;
+                long start = metrics != null ? System.nanoTime() : 0;
+
+                try {
+                    handler.handleEvent(_delivery._sender, _delivery._args);
+                }
+                catch(Throwable ex) {
+                    if(metrics != null)
+                        metrics.recordFailure(handler, ex);
+
+                    _delivery._future.fail(ex);
+                }
+                finally {
+                    if(metrics != null)
+                        metrics.recordHandler(handler, System.nanoTime() - start);
+                }
+            }
+
+            return delivered;
+        }
+    }
+}
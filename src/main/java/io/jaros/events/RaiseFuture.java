@@ -0,0 +1,139 @@
+package io.jaros.events;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * A completion handle for an event that is being delivered asynchronously. The handle
+ * completes once every handler that was subscribed at the time of the raise has returned.
+ * Callers may wait on it or simply discard it.
+ * 
+ * If one or more handlers throw, <code>get()</code> throws an ExecutionException whose cause
+ * is the first failure. Any further failures are attached to that cause as suppressed exceptions.
+ * 
+ * @author cjaros
+ */
+public class RaiseFuture implements Future<Void> {
+
+    private final CountDownLatch _remaining;
+    private volatile Throwable _failure;
+    
+    /**
+     * Creates a handle that completes after the given number of deliveries have finished
+     * 
+     * @param deliveries - the number of handler invocations this handle is waiting on
+     */
+    RaiseFuture(int deliveries) {
+        _remaining = new CountDownLatch(deliveries);
+    }
+    
+    /**
+     * Marks one delivery as finished.
+     * 
+     * @param failure - the exception thrown by the handler, or null if it returned normally 
+     */
+    void complete(Throwable failure) {
+        if(failure != null)
+            fail(failure);
+        
+        _remaining.countDown();
+    }
+    
+    /**
+     * Records a handler failure without marking a delivery as finished. Used when one delivery
+     * covers several handlers.
+     * 
+     * @param failure - the exception thrown by the handler
+     */
+    void fail(Throwable failure) {
+        synchronized(this) {
+            if(_failure == null)
+                _failure = failure;
+            else if(_failure != failure)
+                _failure.addSuppressed(failure);
+        }
+    }
+    
+    /**
+     * @return the first failure, with any others suppressed on it, or null if no handler has failed
+     */
+    Throwable failure() {
+        return _failure;
+    }
+    
+    /**
+     * Waits for every delivery to finish, ignoring interrupts until it has. The interrupt
+     * status is restored before returning.
+     * 
+     * @return the first failure, with any others suppressed on it, or null if no handler has failed
+     */
+    Throwable join() {
+        boolean interrupted = false;
+        
+        while(true) {
+            try {
+                _remaining.await();
+                break;
+            }
+            catch(InterruptedException ex) {
+                interrupted = true;
+            }
+        }
+        
+        if(interrupted)
+            Thread.currentThread().interrupt();
+        
+        return _failure;
+    }
+    
+    /**
+     * Delivery that is already underway cannot be cancelled, so this always returns false.
+     */
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        return false;
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return false;
+    }
+
+    @Override
+    public boolean isDone() {
+        return _remaining.getCount() == 0;
+    }
+
+    /**
+     * @return true if delivery has finished and at least one handler threw an exception
+     */
+    public boolean isFailed() {
+        return isDone() && _failure != null;
+    }
+
+    @Override
+    public Void get() throws InterruptedException, ExecutionException {
+        _remaining.await();
+        return result();
+    }
+
+    @Override
+    public Void get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+        if(!_remaining.await(timeout, unit))
+            throw new TimeoutException("timed out waiting for event delivery");
+        
+        return result();
+    }
+    
+    private Void result() throws ExecutionException {
+        Throwable failure = _failure;
+        
+        if(failure != null)
+            throw new ExecutionException(failure);
+        
+        return null;
+    }
+}
@@ -0,0 +1,102 @@
+package io.jaros.events;
+
+/**
+ * An estimate of the heap used to hold an event's subscriptions, by subscription mode. It
+ * counts the subscription objects, the arrays the handlers are stored in and the indexes used
+ * to remove them, but not the handlers themselves, which belong to the subscriber, nor the
+ * ISubscription handles returned for strong subscriptions, which are only kept if the caller
+ * keeps them. Subscriptions that have been removed but not yet compacted away are included in
+ * the bytes, since they still take up room.
+ * 
+ * Sizes assume a 64-bit JVM with compressed object pointers, the default for heaps smaller
+ * than 32 GB, where an object header is 12 bytes, a reference is 4 bytes and objects are
+ * aligned to 8 bytes.
+ * 
+ * @author cjaros
+ */
+public final class SubscriptionFootprint {
+
+    static final int OBJECT_HEADER = 12;
+    static final int ARRAY_HEADER = 16;
+    static final int REFERENCE = 4;
+
+    // A WeakReference has four reference fields. The entry adds its hash,
+    // index link, attachment and two flags. A SoftReference adds a timestamp.
+    static final long WEAK_ENTRY = align(OBJECT_HEADER + 4 * REFERENCE + 4 + 2 * REFERENCE + 2);
+    static final long SOFT_ENTRY = align(OBJECT_HEADER + 4 * REFERENCE + 8 + 4 + 2 * REFERENCE + 2);
+
+    private final int _strong;
+    private final int _weak;
+    private final int _soft;
+    private final long _bytes;
+
+    SubscriptionFootprint(int strong, int weak, int soft, long bytes) {
+        _strong = strong;
+        _weak = weak;
+        _soft = soft;
+        _bytes = bytes;
+    }
+
+    /**
+     * @return the number of live strong subscriptions
+     */
+    public int getStrongCount() {
+        return _strong;
+    }
+
+    /**
+     * @return the number of live weak subscriptions
+     */
+    public int getWeakCount() {
+        return _weak;
+    }
+
+    /**
+     * @return the number of live soft subscriptions
+     */
+    public int getSoftCount() {
+        return _soft;
+    }
+
+    /**
+     * @return the number of live subscriptions of every mode
+     */
+    public int getSubscriptionCount() {
+        return _strong + _weak + _soft;
+    }
+
+    /**
+     * @return the estimated bytes used to hold the subscriptions
+     */
+    public long getBytes() {
+        return _bytes;
+    }
+
+    /**
+     * @return the estimated bytes per live subscription, or 0 if there are none
+     */
+    public double getBytesPerSubscription() {
+        int count = getSubscriptionCount();
+        
+        return count == 0 ? 0 : (double)_bytes / count;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d subscriptions (%d strong, %d weak, %d soft), %d bytes, %.1f bytes per subscription",
+                getSubscriptionCount(), _strong, _weak, _soft, _bytes, getBytesPerSubscription());
+    }
+
+    SubscriptionFootprint plus(SubscriptionFootprint other) {
+        return new SubscriptionFootprint(_strong + other._strong, _weak + other._weak, _soft + other._soft,
+                _bytes + other._bytes);
+    }
+
+    static long array(int length, int elementSize) {
+        return align(ARRAY_HEADER + (long)length * elementSize);
+    }
+
+    private static long align(long size) {
+        return (size + 7) & ~7L;
+    }
+}
@@ -0,0 +1,137 @@
+package io.jaros.events.annotation;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+
+import io.jaros.events.EventBus;
+import io.jaros.events.ISubscription;
+import io.jaros.events.generic.IEventHandler;
+
+
+/**
+ * Finds the dispatchers generated for a subscriber's class and its superclasses, and registers
+ * the subscriber with them. Dispatchers are looked up and created once per class; after that a
+ * registration only calls the generated code.
+ *
+ * @author cjaros
+ */
+public final class Dispatchers {
+
+    /**
+     * Appended to the binary name of a class to get the name of its generated dispatcher
+     */
+    public static final String SUFFIX = "_Dispatcher";
+
+    @SuppressWarnings("rawtypes")
+    private static final ClassValue<IDispatcher[]> DISPATCHERS = new ClassValue<IDispatcher[]>() {
+        @Override
+        protected IDispatcher[] computeValue(Class<?> type) {
+            ArrayList<IDispatcher> found = new ArrayList<>();
+
+            for(Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+                IDispatcher dispatcher = load(current);
+
+                if(dispatcher != null)
+                    found.add(dispatcher);
+            }
+
+            return found.toArray(new IDispatcher[found.size()]);
+        }
+    };
+
+    private Dispatchers() {
+    }
+
+    /**
+     * Subscribes each @Subscribe method of the subscriber to the bus, including the methods
+     * declared by its superclasses. If a subclass overrides an annotated method, each
+     * annotated declaration is subscribed separately, and each calls the override.
+     *
+     * The generated handlers are subscribed as SoftReferences that only the returned
+     * subscription keeps reachable. EventBus.register holds it until it is closed.
+     *
+     * @param subscriber - the object whose methods will receive the events
+     * @param bus - the bus to subscribe to
+     * @return a subscription that can be closed to remove every method it subscribed
+     * @throws IllegalArgumentException if no dispatcher was generated for the subscriber's class
+     */
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    public static ISubscription register(Object subscriber, EventBus bus) {
+        if(subscriber == null)
+            throw new IllegalArgumentException("subscriber must not be null");
+
+        IDispatcher[] dispatchers = DISPATCHERS.get(subscriber.getClass());
+
+        if(dispatchers.length == 0)
+            throw new IllegalArgumentException("no dispatcher was generated for " + subscriber.getClass().getName()
+                    + ", check that it has @Subscribe methods and that SubscribeProcessor was on the processor path"
+                    + " when it was compiled");
+
+        if(dispatchers.length == 1)
+            return dispatchers[0].register(subscriber, bus);
+
+        ISubscription[] subscriptions = new ISubscription[dispatchers.length];
+
+        for(int i = 0; i < dispatchers.length; i++)
+            subscriptions[i] = dispatchers[i].register(subscriber, bus);
+
+        return combine(subscriptions, null);
+    }
+
+    /**
+     * Joins the subscriptions made by a dispatcher into one. This is called by generated code.
+     *
+     * @param subscriptions - the subscriptions to close together
+     * @param handlers - the handlers that were subscribed, which are kept reachable for as long
+     * as the returned subscription is, or null
+     * @return a subscription that closes each of the supplied subscriptions
+     */
+    public static ISubscription combine(ISubscription[] subscriptions, IEventHandler<?>[] handlers) {
+        return new CombinedSubscription(subscriptions, handlers);
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static IDispatcher load(Class<?> type) {
+        ClassLoader loader = type.getClassLoader();
+        Class<?> generated;
+
+        try {
+            generated = Class.forName(type.getName() + SUFFIX, true,
+                    loader != null ? loader : ClassLoader.getSystemClassLoader());
+        }
+        catch(ClassNotFoundException ex) {
+            return null;
+        }
+
+        if(!IDispatcher.class.isAssignableFrom(generated))
+            return null;
+
+        try {
+            return (IDispatcher)generated.getDeclaredConstructor().newInstance();
+        }
+        catch(NoSuchMethodException | InstantiationException | IllegalAccessException | InvocationTargetException ex) {
+            throw new IllegalStateException("could not create " + generated.getName(), ex);
+        }
+    }
+
+    private static final class CombinedSubscription implements ISubscription {
+
+        private final ISubscription[] _subscriptions;
+
+        // Only held so the generated handlers, which nothing else references,
+        // are not collected while the subscription is in use
+        @SuppressWarnings("unused")
+        private final IEventHandler<?>[] _handlers;
+
+        CombinedSubscription(ISubscription[] subscriptions, IEventHandler<?>[] handlers) {
+            _subscriptions = subscriptions;
+            _handlers = handlers;
+        }
+
+        @Override
+        public void close() {
+            for(ISubscription subscription: _subscriptions)
+                subscription.close();
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package io.jaros.events.annotation;
+
+import io.jaros.events.EventBus;
+import io.jaros.events.ISubscription;
+
+
+/**
+ * Subscribes the @Subscribe methods declared by one class. Implementations are generated by
+ * the SubscribeProcessor and are named after the class with a _Dispatcher suffix.
+ * 
+ * @author cjaros
+ *
+ * @param &lt;S&gt; - the class whose methods are subscribed
+ */
+public interface IDispatcher<S> {
+
+    /**
+     * Subscribes each @Subscribe method declared by the subscriber's class to the events of its
+     * EventArgs type on the bus. Methods inherited from superclasses are not included.
+     * 
+     * @param subscriber - the object whose methods will receive the events
+     * @param bus - the bus to subscribe to
+     * @return a subscription that can be closed to remove every method it subscribed
+     */
+    ISubscription register(S subscriber, EventBus bus);
+}
@@ -0,0 +1,28 @@
+package io.jaros.events.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+
+/**
+ * Marks a method as an event handler, so that it can be subscribed to an EventBus without
+ * writing an IEventHandler for it. The method must take an Object sender followed by a
+ * subclass of EventArgs, must not be private or static, and must not declare checked
+ * exceptions. It receives the events published with that type of EventArgs or a subclass.
+ * 
+ * When the SubscribeProcessor is on the processor path, it reads these annotations as the class
+ * is compiled and generates a dispatcher that calls each method directly, so no reflection is
+ * used when an event is delivered. The annotation is not kept at runtime.
+ * 
+ * For more information on how to use this system, see README.md
+ * 
+ * @author cjaros
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.METHOD)
+public @interface Subscribe {
+}
@@ -0,0 +1,236 @@
+package io.jaros.events.bridge;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+
+import io.jaros.events.EventArgs;
+import io.jaros.events.EventManager;
+import io.jaros.events.journal.IEventCodec;
+
+
+/**
+ * The receiving half of an event bridge between JVMs. It listens for connections from
+ * EventBridgeSenders, decodes the events in each frame they send, and raises them on a mirror
+ * EventManager, in the order they were raised on the sending side. The sender passed to the
+ * mirror's handlers is the sender id recorded by the codec, as a Long.
+ *
+ * Events are raised on the receiver's I/O thread. If a handler of the mirror throws, the
+ * exception is passed to that thread's uncaught exception handler and the remaining events
+ * are still raised. A connection that sends a frame larger than the maximum frame size is
+ * closed.
+ *
+ * @author cjaros
+ *
+ * @param &lt;T&gt; extends EventArgs - the object type of the events being bridged
+ */
+public class EventBridgeReceiver<T extends EventArgs> implements Closeable {
+
+    private final IEventCodec<T> _codec;
+    private final EventManager<T> _mirror;
+    private final int _maxFrameSize;
+
+    private final ServerSocketChannel _server;
+    private final Selector _selector;
+    private final Thread _thread;
+    private volatile boolean _running;
+
+    /**
+     * Creates a new receiver and binds it to the supplied address. Call start to begin
+     * accepting connections.
+     *
+     * @param local - the address to listen on. A port of 0 picks a free port
+     * @param codec - converts bytes back to events
+     * @param mirror - the EventManager the received events are raised on
+     * @param maxFrameSize - the largest frame a sender may send, in bytes
+     * @throws IOException if the address cannot be bound
+     */
+    public EventBridgeReceiver(InetSocketAddress local, IEventCodec<T> codec, EventManager<T> mirror, int maxFrameSize)
+            throws IOException {
+        if(local == null || codec == null || mirror == null)
+            throw new IllegalArgumentException("local, codec and mirror must not be null");
+        if(maxFrameSize <= EventBridgeSender.FRAME_HEADER)
+            throw new IllegalArgumentException("maxFrameSize is too small");
+
+        _codec = codec;
+        _mirror = mirror;
+        _maxFrameSize = maxFrameSize;
+
+        _selector = Selector.open();
+        _server = ServerSocketChannel.open();
+        _server.bind(local);
+        _server.configureBlocking(false);
+        _server.register(_selector, SelectionKey.OP_ACCEPT);
+
+        _thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                loop();
+            }
+        }, "event-bridge-receiver-" + local);
+        _thread.setDaemon(true);
+    }
+
+    /**
+     * Starts the I/O thread, which accepts connections and raises the events they carry
+     */
+    public synchronized void start() {
+        if(_running)
+            throw new IllegalStateException("the receiver is already running");
+
+        _running = true;
+        _thread.start();
+    }
+
+    /**
+     * @return the address the receiver is listening on
+     * @throws IOException
+     */
+    public InetSocketAddress getLocalAddress() throws IOException {
+        return (InetSocketAddress)_server.getLocalAddress();
+    }
+
+    /**
+     * Stops the I/O thread and closes every connection
+     *
+     * @throws IOException
+     */
+    @Override
+    public void close() throws IOException {
+        _running = false;
+        _selector.wakeup();
+
+        try {
+            _thread.join();
+        }
+        catch(InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        finally {
+            for(SelectionKey key: _selector.keys())
+                key.channel().close();
+
+            _selector.close();
+        }
+    }
+
+    private void loop() {
+        try {
+            while(_running) {
+                _selector.select();
+
+                for(SelectionKey key: _selector.selectedKeys()) {
+                    if(!key.isValid())
+                        continue;
+
+                    if(key.isAcceptable())
+                        accept();
+                    else if(key.isReadable())
+                        read(key);
+                }
+
+                _selector.selectedKeys().clear();
+            }
+        }
+        catch(IOException ex) {
+            failed(ex);
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = _server.accept();
+
+        if(channel == null)
+            return;
+
+        channel.configureBlocking(false);
+        channel.register(_selector, SelectionKey.OP_READ, ByteBuffer.allocateDirect(_maxFrameSize));
+    }
+
+    /**
+     * Reads what is available from a connection and raises the events in every complete frame
+     */
+    private void read(SelectionKey key) {
+        SocketChannel channel = (SocketChannel)key.channel();
+        ByteBuffer buffer = (ByteBuffer)key.attachment();
+
+        try {
+            if(channel.read(buffer) < 0) {
+                channel.close();
+                return;
+            }
+
+            buffer.flip();
+
+            while(buffer.remaining() >= EventBridgeSender.FRAME_HEADER) {
+                int start = buffer.position();
+                int length = buffer.getInt(start);
+
+                if(length < EventBridgeSender.FRAME_HEADER || length > _maxFrameSize) {
+                    channel.close();
+                    return;
+                }
+
+                if(buffer.remaining() < length)
+                    break;
+
+                raise(buffer, start, length);
+                buffer.position(start + length);
+            }
+
+            buffer.compact();
+        }
+        catch(IOException ex) {
+            try {
+                channel.close();
+            }
+            catch(IOException closing) {
+                // Nothing more can be done with it
+            }
+        }
+    }
+
+    /**
+     * Decodes and raises the events in one frame
+     */
+    private void raise(ByteBuffer buffer, int start, int length) {
+        int count = buffer.getInt(start + 4);
+        int position = start + EventBridgeSender.FRAME_HEADER;
+        ByteBuffer body = buffer.duplicate();
+
+        for(int i = 0; i < count; i++) {
+            // A malformed event would run past the end of the frame
+            if(position + EventBridgeSender.EVENT_HEADER > start + length)
+                return;
+
+            int size = buffer.getInt(position);
+
+            if(size < 0 || position + EventBridgeSender.EVENT_HEADER + size > start + length)
+                return;
+
+            Long senderId = buffer.getLong(position + 4);
+
+            body.limit(position + EventBridgeSender.EVENT_HEADER + size);
+            body.position(position + EventBridgeSender.EVENT_HEADER);
+
+            try {
+                _mirror.raise(senderId, _codec.decode(body));
+            }
+            catch(RuntimeException ex) {
+                failed(ex);
+            }
+
+            position += EventBridgeSender.EVENT_HEADER + size;
+        }
+    }
+
+    private void failed(Throwable failure) {
+        Thread current = Thread.currentThread();
+        current.getUncaughtExceptionHandler().uncaughtException(current, failure);
+    }
+}
@@ -0,0 +1,382 @@
+package io.jaros.events.bridge;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.jaros.events.EventArgs;
+import io.jaros.events.generic.IEventHandler;
+import io.jaros.events.journal.IEventCodec;
+
+
+/**
+ * The sending half of an event bridge between JVMs. Subscribe it to a local event, and each
+ * event raised there is sent to an EventBridgeReceiver, which raises it again on a mirror
+ * EventManager in the other JVM.
+ *
+ * Handling an event only adds it to a bounded queue, so the raising thread never waits on the
+ * network. A single I/O thread drains the queue, encodes as many queued events as fit into one
+ * frame, and writes the frame over a non-blocking socket. Events raised while a frame is being
+ * written are coalesced into the next frame. If the receiver is slow or unreachable and the
+ * queue fills up, further events are dropped and counted rather than blocking the raise.
+ *
+ * The event arguments are encoded on the I/O thread, after the raise has returned, so they must
+ * not be changed once raised. If the connection is lost, or is not established within the
+ * connect timeout, the frame being written is dropped and the sender reconnects after the
+ * retry delay.
+ *
+ * A frame is a four byte length, a four byte event count and the events. Each event is a four
+ * byte length, an eight byte sender id and the body written by the codec.
+ *
+ * @author cjaros
+ *
+ * @param &lt;T&gt; extends EventArgs - the object type of the events being bridged
+ */
+public class EventBridgeSender<T extends EventArgs> implements IEventHandler<T>, Closeable {
+
+    static final int FRAME_HEADER = 8;
+    static final int EVENT_HEADER = 12;
+
+    private static final long RETRY_DELAY = 1000;
+    private static final long CONNECT_TIMEOUT = 5000;
+
+    private final InetSocketAddress _remote;
+    private final IEventCodec<T> _codec;
+    private final int _capacity;
+
+    private final Queue<Pending<T>> _queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger _queued = new AtomicInteger();
+    private final AtomicLong _dropped = new AtomicLong();
+    private final AtomicBoolean _wakeup = new AtomicBoolean();
+
+    // Only touched by the I/O thread
+    private final ByteBuffer _frame;
+    private Pending<T> _carried;
+    private long _retryAt;
+    private long _connectBy;
+
+    // Only written by the I/O thread. Raisers read it so they do not wake
+    // the thread while it waits to reconnect, when it has nothing to send to
+    private volatile SocketChannel _channel;
+
+    private final Selector _selector;
+    private final Thread _thread;
+    private volatile boolean _running;
+
+    /**
+     * Creates a new sender. Call start to begin connecting.
+     *
+     * @param remote - the address the receiver is listening on
+     * @param codec - converts events to bytes
+     * @param capacity - the number of events that may wait to be sent before events are dropped
+     * @param frameSize - the largest frame, in bytes. An event that does not fit in a frame on its own is dropped
+     * @throws IOException if the selector cannot be opened
+     */
+    public EventBridgeSender(InetSocketAddress remote, IEventCodec<T> codec, int capacity, int frameSize) throws IOException {
+        if(remote == null || codec == null)
+            throw new IllegalArgumentException("remote and codec must not be null");
+        if(capacity < 1)
+            throw new IllegalArgumentException("capacity must be at least one");
+        if(frameSize <= FRAME_HEADER + EVENT_HEADER)
+            throw new IllegalArgumentException("frameSize is too small");
+
+        _remote = remote;
+        _codec = codec;
+        _capacity = capacity;
+        _frame = ByteBuffer.allocateDirect(frameSize);
+        _frame.limit(0);
+        _selector = Selector.open();
+
+        _thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                loop();
+            }
+        }, "event-bridge-sender-" + remote);
+        _thread.setDaemon(true);
+    }
+
+    /**
+     * Starts the I/O thread, which connects to the receiver
+     */
+    public synchronized void start() {
+        if(_running)
+            throw new IllegalStateException("the sender is already running");
+
+        _running = true;
+        _thread.start();
+    }
+
+    /**
+     * Queues the event to be sent. This never blocks. If the queue is full, the event is dropped.
+     *
+     * @param sender - the object who raised the event
+     * @param args - the event arguments
+     */
+    @Override
+    public void handleEvent(Object sender, T args) {
+        if(_queued.incrementAndGet() > _capacity) {
+            _queued.decrementAndGet();
+            _dropped.incrementAndGet();
+            return;
+        }
+
+        _queue.offer(new Pending<>(_codec.senderId(sender), args));
+
+        // Only the first event after the I/O thread last woke needs to wake it.
+        // While disconnected, the retry delay already bounds its wait
+        if(_channel != null && !_wakeup.get() && _wakeup.compareAndSet(false, true))
+            _selector.wakeup();
+    }
+
+    /**
+     * @return the number of events dropped because the queue was full, they were too large
+     * for a frame, or the connection was lost while they were being sent
+     */
+    public long getDroppedCount() {
+        return _dropped.get();
+    }
+
+    /**
+     * @return the number of events waiting to be sent
+     */
+    public int getQueuedCount() {
+        return _queued.get();
+    }
+
+    /**
+     * Stops the I/O thread and closes the connection. Events that have not been sent are
+     * discarded.
+     *
+     * @throws IOException
+     */
+    @Override
+    public void close() throws IOException {
+        _running = false;
+        _selector.wakeup();
+
+        try {
+            _thread.join();
+        }
+        catch(InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        finally {
+            _selector.close();
+        }
+    }
+
+    private void loop() {
+        try {
+            while(_running) {
+                if(_channel == null && System.currentTimeMillis() >= _retryAt)
+                    connect();
+
+                _wakeup.set(false);
+
+                if(_channel != null && _channel.isConnected())
+                    send();
+
+                _selector.select(waitTime());
+
+                for(SelectionKey key: _selector.selectedKeys()) {
+                    if(key.isValid() && key.isConnectable())
+                        finishConnect();
+                }
+
+                _selector.selectedKeys().clear();
+
+                // The receiver may be unreachable, and the OS can take minutes to give up
+                if(_channel != null && _channel.isConnectionPending() && System.currentTimeMillis() >= _connectBy)
+                    lost();
+            }
+        }
+        catch(IOException ex) {
+            failed(ex);
+        }
+        finally {
+            disconnect();
+        }
+    }
+
+    /**
+     * @return how long the selector may wait, 0 to wait until it is woken
+     */
+    private long waitTime() {
+        SocketChannel channel = _channel;
+        long now = System.currentTimeMillis();
+
+        if(channel == null)
+            return Math.max(1, _retryAt - now);
+
+        if(channel.isConnectionPending())
+            return Math.max(1, _connectBy - now);
+
+        return 0;
+    }
+
+    private void connect() throws IOException {
+        _channel = SocketChannel.open();
+        _channel.configureBlocking(false);
+        _channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        _connectBy = System.currentTimeMillis() + CONNECT_TIMEOUT;
+
+        try {
+            if(_channel.connect(_remote))
+                _channel.register(_selector, 0);
+            else
+                _channel.register(_selector, SelectionKey.OP_CONNECT);
+        }
+        catch(IOException ex) {
+            lost();
+        }
+    }
+
+    private void finishConnect() {
+        try {
+            if(_channel.finishConnect())
+                _channel.keyFor(_selector).interestOps(0);
+        }
+        catch(IOException ex) {
+            lost();
+        }
+    }
+
+    /**
+     * Writes the current frame, then builds and writes frames until the queue is empty or the
+     * socket cannot take any more
+     */
+    private void send() {
+        SelectionKey key = _channel.keyFor(_selector);
+
+        try {
+            while(true) {
+                if(!_frame.hasRemaining() && !fill())
+                    break;
+
+                _channel.write(_frame);
+
+                if(_frame.hasRemaining()) {
+                    // The socket is full. Wait until it can be written again
+                    key.interestOps(SelectionKey.OP_WRITE);
+                    return;
+                }
+            }
+
+            key.interestOps(0);
+        }
+        catch(IOException ex) {
+            lost();
+        }
+    }
+
+    /**
+     * Encodes as many queued events as fit into a new frame
+     *
+     * @return true if the frame holds at least one event
+     */
+    private boolean fill() {
+        _frame.clear();
+        _frame.position(FRAME_HEADER);
+        int count = 0;
+
+        while(true) {
+            Pending<T> pending = _carried != null ? _carried : _queue.poll();
+            _carried = null;
+
+            if(pending == null)
+                break;
+
+            int start = _frame.position();
+
+            try {
+                _frame.position(start + EVENT_HEADER);
+                _codec.encode(pending.args, _frame);
+                _frame.putInt(start, _frame.position() - start - EVENT_HEADER);
+                _frame.putLong(start + 4, pending.senderId);
+                _queued.decrementAndGet();
+                count++;
+            }
+            catch(BufferOverflowException | IllegalArgumentException ex) {
+                _frame.position(start);
+
+                if(count > 0) {
+                    // Send it in the next frame
+                    _carried = pending;
+                    break;
+                }
+
+                // Too large for any frame
+                _queued.decrementAndGet();
+                _dropped.incrementAndGet();
+            }
+        }
+
+        _frame.flip();
+
+        if(count == 0) {
+            _frame.limit(0);
+            return false;
+        }
+
+        _frame.putInt(0, _frame.limit());
+        _frame.putInt(4, count);
+        return true;
+    }
+
+    /**
+     * Drops the connection and the frame being written, and schedules a reconnect
+     */
+    private void lost() {
+        if(_frame.hasRemaining())
+            _dropped.addAndGet(_frame.getInt(4));
+
+        _frame.limit(0);
+        disconnect();
+        _retryAt = System.currentTimeMillis() + RETRY_DELAY;
+    }
+
+    private void disconnect() {
+        if(_channel == null)
+            return;
+
+        try {
+            _channel.close();
+        }
+        catch(IOException ex) {
+            // Nothing more can be done with it
+        }
+
+        _channel = null;
+    }
+
+    private void failed(Throwable failure) {
+        Thread current = Thread.currentThread();
+        current.getUncaughtExceptionHandler().uncaughtException(current, failure);
+    }
+
+    /**
+     * An event waiting to be sent
+     */
+    private static final class Pending<T> {
+
+        final long senderId;
+        final T args;
+
+        Pending(long senderId, T args) {
+            this.senderId = senderId;
+            this.args = args;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package io.jaros.events.generic;
+
+import java.util.List;
+
+import io.jaros.events.EventArgs;
+
+
+/**
+ * An event handler that can take a whole batch of events in one call. When a batch is raised
+ * with EventManager.raiseAll, handlers implementing this interface receive the batch through
+ * handleEvents, which lets them amortize their own work, such as writing the batch to a database
+ * in a single statement or taking a lock once. Handlers that only implement IEventHandler 
+ * receive the batch one event at a time.
+ * 
+ * Single events raised with raise() are still delivered through handleEvent.
+ * 
+ * @author cjaros
+ *
+ * @param &lt;T> extends EventArgs - the object type that this event handler will accept as a data payload
+ */
+public interface IBatchEventHandler<T extends EventArgs> extends IEventHandler<T> {
+
+    /**
+     * This method is called by an EventManager to which this handler has been added when a
+     * batch of events is raised. The list cannot be modified and must not be kept after this
+     * method returns.
+     * 
+     * @param sender - the object who is raised the events
+     * @param args - the event arguments of each event in the batch, in raise order
+     */
+    void handleEvents(Object sender, List<T> args);
+}
@@ -0,0 +1,21 @@
+package io.jaros.events.generic;
+
+
+/**
+ * A handler for events that carry a single double value. This is the primitive counterpart of
+ * IEventHandler&lt;EventArg&lt;Double&gt;&gt;, and is used with DoubleEventManager so that raising
+ * an event neither boxes the value nor allocates an EventArgs.
+ * 
+ * @author cjaros
+ */
+public interface IDoubleEventHandler {
+
+    /**
+     * This method is called by an DoubleEventManager to which this handler has been added when the
+     * event is raised.
+     * 
+     * @param sender - the object who is raised the event
+     * @param value - the value published with the event
+     */
+    void handleEvent(Object sender, double value);
+}
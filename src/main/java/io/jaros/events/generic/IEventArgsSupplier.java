@@ -0,0 +1,20 @@
+package io.jaros.events.generic;
+
+import io.jaros.events.EventArgs;
+
+
+/**
+ * Builds the arguments of an event on demand, so that an event with no handlers does not
+ * pay to build them.
+ * 
+ * @author cjaros
+ *
+ * @param &lt;T> extends EventArgs - the object type that this supplier builds
+ */
+public interface IEventArgsSupplier<T extends EventArgs> {
+
+    /**
+     * @return the event arguments to raise
+     */
+    T get();
+}
@@ -0,0 +1,21 @@
+package io.jaros.events.generic;
+
+import io.jaros.events.EventArgs;
+
+
+/**
+ * A condition on a raised event, used to pick out the events a caller is interested in.
+ * 
+ * @author cjaros
+ *
+ * @param &lt;T> extends EventArgs - the object type of the events being tested
+ */
+public interface IEventPredicate<T extends EventArgs> {
+
+    /**
+     * @param sender - the object who raised the event
+     * @param args - the event arguments containing the data payload
+     * @return true if the event matches
+     */
+    boolean test(Object sender, T args);
+}
@@ -0,0 +1,23 @@
+package io.jaros.events.generic;
+
+import io.jaros.events.EventArgs;
+
+
+/**
+ * Receives the exceptions thrown by event handlers when the event manager isolates its handlers
+ * from one another, rather than letting an exception stop the raise.
+ *
+ * @author cjaros
+ */
+public interface IHandlerErrorSink {
+
+    /**
+     * Called on the thread that ran the handler, after the handler threw.
+     *
+     * @param handler - the handler that threw
+     * @param sender - the object who raised the event
+     * @param args - the event arguments the handler was called with
+     * @param failure - the exception the handler threw
+     */
+    void handlerFailed(Object handler, Object sender, EventArgs args, Throwable failure);
+}
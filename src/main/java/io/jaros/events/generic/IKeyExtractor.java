@@ -0,0 +1,24 @@
+package io.jaros.events.generic;
+
+import io.jaros.events.EventArgs;
+
+
+/**
+ * Picks the key of a raised event, such as the id of the entity the event is about. Event
+ * managers that group, route or order events by key use this to find the key of each event.
+ * 
+ * @author cjaros
+ *
+ * @param &lt;T> extends EventArgs - the object type of the events being keyed
+ */
+public interface IKeyExtractor<T extends EventArgs> {
+
+    /**
+     * Returns the key of an event. Keys are compared with equals and hashCode.
+     * 
+     * @param sender - the object who is raising the event
+     * @param args - the event arguments containing the data payload
+     * @return the key of the event, may be null
+     */
+    Object getKey(Object sender, T args);
+}
@@ -0,0 +1,334 @@
+package io.jaros.events.journal;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import io.jaros.events.EventArgs;
+import io.jaros.events.generic.IEventHandler;
+
+
+/**
+ * A segmented, append-only log of events, stored in memory-mapped files in a directory. Each
+ * event is encoded by an IEventCodec directly into the mapped segment, so appending an event is
+ * a handful of memory writes rather than a system call. Data reaches the disk when the operating
+ * system writes the pages back, or when flush is called.
+ *
+ * Every event has an offset, which only ever increases. Events can be replayed into any handler
+ * from an offset, so that a subscriber that joined late, or a process that restarted, can catch
+ * up on the events it missed.
+ *
+ * Each segment is a file of a fixed size, named after the offset of its first event. Offsets
+ * are contiguous across segments. When an event does not fit in the current segment, a new
+ * segment is started at the offset where the last one ended. Once there are more than
+ * maxSegments segments, the oldest is deleted, so the journal keeps between maxSegments - 1 and
+ * maxSegments segments worth of events.
+ *
+ * A record is a four byte length, an eight byte sender id and the encoded event. The length is
+ * written last, so an event that was only partly written when the process stopped is ignored
+ * when the journal is opened again.
+ *
+ * Appends are serialized on a lock. Replay may run at the same time as appends and sees the
+ * events appended before it started.
+ *
+ * @author cjaros
+ *
+ * @param &lt;T&gt; extends EventArgs - the object type of the events being journaled
+ */
+public class EventJournal<T extends EventArgs> implements Closeable {
+
+    private static final String SUFFIX = ".journal";
+    private static final int HEADER = 12;
+
+    private final File _directory;
+    private final int _segmentSize;
+    private final int _maxSegments;
+    private final IEventCodec<T> _codec;
+
+    // Guarded by this
+    private final List<Long> _segments = new ArrayList<>();
+    private MappedByteBuffer _current;
+    private long _currentBase;
+    private boolean _closed;
+
+    /**
+     * Opens a journal in the supplied directory, creating it if needed. Events already in the
+     * directory are kept and new events are appended after them.
+     *
+     * @param directory - the directory that holds the segment files
+     * @param segmentSize - the size of each segment file in bytes
+     * @param maxSegments - the number of segments to keep
+     * @param codec - converts events to and from records
+     * @throws IOException if the directory or a segment cannot be opened
+     */
+    public EventJournal(File directory, int segmentSize, int maxSegments, IEventCodec<T> codec) throws IOException {
+        if(segmentSize <= HEADER + 4)
+            throw new IllegalArgumentException("segmentSize is too small");
+        if(maxSegments < 1)
+            throw new IllegalArgumentException("there must be at least one segment");
+        if(codec == null)
+            throw new IllegalArgumentException("codec must not be null");
+        if(!directory.isDirectory() && !directory.mkdirs())
+            throw new IOException("could not create " + directory);
+
+        _directory = directory;
+        _segmentSize = segmentSize;
+        _maxSegments = maxSegments;
+        _codec = codec;
+
+        String[] names = directory.list(new FilenameFilter() {
+            @Override
+            public boolean accept(File dir, String name) {
+                return name.endsWith(SUFFIX);
+            }
+        });
+
+        long[] bases = new long[names.length];
+        for(int i = 0; i < names.length; i++)
+            bases[i] = Long.parseLong(names[i].substring(0, names[i].length() - SUFFIX.length()));
+
+        Arrays.sort(bases);
+        for(long base: bases)
+            _segments.add(base);
+
+        if(_segments.isEmpty()) {
+            open(0);
+        }
+        else {
+            open(_segments.remove(_segments.size() - 1));
+            _current.position(scan(_current, 0, _segmentSize));
+        }
+    }
+
+    /**
+     * Appends an event to the journal.
+     *
+     * @param sender - the object who raised the event
+     * @param args - the event arguments to record
+     * @return the offset of the event
+     * @throws IllegalStateException if the journal is closed, the event is larger than a
+     * segment, or a new segment cannot be created
+     */
+    public synchronized long append(Object sender, T args) {
+        if(_closed)
+            throw new IllegalStateException("the journal is closed");
+
+        long senderId = _codec.senderId(sender);
+
+        for(boolean rolled = false; ; rolled = true) {
+            int start = _current.position();
+
+            // There must be room for the header, and for the next record's
+            // length after the event
+            if(_current.remaining() >= HEADER + 4) {
+                try {
+                    _current.position(start + HEADER);
+                    _codec.encode(args, _current);
+
+                    int end = _current.position();
+
+                    if(_segmentSize - end >= 4) {
+                        // Clears anything left after the last record by an
+                        // append that was cut short, then publishes the
+                        // record by writing its length
+                        _current.putInt(end, 0);
+                        _current.putLong(start + 4, senderId);
+                        _current.putInt(start, end - start - HEADER);
+                        return _currentBase + start;
+                    }
+                }
+                catch(BufferOverflowException ex) {
+                    // Roll to a new segment and try again
+                }
+
+                _current.position(start);
+            }
+
+            if(rolled || start == 0)
+                throw new IllegalStateException("the event is larger than a journal segment");
+
+            roll();
+        }
+    }
+
+    /**
+     * Delivers every event from the supplied offset to the current end of the journal to a
+     * handler, in order. The sender passed to the handler is the recorded sender id, as a Long.
+     * If the offset is older than the oldest segment kept, replay starts at the oldest event.
+     * Segments deleted by retention while the replay runs are skipped.
+     *
+     * @param from - the offset of the first event to deliver, 0 for the oldest event
+     * @param handler - receives the events
+     * @return the offset after the last event delivered, which can be passed to a later replay
+     * @throws IOException if a segment cannot be read
+     */
+    public long replay(long from, IEventHandler<? super T> handler) throws IOException {
+        List<Long> segments;
+        long end;
+
+        synchronized(this) {
+            if(_closed)
+                throw new IllegalStateException("the journal is closed");
+
+            segments = new ArrayList<>(_segments);
+            segments.add(_currentBase);
+            end = _currentBase + _current.position();
+        }
+
+        long offset = Math.max(from, segments.get(0));
+
+        for(int i = 0; i < segments.size() && offset < end; i++) {
+            long base = segments.get(i);
+            long next = i + 1 < segments.size() ? segments.get(i + 1) : end;
+
+            if(offset >= next)
+                continue;
+
+            int limit = (int)(Math.min(next, end) - base);
+            offset = base + replay(base, (int)(offset - base), limit, handler);
+
+            if(offset < next && i + 1 < segments.size())
+                offset = next;
+        }
+
+        return Math.max(offset, from);
+    }
+
+    /**
+     * @return the offset of the oldest event kept
+     */
+    public synchronized long getStartOffset() {
+        return _segments.isEmpty() ? _currentBase : _segments.get(0);
+    }
+
+    /**
+     * @return the offset the next event will be appended at, unless it starts a new segment
+     */
+    public synchronized long getEndOffset() {
+        return _currentBase + _current.position();
+    }
+
+    /**
+     * Forces the events appended so far onto the disk.
+     */
+    public synchronized void flush() {
+        if(!_closed)
+            _current.force();
+    }
+
+    /**
+     * Flushes and closes the journal. Further appends will throw an IllegalStateException.
+     */
+    @Override
+    public synchronized void close() {
+        if(_closed)
+            return;
+
+        _current.force();
+        _closed = true;
+    }
+
+    /**
+     * Delivers the records of one segment between two positions
+     *
+     * @return the position after the last record delivered
+     */
+    private int replay(long base, int position, int limit, IEventHandler<? super T> handler) throws IOException {
+        RandomAccessFile opened;
+        ByteBuffer segment;
+
+        try {
+            opened = new RandomAccessFile(file(base), "r");
+        }
+        catch(FileNotFoundException ex) {
+            // Deleted by retention since the replay started
+            return limit;
+        }
+
+        try(RandomAccessFile file = opened) {
+            segment = file.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, limit);
+        }
+
+        while(position + HEADER <= limit) {
+            int length = segment.getInt(position);
+
+            if(length <= 0)
+                break;
+
+            Long senderId = segment.getLong(position + 4);
+            ByteBuffer record = segment.duplicate();
+            record.limit(position + HEADER + length).position(position + HEADER);
+
+            handler.handleEvent(senderId, _codec.decode(record));
+            position += HEADER + length;
+        }
+
+        return position;
+    }
+
+    /**
+     * @return the position after the last complete record between two positions of a segment
+     */
+    private static int scan(ByteBuffer segment, int position, int limit) {
+        while(position + HEADER <= limit) {
+            int length = segment.getInt(position);
+
+            if(length <= 0 || position + HEADER + length > limit)
+                break;
+
+            position += HEADER + length;
+        }
+
+        return position;
+    }
+
+    /**
+     * Ends the current segment and starts a new one, deleting the oldest segments beyond the
+     * retention limit. Must be called while holding the lock.
+     */
+    private void roll() {
+        int position = _current.position();
+
+        _current.force();
+        _segments.add(_currentBase);
+
+        try {
+            open(_currentBase + position);
+        }
+        catch(IOException ex) {
+            throw new IllegalStateException("could not create a journal segment", ex);
+        }
+
+        while(_segments.size() + 1 > _maxSegments) {
+            File oldest = file(_segments.remove(0));
+
+            if(!oldest.delete())
+                oldest.deleteOnExit();
+        }
+    }
+
+    /**
+     * Maps a segment for writing, creating it if needed. Must be called while holding the lock.
+     */
+    private void open(long base) throws IOException {
+        try(RandomAccessFile file = new RandomAccessFile(file(base), "rw")) {
+            _current = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, _segmentSize);
+        }
+
+        _currentBase = base;
+    }
+
+    private File file(long base) {
+        return new File(_directory, String.format("%020d%s", base, SUFFIX));
+    }
+}
@@ -0,0 +1,46 @@
+package io.jaros.events.journal;
+
+import java.nio.ByteBuffer;
+
+import io.jaros.events.EventArgs;
+
+
+/**
+ * Converts events to and from the binary records stored in an EventJournal. Records are
+ * written straight into the journal's memory-mapped segment, so encoding does not copy
+ * through an intermediate array.
+ * 
+ * @author cjaros
+ *
+ * @param &lt;T> extends EventArgs - the object type of the events being journaled
+ */
+public interface IEventCodec<T extends EventArgs> {
+
+    /**
+     * Identifies the sender of an event, so that it can be recorded alongside the event. The
+     * sender object itself is not journaled.
+     * 
+     * @param sender - the object who is raising the event
+     * @return the id to record for the sender, or 0 if senders are not recorded
+     */
+    long senderId(Object sender);
+    
+    /**
+     * Writes an event starting at the buffer's position. The buffer ends where the current
+     * segment ends; if the event does not fit, a BufferOverflowException should be allowed to
+     * propagate, and the journal will retry in a new segment.
+     * 
+     * @param args - the event arguments to write
+     * @param target - the buffer to write to
+     */
+    void encode(T args, ByteBuffer target);
+    
+    /**
+     * Reads an event written by encode. The buffer's position is at the start of the record
+     * and its limit at the end.
+     * 
+     * @param source - the buffer to read from
+     * @return the event arguments
+     */
+    T decode(ByteBuffer source);
+}
@@ -0,0 +1,114 @@
+package io.jaros.events.journal;
+
+import java.io.IOException;
+import java.util.List;
+
+import io.jaros.events.EventArgs;
+import io.jaros.events.EventManager;
+import io.jaros.events.generic.IEventArgsSupplier;
+import io.jaros.events.generic.IEventHandler;
+import io.jaros.events.metrics.EventMetrics;
+
+
+/**
+ * An EventManager that appends every raised event to an EventJournal before delivering it.
+ * A subscriber that joins late, or a process that has restarted, can then catch up by replaying
+ * the journal.
+ * 
+ * To catch up without missing events, a new subscriber should note the journal's end offset,
+ * subscribe, and then replay up to that offset. Events raised between the two steps may be
+ * seen twice, but none are missed.
+ * 
+ * An event is journaled even if a handler throws while it is being delivered.
+ * 
+ * @author cjaros
+ *
+ * @param &lt;T&gt; extends EventArgs - the object type that will carry data to observers of this event 
+ */
+public class JournalingEventManager<T extends EventArgs> extends EventManager<T> {
+
+    private final EventJournal<T> _journal;
+    
+    /**
+     * Creates a new instance of JournalingEventManager
+     * 
+     * @param journal - the journal events are appended to
+     */
+    public JournalingEventManager(EventJournal<T> journal) {
+        this(journal, null);
+    }
+    
+    /**
+     * Creates a new instance of JournalingEventManager that records its activity
+     * 
+     * @param journal - the journal events are appended to
+     * @param metrics - the metrics to record into, or null to record nothing
+     */
+    public JournalingEventManager(EventJournal<T> journal, EventMetrics metrics) {
+        super(metrics);
+        
+        if(journal == null)
+            throw new IllegalArgumentException("journal must not be null");
+        
+        _journal = journal;
+    }
+    
+    /**
+     * Appends the event to the journal and then publishes it.
+     * 
+     * @param sender - the object who is raising the event
+     * @param args - the event arguments containing the data payload
+     * @throws IllegalStateException if the event cannot be journaled, in which case it is not published
+     */
+    @Override
+    public void raise(Object sender, T args) {
+        _journal.append(sender, args);
+        super.raise(sender, args);
+    }
+    
+    /**
+     * Builds the event arguments, appends them to the journal and publishes them. Unlike
+     * EventManager, the arguments are built even when there are no handlers, since a subscriber
+     * may replay them later.
+     * 
+     * @param sender - the object who is raising the event
+     * @param argsSupplier - builds the event arguments
+     */
+    @Override
+    public void raise(Object sender, IEventArgsSupplier<? extends T> argsSupplier) {
+        raise(sender, argsSupplier.get());
+    }
+    
+    /**
+     * Appends each event in the batch to the journal and then publishes the batch.
+     * 
+     * @param sender - the object who is raising the events
+     * @param args - the event arguments of each event, in the order they should be delivered
+     */
+    @Override
+    public void raiseAll(Object sender, List<? extends T> args) {
+        for(int i = 0; i < args.size(); i++)
+            _journal.append(sender, args.get(i));
+        
+        super.raiseAll(sender, args);
+    }
+    
+    /**
+     * Delivers the journaled events from an offset to a handler. See EventJournal.replay.
+     * 
+     * @param from - the offset of the first event to deliver, 0 for the oldest event
+     * @param handler - receives the events
+     * @return the offset after the last event delivered
+     * @throws IOException if the journal cannot be read
+     */
+    public long replay(long from, IEventHandler<? super T> handler) throws IOException {
+        return _journal.replay(from, handler);
+    }
+    
+    /**
+     * @return the journal events are appended to
+     */
+    public EventJournal<T> getJournal() {
+        return _journal;
+    }
+}
@@ -0,0 +1,237 @@
+package io.jaros.events.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Records what happens on an event. An instance is passed to an EventManager when it is created,
+ * and the manager then records each raise, the number of handlers each raise reached, how long
+ * each handler took, the exceptions handlers threw, and the weak or soft handlers that were
+ * purged after being garbage collected.
+ * 
+ * All recorders are lock-free and safe to use from any number of threads. An EventManager
+ * created without metrics does none of this work.
+ * 
+ * Handlers that take longer than the slow handler threshold are counted by class and reported
+ * to an optional ISlowHandlerListener. The threshold is disabled by default.
+ * 
+ * The values can be read directly, or through JMX after calling register().
+ * 
+ * @author cjaros
+ */
+public class EventMetrics implements EventMetricsMXBean {
+
+    private final AtomicLong _raises = new AtomicLong();
+    private final AtomicLong _failures = new AtomicLong();
+    private final AtomicLong _collected = new AtomicLong();
+    private final AtomicLong _slow = new AtomicLong();
+    private final Histogram _fanOut = new Histogram();
+    private final Histogram _latency = new Histogram();
+    private final ConcurrentMap<Class<?>, AtomicLong> _slowHandlers = new ConcurrentHashMap<>();
+
+    private volatile long _slowThreshold = Long.MAX_VALUE;
+    private volatile ISlowHandlerListener _slowListener;
+
+    /**
+     * Records a raise of the event
+     * 
+     * @param handlers - the number of handlers the event was delivered to
+     */
+    public void recordRaise(int handlers) {
+        _raises.incrementAndGet();
+        _fanOut.record(handlers);
+    }
+
+    /**
+     * Records a single handler invocation
+     * 
+     * @param handler - the handler that was invoked
+     * @param elapsedNanos - how long the handler took
+     */
+    public void recordHandler(Object handler, long elapsedNanos) {
+        _latency.record(elapsedNanos);
+
+        if(elapsedNanos > _slowThreshold) {
+            _slow.incrementAndGet();
+
+            Class<?> type = handler.getClass();
+            AtomicLong count = _slowHandlers.get(type);
+
+            if(count == null) {
+                AtomicLong created = new AtomicLong();
+                count = _slowHandlers.putIfAbsent(type, created);
+
+                if(count == null)
+                    count = created;
+            }
+
+            count.incrementAndGet();
+
+            ISlowHandlerListener listener = _slowListener;
+            if(listener != null)
+                listener.slowHandler(type, elapsedNanos);
+        }
+    }
+
+    /**
+     * Records an exception thrown by a handler
+     * 
+     * @param handler - the handler that threw
+     * @param failure - the exception it threw
+     */
+    public void recordFailure(Object handler, Throwable failure) {
+        _failures.incrementAndGet();
+    }
+
+    /**
+     * Records a weak or soft handler that was purged from the handler list after the
+     * garbage collector cleared it
+     */
+    public void recordCollected() {
+        _collected.incrementAndGet();
+    }
+
+    /**
+     * Sets the listener that is told about slow handlers
+     * 
+     * @param listener - the listener, or null to stop reporting
+     */
+    public void setSlowHandlerListener(ISlowHandlerListener listener) {
+        _slowListener = listener;
+    }
+
+    /**
+     * @return the histogram of handlers reached per raise
+     */
+    public Histogram getFanOut() {
+        return _fanOut;
+    }
+
+    /**
+     * @return the histogram of handler invocation times, in nanoseconds
+     */
+    public Histogram getHandlerLatency() {
+        return _latency;
+    }
+
+    @Override
+    public long getRaiseCount() {
+        return _raises.get();
+    }
+
+    @Override
+    public long getDeliveryCount() {
+        return _latency.getCount();
+    }
+
+    @Override
+    public double getMeanFanOut() {
+        return _fanOut.getMean();
+    }
+
+    @Override
+    public long getMaxFanOut() {
+        return _fanOut.getMax();
+    }
+
+    @Override
+    public double getHandlerLatencyMean() {
+        return _latency.getMean();
+    }
+
+    @Override
+    public long getHandlerLatency50th() {
+        return _latency.getValueAtPercentile(50);
+    }
+
+    @Override
+    public long getHandlerLatency99th() {
+        return _latency.getValueAtPercentile(99);
+    }
+
+    @Override
+    public long getHandlerLatency999th() {
+        return _latency.getValueAtPercentile(99.9);
+    }
+
+    @Override
+    public long getHandlerLatencyMax() {
+        return _latency.getMax();
+    }
+
+    @Override
+    public long getHandlerFailureCount() {
+        return _failures.get();
+    }
+
+    @Override
+    public long getCollectedHandlerCount() {
+        return _collected.get();
+    }
+
+    @Override
+    public long getSlowHandlerCount() {
+        return _slow.get();
+    }
+
+    /**
+     * @return the slow handler threshold in nanoseconds, Long.MAX_VALUE when disabled
+     */
+    @Override
+    public long getSlowHandlerThreshold() {
+        return _slowThreshold;
+    }
+
+    /**
+     * @param nanos - handlers taking longer than this are reported as slow. Long.MAX_VALUE disables reporting
+     */
+    @Override
+    public void setSlowHandlerThreshold(long nanos) {
+        _slowThreshold = nanos;
+    }
+
+    /**
+     * @return the number of slow invocations, keyed by handler class name
+     */
+    @Override
+    public Map<String, Long> getSlowHandlers() {
+        Map<String, Long> result = new TreeMap<>();
+
+        for(Map.Entry<Class<?>, AtomicLong> entry: _slowHandlers.entrySet())
+            result.put(entry.getKey().getName(), entry.getValue().get());
+
+        return result;
+    }
+
+    @Override
+    public void reset() {
+        _raises.set(0);
+        _failures.set(0);
+        _collected.set(0);
+        _slow.set(0);
+        _fanOut.reset();
+        _latency.reset();
+        _slowHandlers.clear();
+    }
+
+    /**
+     * Registers these metrics with the platform MBean server under
+     * io.jaros.events:type=EventMetrics,name=&lt;name&gt;
+     * 
+     * @param name - the name of the event
+     * @return the name the metrics were registered under
+     * @throws JMException if the name is invalid or already registered
+     */
+    public ObjectName register(String name) throws JMException {
+        ObjectName objectName = new ObjectName("io.jaros.events:type=EventMetrics,name=" + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+        return objectName;
+    }
+}
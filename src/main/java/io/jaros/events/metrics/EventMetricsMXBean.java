@@ -0,0 +1,43 @@
+package io.jaros.events.metrics;
+
+import java.util.Map;
+
+/**
+ * The JMX view of an EventMetrics instance. Latencies are in nanoseconds.
+ * 
+ * @author cjaros
+ */
+public interface EventMetricsMXBean {
+
+    long getRaiseCount();
+    
+    long getDeliveryCount();
+    
+    double getMeanFanOut();
+    
+    long getMaxFanOut();
+    
+    double getHandlerLatencyMean();
+    
+    long getHandlerLatency50th();
+    
+    long getHandlerLatency99th();
+    
+    long getHandlerLatency999th();
+    
+    long getHandlerLatencyMax();
+    
+    long getHandlerFailureCount();
+    
+    long getCollectedHandlerCount();
+    
+    long getSlowHandlerCount();
+    
+    long getSlowHandlerThreshold();
+    
+    void setSlowHandlerThreshold(long nanos);
+    
+    Map<String, Long> getSlowHandlers();
+    
+    void reset();
+}
@@ -0,0 +1,130 @@
+package io.jaros.events.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock-free histogram of non-negative long values, in the style of HdrHistogram. Values are
+ * counted in log-linear buckets: every power of two is split into 32 equal sub-buckets, so any
+ * recorded value is reported within about 3% of its true value. The bucket array is allocated
+ * up front and covers the full range of long, so recording never allocates.
+ * 
+ * Recording and reading may happen concurrently from any number of threads. A read taken while
+ * values are being recorded may be slightly inconsistent, for example count and percentiles may
+ * disagree by the values recorded in between.
+ * 
+ * @author cjaros
+ */
+public class Histogram {
+
+    private static final int SUB_BITS = 6;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int HALF_COUNT = SUB_COUNT >>> 1;
+    private static final int BUCKETS = SUB_COUNT + (64 - SUB_BITS) * HALF_COUNT;
+    
+    private final AtomicLongArray _counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong _count = new AtomicLong();
+    private final AtomicLong _sum = new AtomicLong();
+    private final AtomicLong _max = new AtomicLong();
+    
+    /**
+     * Records a value. Negative values are recorded as zero.
+     * 
+     * @param value - the value to record
+     */
+    public void record(long value) {
+        if(value < 0)
+            value = 0;
+        
+        _counts.incrementAndGet(index(value));
+        _count.incrementAndGet();
+        _sum.addAndGet(value);
+        
+        long max = _max.get();
+        while(value > max && !_max.compareAndSet(max, value))
+            max = _max.get();
+    }
+    
+    /**
+     * @return the number of values recorded
+     */
+    public long getCount() {
+        return _count.get();
+    }
+    
+    /**
+     * @return the largest value recorded, or 0 if nothing has been recorded
+     */
+    public long getMax() {
+        return _max.get();
+    }
+    
+    /**
+     * @return the mean of the recorded values, or 0 if nothing has been recorded
+     */
+    public double getMean() {
+        long count = _count.get();
+        return count == 0 ? 0 : (double)_sum.get() / count;
+    }
+    
+    /**
+     * Returns the value below which the given percentage of recorded values fall. The result
+     * is the upper end of the bucket holding that value, and never more than getMax().
+     * 
+     * @param percentile - a percentage between 0 and 100
+     * @return the value at the percentile, or 0 if nothing has been recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        long count = _count.get();
+        
+        if(count == 0)
+            return 0;
+        
+        long target = Math.max(1, (long)Math.ceil(Math.min(100, Math.max(0, percentile)) / 100 * count));
+        long seen = 0;
+        
+        for(int i = 0; i < BUCKETS; i++) {
+            seen += _counts.get(i);
+            
+            if(seen >= target)
+                return Math.min(highestValue(i), _max.get());
+        }
+        
+        return _max.get();
+    }
+    
+    /**
+     * Clears all recorded values.
+     */
+    public void reset() {
+        for(int i = 0; i < BUCKETS; i++)
+            _counts.set(i, 0);
+        
+        _count.set(0);
+        _sum.set(0);
+        _max.set(0);
+    }
+    
+    static int index(long value) {
+        if(value < SUB_COUNT)
+            return (int)value;
+        
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS + 1;
+        int top = (int)(value >>> shift);
+        
+        return SUB_COUNT + (shift - 1) * HALF_COUNT + (top - HALF_COUNT);
+    }
+    
+    static long highestValue(int index) {
+        if(index < SUB_COUNT)
+            return index;
+        
+        int offset = index - SUB_COUNT;
+        int shift = offset / HALF_COUNT + 1;
+        long top = offset % HALF_COUNT + HALF_COUNT;
+        long high = ((top + 1) << shift) - 1;
+        
+        // The last bucket's upper end overflows past Long.MAX_VALUE
+        return high < 0 ? Long.MAX_VALUE : high;
+    }
+}
@@ -0,0 +1,19 @@
+package io.jaros.events.metrics;
+
+/**
+ * Receives a report each time an event handler takes longer than the slow handler threshold
+ * configured on an EventMetrics instance. Reports are made on the thread that raised the event,
+ * right after the slow handler returns, so implementations should be quick.
+ * 
+ * @author cjaros
+ */
+public interface ISlowHandlerListener {
+
+    /**
+     * Called after a handler exceeded the slow handler threshold.
+     * 
+     * @param handlerClass - the class of the slow handler
+     * @param elapsedNanos - how long the handler took
+     */
+    void slowHandler(Class<?> handlerClass, long elapsedNanos);
+}
@@ -0,0 +1,96 @@
+package io.jaros.events.pool;
+
+import java.util.ArrayDeque;
+
+/**
+ * A pool of recyclable event arguments. Each thread keeps its own free list, so acquiring and
+ * releasing args does not contend with other threads. Args released on a different thread than
+ * the one that acquired them are added to the releasing thread's free list.
+ * 
+ * Subclasses supply new instances through create(), typically as an anonymous class:
+ * 
+ * <pre>
+ * EventArgsPool&lt;PooledEventArg&lt;String&gt;&gt; pool = new EventArgsPool&lt;PooledEventArg&lt;String&gt;&gt;(64, false) {
+ *     protected PooledEventArg&lt;String&gt; create() {
+ *         return new PooledEventArg&lt;&gt;();
+ *     }
+ * };
+ * </pre>
+ * 
+ * In debug mode, pooled args throw an IllegalStateException when they are used after release.
+ * 
+ * @author cjaros
+ *
+ * @param &lt;T&gt; extends PooledEventArgs - the type of args held by this pool
+ */
+public abstract class EventArgsPool<T extends PooledEventArgs> {
+
+    private final int _maxPerThread;
+    private final boolean _debug;
+    
+    private final ThreadLocal<ArrayDeque<T>> _free = new ThreadLocal<ArrayDeque<T>>() {
+        @Override
+        protected ArrayDeque<T> initialValue() {
+            return new ArrayDeque<>(_maxPerThread);
+        }
+    };
+    
+    /**
+     * Creates a new pool
+     * 
+     * @param maxPerThread - the most free args each thread keeps. Args released beyond this are
+     * left for the garbage collector
+     * @param debug - if true, args from this pool detect use after release
+     */
+    public EventArgsPool(int maxPerThread, boolean debug) {
+        if(maxPerThread < 1)
+            throw new IllegalArgumentException("maxPerThread must be at least one");
+        
+        _maxPerThread = maxPerThread;
+        _debug = debug;
+    }
+    
+    /**
+     * Takes args from this thread's free list, creating new args if the list is empty. The 
+     * returned args hold one reference, which is released by PooledEventManager after the 
+     * event is raised.
+     * 
+     * @return args ready to be filled in and raised
+     */
+    public T acquire() {
+        T args = _free.get().pollFirst();
+        
+        if(args == null)
+            args = create();
+        
+        args.acquired(this);
+        return args;
+    }
+    
+    /**
+     * @return true if args from this pool detect use after release
+     */
+    public boolean isDebug() {
+        return _debug;
+    }
+    
+    /**
+     * Creates new args when the free list is empty
+     * 
+     * @return a new instance of the pooled type
+     */
+    protected abstract T create();
+    
+    /**
+     * Returns released args to this thread's free list
+     * 
+     * @param args - args whose last reference has been released
+     */
+    @SuppressWarnings("unchecked")
+    void recycle(PooledEventArgs args) {
+        ArrayDeque<T> free = _free.get();
+        
+        if(free.size() < _maxPerThread)
+            free.addFirst((T)args);
+    }
+}
@@ -0,0 +1,37 @@
+package io.jaros.events.pool;
+
+/**
+ * A recyclable counterpart of EventArg that passes a single type safe value to listeners 
+ * of an event.
+ * 
+ * @author cjaros
+ *
+ * @param &lt;T> - The data type for the single value being passed by this event arg
+ */
+public class PooledEventArg<T> extends PooledEventArgs {
+
+    private T _value;
+    
+    /**
+     * @return the value
+     */
+    public T getValue() {
+        checkLive();
+        return _value;
+    }
+    
+    /**
+     * @param value - the value to publish
+     * @return these args, so they can be filled in and raised in one expression
+     */
+    public PooledEventArg<T> setValue(T value) {
+        checkLive();
+        _value = value;
+        return this;
+    }
+
+    @Override
+    protected void reset() {
+        _value = null;
+    }
+}
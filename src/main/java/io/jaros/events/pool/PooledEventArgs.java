@@ -0,0 +1,94 @@
+package io.jaros.events.pool;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+import io.jaros.events.EventArgs;
+
+/**
+ * Base class for event arguments that are recycled through an EventArgsPool instead of being
+ * garbage collected. Instances are obtained from EventArgsPool.acquire(), filled in by the
+ * publisher, and raised through a PooledEventManager, which releases them back to the pool once
+ * every handler has returned.
+ * 
+ * A handler must not keep a reference to pooled args after it returns unless it calls pin(),
+ * in which case it must call release() when it is done. Handlers that only need the values can
+ * copy them instead.
+ * 
+ * Subclasses hold the payload in mutable fields, clear them in reset(), and should call
+ * checkLive() from their accessors so that a pool in debug mode can catch use after release.
+ * 
+ * @author cjaros
+ */
+public abstract class PooledEventArgs extends EventArgs {
+
+    private static final AtomicIntegerFieldUpdater<PooledEventArgs> REFS = 
+            AtomicIntegerFieldUpdater.newUpdater(PooledEventArgs.class, "_refs");
+    
+    private volatile int _refs;
+    private EventArgsPool<?> _pool;
+    
+    /**
+     * Keeps these args out of the pool until a matching call to release(). Use this from a
+     * handler that needs the args after it returns.
+     */
+    public void pin() {
+        checkLive();
+        REFS.incrementAndGet(this);
+    }
+    
+    /**
+     * Gives up a reference to these args. When the last reference is released the args are
+     * reset and returned to their pool.
+     * 
+     * @throws IllegalStateException if the args have already been released
+     */
+    public void release() {
+        int refs = REFS.decrementAndGet(this);
+        
+        if(refs == 0) {
+            reset();
+            
+            if(_pool != null)
+                _pool.recycle(this);
+        }
+        else if(refs < 0) {
+            REFS.incrementAndGet(this);
+            throw new IllegalStateException("event args released more times than they were acquired");
+        }
+    }
+    
+    /**
+     * @return true if every reference to these args has been released
+     */
+    public boolean isReleased() {
+        return _refs <= 0;
+    }
+    
+    /**
+     * Throws if these args belong to a pool in debug mode and have already been released.
+     * Subclasses should call this from their accessors. When the pool is not in debug mode
+     * this does nothing.
+     * 
+     * @throws IllegalStateException if the args are used after release
+     */
+    protected final void checkLive() {
+        if(_pool != null && _pool.isDebug() && _refs <= 0)
+            throw new IllegalStateException("event args used after release");
+    }
+    
+    /**
+     * Clears the payload before the args are returned to the pool, so the pool does not 
+     * keep the payload's objects reachable.
+     */
+    protected abstract void reset();
+    
+    /**
+     * Called by the pool when these args are handed out
+     * 
+     * @param pool - the pool the args belong to
+     */
+    void acquired(EventArgsPool<?> pool) {
+        _pool = pool;
+        _refs = 1;
+    }
+}
@@ -0,0 +1,53 @@
+package io.jaros.events.pool;
+
+import java.util.List;
+
+import io.jaros.events.EventManager;
+
+/**
+ * An EventManager for pooled event arguments. After every handler has returned, or one of them
+ * has thrown, the args are released back to their pool. A handler that needs the args after it
+ * returns must pin() them first.
+ * 
+ * Combined with args from an EventArgsPool, raising an event on this manager produces no garbage.
+ * 
+ * @author cjaros
+ *
+ * @param &lt;T&gt; extends PooledEventArgs - the object type that will carry data to observers of this event 
+ */
+public class PooledEventManager<T extends PooledEventArgs> extends EventManager<T> {
+
+    /**
+     * This publishes the event, calling each of the event handlers in order with
+     * the supplied parameters, and then releases the args.
+     * 
+     * @param sender - the object who is raising the event
+     * @param args - the event arguments containing the data payload
+     */
+    @Override
+    public void raise(Object sender, T args) {
+        try {
+            super.raise(sender, args);
+        }
+        finally {
+            args.release();
+        }
+    }
+    
+    /**
+     * This publishes a batch of events, and then releases every args in the batch.
+     * 
+     * @param sender - the object who is raising the events
+     * @param args - the event arguments of each event, in the order they should be delivered
+     */
+    @Override
+    public void raiseAll(Object sender, List<? extends T> args) {
+        try {
+            super.raiseAll(sender, args);
+        }
+        finally {
+            for(int i = 0; i < args.size(); i++)
+                args.get(i).release();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package io.jaros.events.reactive;
+
+/**
+ * Defines what an EventPublisher does when an event is raised while a subscriber's buffer is
+ * full, because the subscriber has not requested more events.
+ * 
+ * @author cjaros
+ */
+public enum BackpressureStrategy {
+    
+    /**
+     * The oldest buffered event is discarded to make room for the new one.
+     */
+    DROP_OLDEST,
+    
+    /**
+     * The new event is discarded.
+     */
+    DROP_NEWEST,
+    
+    /**
+     * The newest buffered event is replaced by the new one, so the subscriber always receives
+     * the latest event. With a buffer of one, the subscriber only ever sees the latest value.
+     */
+    CONFLATE,
+    
+    /**
+     * The raising thread waits until the subscriber requests more events or cancels.
+     */
+    BLOCK
+}
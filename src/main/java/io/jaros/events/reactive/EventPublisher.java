@@ -0,0 +1,314 @@
+package io.jaros.events.reactive;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import io.jaros.events.Event;
+import io.jaros.events.EventArgs;
+import io.jaros.events.ISubscription;
+import io.jaros.events.generic.IEventHandler;
+
+
+/**
+ * Exposes an Event as a Reactive Streams Publisher, so that raised events can feed a reactive
+ * pipeline. Reactive Streams is the standard that java.util.concurrent.Flow adopted in Java 9,
+ * and its FlowAdapters convert between the two.
+ *
+ * Each subscriber is subscribed to the event as a handler of its own, with a bounded buffer.
+ * Raised events are passed on to the subscriber as it requests them. When the subscriber has
+ * not requested any more and its buffer is full, the backpressure strategy decides what
+ * happens to the next event, so a slow subscriber never makes the buffer grow. Only the
+ * BLOCK strategy can hold up the raising thread.
+ *
+ * Events are passed to a subscriber on whichever thread raised them or requested them, but
+ * never on two threads at once. Events raised with null arguments are skipped, since a
+ * Reactive Streams subscriber cannot receive null.
+ *
+ * @author cjaros
+ *
+ * @param &lt;T&gt; extends EventArgs - the object type of the events being published
+ */
+public class EventPublisher<T extends EventArgs> implements Publisher<T> {
+
+    private final Event<T> _event;
+    private final int _bufferSize;
+    private final BackpressureStrategy _strategy;
+    private final AtomicLong _dropped = new AtomicLong();
+    private final Set<EventSubscription> _subscriptions =
+            Collections.newSetFromMap(new ConcurrentHashMap<EventSubscription, Boolean>());
+
+    /**
+     * Creates a new publisher for an event
+     *
+     * @param event - the event to publish
+     * @param bufferSize - the number of events buffered for each subscriber
+     * @param strategy - what to do with an event raised while a subscriber's buffer is full
+     */
+    public EventPublisher(Event<T> event, int bufferSize, BackpressureStrategy strategy) {
+        if(event == null || strategy == null)
+            throw new IllegalArgumentException("event and strategy must not be null");
+        if(bufferSize < 1)
+            throw new IllegalArgumentException("bufferSize must be at least one");
+
+        _event = event;
+        _bufferSize = bufferSize;
+        _strategy = strategy;
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super T> subscriber) {
+        if(subscriber == null)
+            throw new NullPointerException("subscriber must not be null");
+
+        EventSubscription subscription = new EventSubscription(subscriber);
+        _subscriptions.add(subscription);
+        subscriber.onSubscribe(subscription);
+
+        // Subscribed after onSubscribe, so no event reaches the subscriber first
+        subscription.start(_event.subscribe(subscription));
+    }
+
+    /**
+     * Stops publishing. Each subscriber receives the events already buffered for it and is
+     * then completed.
+     */
+    public void close() {
+        for(EventSubscription subscription: _subscriptions)
+            subscription.complete();
+    }
+
+    /**
+     * @return the number of events discarded, or replaced, because a subscriber's buffer was full
+     */
+    public long getDroppedCount() {
+        return _dropped.get();
+    }
+
+    /**
+     * The state of one subscriber. It is both the handler subscribed to the event and the
+     * Subscription handed to the subscriber.
+     */
+    private final class EventSubscription implements Subscription, IEventHandler<T> {
+
+        private final Subscriber<? super T> _subscriber;
+        private final AtomicLong _requested = new AtomicLong();
+        private final AtomicInteger _draining = new AtomicInteger();
+
+        private final ReentrantLock _lock = new ReentrantLock();
+        private final Condition _notFull = _lock.newCondition();
+
+        // Guarded by _lock
+        private final ArrayDeque<T> _buffer = new ArrayDeque<>();
+
+        private volatile ISubscription _handle;
+        private volatile boolean _cancelled;
+        private volatile boolean _completed;
+        private volatile Throwable _failure;
+        private boolean _terminated;
+
+        EventSubscription(Subscriber<? super T> subscriber) {
+            _subscriber = subscriber;
+        }
+
+        void start(ISubscription handle) {
+            _handle = handle;
+
+            // Cancelled from within onSubscribe
+            if(_cancelled)
+                handle.close();
+        }
+
+        void complete() {
+            _completed = true;
+            release();
+            drain();
+        }
+
+        @Override
+        public void handleEvent(Object sender, T args) {
+            if(args == null || _cancelled || _completed)
+                return;
+
+            _lock.lock();
+            try {
+                if(_buffer.size() >= _bufferSize && !overflow(args))
+                    return;
+
+                _buffer.addLast(args);
+            }
+            finally {
+                _lock.unlock();
+            }
+
+            drain();
+        }
+
+        /**
+         * Applies the backpressure strategy to a full buffer. Must be called while holding the lock.
+         *
+         * @return true if the event should now be added to the buffer
+         */
+        private boolean overflow(T args) {
+            switch(_strategy) {
+                case DROP_OLDEST:
+                    _buffer.pollFirst();
+                    _dropped.incrementAndGet();
+                    return true;
+                case DROP_NEWEST:
+                    _dropped.incrementAndGet();
+                    return false;
+                case CONFLATE:
+                    _buffer.pollLast();
+                    _dropped.incrementAndGet();
+                    return true;
+                default:
+                    try {
+                        while(_buffer.size() >= _bufferSize && !_cancelled && !_completed)
+                            _notFull.await();
+                    }
+                    catch(InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                        _dropped.incrementAndGet();
+                        return false;
+                    }
+
+                    return !_cancelled && !_completed;
+            }
+        }
+
+        @Override
+        public void request(long n) {
+            if(n <= 0) {
+                // Signalled by the drain, which may already be passing events on another thread
+                if(_failure == null)
+                    _failure = new IllegalArgumentException("request must be positive, was " + n);
+
+                drain();
+                return;
+            }
+
+            while(true) {
+                long current = _requested.get();
+                long next = current + n;
+
+                // Demand that overflows is treated as unbounded
+                if(next < 0)
+                    next = Long.MAX_VALUE;
+
+                if(_requested.compareAndSet(current, next))
+                    break;
+            }
+
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            _cancelled = true;
+            _subscriptions.remove(this);
+
+            ISubscription handle = _handle;
+            if(handle != null)
+                handle.close();
+
+            _lock.lock();
+            try {
+                _buffer.clear();
+            }
+            finally {
+                _lock.unlock();
+            }
+
+            release();
+        }
+
+        /**
+         * Wakes raisers blocked on a full buffer
+         */
+        private void release() {
+            _lock.lock();
+            try {
+                _notFull.signalAll();
+            }
+            finally {
+                _lock.unlock();
+            }
+        }
+
+        /**
+         * Passes buffered events to the subscriber while it has demand. Only one thread drains
+         * at a time; a thread that finds another draining leaves the work to it.
+         */
+        private void drain() {
+            if(_draining.getAndIncrement() != 0)
+                return;
+
+            int missed = 1;
+
+            do {
+                long requested = _requested.get();
+                long emitted = 0;
+
+                while(emitted != requested && !_cancelled && _failure == null) {
+                    T next;
+
+                    _lock.lock();
+                    try {
+                        next = _buffer.pollFirst();
+
+                        if(next != null)
+                            _notFull.signal();
+                    }
+                    finally {
+                        _lock.unlock();
+                    }
+
+                    if(next == null)
+                        break;
+
+                    _subscriber.onNext(next);
+                    emitted++;
+                }
+
+                if(emitted != 0 && requested != Long.MAX_VALUE)
+                    _requested.addAndGet(-emitted);
+
+                Throwable failure = _failure;
+
+                if(failure != null && !_cancelled && !_terminated) {
+                    _terminated = true;
+                    cancel();
+                    _subscriber.onError(failure);
+                }
+                else if(_completed && !_cancelled && !_terminated && isEmpty()) {
+                    _terminated = true;
+                    cancel();
+                    _subscriber.onComplete();
+                }
+
+                missed = _draining.addAndGet(-missed);
+            }
+            while(missed != 0);
+        }
+
+        private boolean isEmpty() {
+            _lock.lock();
+            try {
+                return _buffer.isEmpty();
+            }
+            finally {
+                _lock.unlock();
+            }
+        }
+    }
+}
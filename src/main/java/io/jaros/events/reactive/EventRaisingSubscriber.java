@@ -0,0 +1,139 @@
+package io.jaros.events.reactive;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import io.jaros.events.EventArgs;
+import io.jaros.events.EventManager;
+
+
+/**
+ * Raises the items of a Reactive Streams Publisher as events on an EventManager, so that a
+ * reactive pipeline can feed ordinary event handlers. This is the reverse of EventPublisher.
+ *
+ * The subscriber requests a batch of items up front, and requests another batch each time that
+ * many have been raised, so the publisher never runs more than one batch ahead of the handlers.
+ * If a handler throws, the subscription is cancelled and the exception is passed to the current
+ * thread's uncaught exception handler.
+ *
+ * @author cjaros
+ *
+ * @param &lt;T&gt; extends EventArgs - the object type of the events being raised
+ */
+public class EventRaisingSubscriber<T extends EventArgs> implements Subscriber<T> {
+
+    private final EventManager<T> _target;
+    private final Object _sender;
+    private final int _batch;
+    private final CountDownLatch _terminated = new CountDownLatch(1);
+
+    // Only touched on the publisher's signalling thread
+    private Subscription _subscription;
+    private int _consumed;
+    private boolean _cancelled;
+
+    private volatile Throwable _error;
+    private volatile boolean _complete;
+
+    /**
+     * Creates a new subscriber
+     *
+     * @param target - the EventManager the items are raised on
+     * @param sender - the sender passed to the handlers
+     * @param batch - the number of items requested at a time
+     */
+    public EventRaisingSubscriber(EventManager<T> target, Object sender, int batch) {
+        if(target == null)
+            throw new IllegalArgumentException("target must not be null");
+        if(batch < 1)
+            throw new IllegalArgumentException("batch must be at least one");
+
+        _target = target;
+        _sender = sender;
+        _batch = batch;
+    }
+
+    @Override
+    public void onSubscribe(Subscription subscription) {
+        if(_subscription != null) {
+            // Only one publisher may be subscribed at a time
+            subscription.cancel();
+            return;
+        }
+
+        _subscription = subscription;
+        subscription.request(_batch);
+    }
+
+    @Override
+    public void onNext(T item) {
+        // Items the publisher sent before it saw the cancel
+        if(_cancelled)
+            return;
+
+        try {
+            _target.raise(_sender, item);
+        }
+        catch(RuntimeException ex) {
+            _cancelled = true;
+            _subscription.cancel();
+            terminate(ex);
+
+            Thread current = Thread.currentThread();
+            current.getUncaughtExceptionHandler().uncaughtException(current, ex);
+            return;
+        }
+
+        if(++_consumed == _batch) {
+            _consumed = 0;
+            _subscription.request(_batch);
+        }
+    }
+
+    @Override
+    public void onError(Throwable failure) {
+        terminate(failure);
+    }
+
+    @Override
+    public void onComplete() {
+        _complete = true;
+        _terminated.countDown();
+    }
+
+    /**
+     * Waits for the publisher to complete or fail
+     *
+     * @param timeout - the maximum time to wait
+     * @param unit - the unit of the timeout
+     * @return true if the stream ended, false if the timeout elapsed first
+     * @throws InterruptedException
+     */
+    public boolean await(long timeout, TimeUnit unit) throws InterruptedException {
+        return _terminated.await(timeout, unit);
+    }
+
+    /**
+     * @return true if the publisher completed normally
+     */
+    public boolean isComplete() {
+        return _complete;
+    }
+
+    /**
+     * @return the failure that ended the stream, or null if it has not failed
+     */
+    public Throwable getError() {
+        return _error;
+    }
+
+    private void terminate(Throwable failure) {
+        if(_error == null)
+            _error = failure;
+
+        _terminated.countDown();
+    }
+}
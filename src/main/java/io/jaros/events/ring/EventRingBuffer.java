@@ -0,0 +1,304 @@
+package io.jaros.events.ring;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import io.jaros.events.EventArgs;
+import io.jaros.events.EventManager;
+
+
+/**
+ * A preallocated ring buffer that sits in front of an EventManager. Producers claim a slot and
+ * publish a sender and args pair into it. One or more consumer threads drain published slots in
+ * batches and raise them on the target EventManager, which calls its registered handlers.
+ *
+ * Any number of threads may publish at once. The slots and sequence counters are allocated when
+ * the buffer is created, so publishing and consuming do not allocate once the buffer is running.
+ *
+ * With a single consumer, events are raised in the order their slots were claimed. With more
+ * than one consumer, each event is raised exactly once, but batches held by different consumers
+ * are raised concurrently, so handlers must be thread-safe and may see events out of order.
+ *
+ * @author cjaros
+ *
+ * @param &lt;T&gt; extends EventArgs - the object type that will carry data to observers of the event
+ */
+public class EventRingBuffer<T extends EventArgs> {
+
+    /**
+     * Marks a consumer that holds no claimed events
+     */
+    private static final long IDLE = Long.MAX_VALUE;
+
+    private final EventManager<T> _target;
+    private final int _mask;
+    private final int _maxBatch;
+    private final WaitStrategy _waitStrategy;
+    private final OverflowStrategy _overflowStrategy;
+    private final ThreadFactory _threadFactory;
+
+    private final Object[] _senders;
+    private final Object[] _args;
+
+    // Holds the sequence last published into each slot. A slot is readable
+    // once its entry matches the sequence being read
+    private final AtomicLongArray _published;
+
+    // The last sequence claimed by a producer
+    private final AtomicLong _claimSequence = new AtomicLong(-1);
+
+    // The last sequence claimed by a consumer
+    private final AtomicLong _workSequence = new AtomicLong(-1);
+
+    // The sequence below which each consumer has finished, or IDLE
+    private final AtomicLongArray _consumerSequences;
+
+    // The last gating sequence a producer observed
+    private volatile long _cachedGate = -1;
+
+    private final Thread[] _consumers;
+    private volatile boolean _running;
+
+    /**
+     * Creates a new ring buffer with a single consumer that blocks producers when full and
+     * parks when idle.
+     *
+     * @param target - the EventManager that consumed events are raised on
+     * @param capacity - the number of slots, must be a power of two
+     */
+    public EventRingBuffer(EventManager<T> target, int capacity) {
+        this(target, capacity, 1, 256, WaitStrategy.PARK, OverflowStrategy.BLOCK, Executors.defaultThreadFactory());
+    }
+
+    /**
+     * Creates a new ring buffer.
+     *
+     * @param target - the EventManager that consumed events are raised on
+     * @param capacity - the number of slots, must be a power of two
+     * @param consumers - the number of consumer threads
+     * @param maxBatch - the largest number of events a consumer drains at once
+     * @param waitStrategy - how idle consumers, and producers blocked on a full buffer, wait
+     * @param overflowStrategy - what publish does when the buffer is full
+     * @param threadFactory - creates the consumer threads
+     */
+    public EventRingBuffer(EventManager<T> target, int capacity, int consumers, int maxBatch,
+            WaitStrategy waitStrategy, OverflowStrategy overflowStrategy, ThreadFactory threadFactory) {
+        if(target == null)
+            throw new IllegalArgumentException("target must not be null");
+        if(capacity < 1 || Integer.bitCount(capacity) != 1)
+            throw new IllegalArgumentException("capacity must be a power of two");
+        if(consumers < 1)
+            throw new IllegalArgumentException("there must be at least one consumer");
+        if(maxBatch < 1)
+            throw new IllegalArgumentException("maxBatch must be at least one");
+        if(waitStrategy == null || overflowStrategy == null || threadFactory == null)
+            throw new IllegalArgumentException("strategies and thread factory must not be null");
+
+        _target = target;
+        _mask = capacity - 1;
+        _maxBatch = maxBatch;
+        _waitStrategy = waitStrategy;
+        _overflowStrategy = overflowStrategy;
+        _threadFactory = threadFactory;
+
+        _senders = new Object[capacity];
+        _args = new Object[capacity];
+        _published = new AtomicLongArray(capacity);
+        for(int i = 0; i < capacity; i++)
+            _published.set(i, -1);
+
+        _consumerSequences = new AtomicLongArray(consumers);
+        for(int i = 0; i < consumers; i++)
+            _consumerSequences.set(i, IDLE);
+
+        _consumers = new Thread[consumers];
+    }
+
+    /**
+     * Starts the consumer threads. Events may be published before the buffer is started,
+     * they will be raised once it starts.
+     */
+    public synchronized void start() {
+        if(_running)
+            throw new IllegalStateException("ring buffer is already running");
+
+        _running = true;
+
+        for(int i = 0; i < _consumers.length; i++) {
+            _consumers[i] = _threadFactory.newThread(new Consumer(i));
+            _consumers[i].start();
+        }
+    }
+
+    /**
+     * Stops the consumer threads after they have raised every event published before this
+     * call, and waits for them to exit.
+     *
+     * @throws InterruptedException
+     */
+    public synchronized void stop() throws InterruptedException {
+        if(!_running)
+            return;
+
+        _running = false;
+
+        for(Thread consumer: _consumers)
+            consumer.join();
+    }
+
+    /**
+     * Publishes an event into the next free slot. It will be raised on the target EventManager
+     * by a consumer thread.
+     *
+     * @param sender - the object who is raising the event
+     * @param args - the event arguments containing the data payload
+     * @return true if the event was published, false if it was dropped because the buffer is full
+     * @throws IllegalStateException if the buffer is full and the overflow strategy is FAIL
+     */
+    public boolean publish(Object sender, T args) {
+        long sequence = claim();
+
+        if(sequence < 0)
+            return false;
+
+        int index = (int)sequence & _mask;
+        _senders[index] = sender;
+        _args[index] = args;
+        _published.lazySet(index, sequence);
+
+        return true;
+    }
+
+    /**
+     * @return the number of slots in the buffer
+     */
+    public int getCapacity() {
+        return _mask + 1;
+    }
+
+    /**
+     * @return an estimate of the number of events that have been claimed but not yet consumed
+     */
+    public long size() {
+        return _claimSequence.get() - gate();
+    }
+
+    /**
+     * Claims the next sequence for a producer, applying the overflow strategy if the buffer
+     * is full.
+     *
+     * @return the claimed sequence, or -1 if the event should be dropped
+     */
+    private long claim() {
+        while(true) {
+            long current = _claimSequence.get();
+            long next = current + 1;
+            long wrapPoint = next - _mask - 1;
+
+            if(wrapPoint > _cachedGate) {
+                long gate = gate();
+                _cachedGate = gate;
+
+                if(wrapPoint > gate) {
+                    switch(_overflowStrategy) {
+                        case DROP:
+                            return -1;
+                        case FAIL:
+                            throw new IllegalStateException("ring buffer is full");
+                        default:
+                            _waitStrategy.idle();
+                            continue;
+                    }
+                }
+            }
+
+            if(_claimSequence.compareAndSet(current, next))
+                return next;
+        }
+    }
+
+    /**
+     * @return the highest sequence that every consumer is finished with
+     */
+    private long gate() {
+        long gate = _workSequence.get();
+
+        for(int i = 0; i < _consumerSequences.length(); i++)
+            gate = Math.min(gate, _consumerSequences.get(i));
+
+        return gate;
+    }
+
+    /**
+     * @return the highest sequence after the supplied one that can be consumed in one batch,
+     * or the supplied sequence if the next slot has not been published yet
+     */
+    private long available(long after) {
+        long limit = after + _maxBatch;
+        long sequence = after;
+
+        while(sequence < limit && _published.get((int)(sequence + 1) & _mask) == sequence + 1)
+            sequence++;
+
+        return sequence;
+    }
+
+    /**
+     * Claims and raises batches of events until the buffer is stopped and drained
+     */
+    private final class Consumer implements Runnable {
+
+        private final int _id;
+
+        Consumer(int id) {
+            _id = id;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public void run() {
+            while(true) {
+                long claimed = _workSequence.get();
+                long last = available(claimed);
+
+                if(last == claimed) {
+                    _consumerSequences.set(_id, IDLE);
+
+                    if(!_running && _claimSequence.get() == _workSequence.get())
+                        return;
+
+                    _waitStrategy.idle();
+                    continue;
+                }
+
+                // Hold back producers from the claimed range before taking it
+                _consumerSequences.set(_id, claimed);
+
+                if(!_workSequence.compareAndSet(claimed, last))
+                    continue;
+
+                for(long sequence = claimed + 1; sequence <= last; sequence++) {
+                    int index = (int)sequence & _mask;
+                    Object sender = _senders[index];
+                    T args = (T)_args[index];
+
+                    _senders[index] = null;
+                    _args[index] = null;
+
+                    try {
+                        _target.raise(sender, args);
+                    }
+                    catch(RuntimeException ex) {
+                        // Keep the consumer alive and let the thread's handler decide what to do
+                        Thread current = Thread.currentThread();
+                        current.getUncaughtExceptionHandler().uncaughtException(current, ex);
+                    }
+                }
+
+                _consumerSequences.set(_id, IDLE);
+            }
+        }
+    }
+}
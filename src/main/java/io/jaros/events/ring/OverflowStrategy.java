@@ -0,0 +1,25 @@
+package io.jaros.events.ring;
+
+/**
+ * Defines what an EventRingBuffer does when a producer publishes while every slot is
+ * still waiting to be consumed.
+ * 
+ * @author cjaros
+ */
+public enum OverflowStrategy {
+    
+    /**
+     * The producer waits, using the buffer's wait strategy, until a slot is freed.
+     */
+    BLOCK,
+    
+    /**
+     * The event is discarded and publish returns false.
+     */
+    DROP,
+    
+    /**
+     * Publish throws an IllegalStateException.
+     */
+    FAIL
+}
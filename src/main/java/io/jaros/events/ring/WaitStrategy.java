@@ -0,0 +1,51 @@
+package io.jaros.events.ring;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Defines how a thread waits when an EventRingBuffer has nothing for it to do. Consumers wait
+ * when no events have been published, and producers wait when the buffer is full and the
+ * overflow strategy is BLOCK.
+ * 
+ * @author cjaros
+ */
+public enum WaitStrategy {
+    
+    /**
+     * Spins without giving up the CPU. This gives the lowest latency, but each waiting thread 
+     * uses a full core.
+     */
+    BUSY_SPIN {
+        @Override
+        void idle() {
+        }
+    },
+    
+    /**
+     * Yields the CPU to other runnable threads between checks.
+     */
+    YIELD {
+        @Override
+        void idle() {
+            Thread.yield();
+        }
+    },
+    
+    /**
+     * Parks the thread for a short time between checks. This uses the least CPU but adds up
+     * to the park time to the latency of an event.
+     */
+    PARK {
+        @Override
+        void idle() {
+            LockSupport.parkNanos(PARK_NANOS);
+        }
+    };
+    
+    private static final long PARK_NANOS = 50000;
+    
+    /**
+     * Called each time the waiting thread finds nothing to do.
+     */
+    abstract void idle();
+}
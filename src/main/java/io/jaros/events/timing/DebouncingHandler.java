@@ -0,0 +1,77 @@
+package io.jaros.events.timing;
+
+import java.util.concurrent.TimeUnit;
+
+import io.jaros.events.EventArgs;
+import io.jaros.events.generic.IEventHandler;
+
+
+/**
+ * Delivers an event once no other event has arrived for a quiet period, so a burst of events
+ * is delivered as its last event.
+ *
+ * Rather than rescheduling its timer on every event, the handler records when the latest event
+ * arrived. When the timer fires early it is set again for the rest of the quiet period, so a
+ * burst costs one timer however long it lasts.
+ *
+ * @author cjaros
+ *
+ * @param &lt;T&gt; extends EventArgs - the object type of the events being debounced
+ */
+class DebouncingHandler<T extends EventArgs> implements IEventHandler<T>, Runnable {
+
+    private final TimingWheel _wheel;
+    private final IEventHandler<T> _downstream;
+    private final long _quietNanos;
+
+    // Guarded by this
+    private Object _sender;
+    private T _args;
+    private long _last;
+    private boolean _scheduled;
+
+    DebouncingHandler(TimingWheel wheel, IEventHandler<T> downstream, long quietNanos) {
+        _wheel = wheel;
+        _downstream = downstream;
+        _quietNanos = quietNanos;
+    }
+
+    @Override
+    public void handleEvent(Object sender, T args) {
+        synchronized(this) {
+            _sender = sender;
+            _args = args;
+            _last = System.nanoTime();
+
+            if(_scheduled)
+                return;
+
+            _scheduled = true;
+        }
+
+        _wheel.schedule(this, _quietNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void run() {
+        Object sender;
+        T args;
+
+        synchronized(this) {
+            long remaining = _last + _quietNanos - System.nanoTime();
+
+            if(remaining > 0) {
+                _wheel.schedule(this, remaining, TimeUnit.NANOSECONDS);
+                return;
+            }
+
+            sender = _sender;
+            args = _args;
+            _sender = null;
+            _args = null;
+            _scheduled = false;
+        }
+
+        _downstream.handleEvent(sender, args);
+    }
+}
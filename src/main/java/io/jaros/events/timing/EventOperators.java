@@ -0,0 +1,154 @@
+package io.jaros.events.timing;
+
+import java.util.concurrent.TimeUnit;
+
+import io.jaros.events.EventArgs;
+import io.jaros.events.generic.IBatchEventHandler;
+import io.jaros.events.generic.IEventHandler;
+
+
+/**
+ * Time based operators for event handlers. Each operator wraps a downstream handler and returns
+ * a new handler, which is subscribed to an event in place of the downstream one:
+ *
+ *     event.subscribe(EventOperators.debounce(handler, 200, TimeUnit.MILLISECONDS));
+ *
+ * Operators compose by wrapping each other. All of their timers are scheduled on a TimingWheel,
+ * the shared wheel unless another is supplied, so an operator holds no thread of its own and
+ * holds no timer at all while its event is quiet. That makes it cheap to keep one operator per
+ * entity, for millions of entities.
+ *
+ * Events delivered when a timer fires are delivered on the wheel's thread, so downstream handlers
+ * should be short and must not block. Hand longer work to an AsyncEventManager.
+ *
+ * @author cjaros
+ */
+public final class EventOperators {
+
+    private EventOperators() {
+    }
+
+    /**
+     * @see #debounce(TimingWheel, IEventHandler, long, TimeUnit)
+     */
+    public static <T extends EventArgs> IEventHandler<T> debounce(IEventHandler<T> downstream, long quiet, TimeUnit unit) {
+        return debounce(TimingWheel.shared(), downstream, quiet, unit);
+    }
+
+    /**
+     * Delivers the last event of each burst, once no event has arrived for a quiet period
+     *
+     * @param wheel - the wheel that schedules the operator's timers
+     * @param downstream - the handler that receives the events
+     * @param quiet - the time without events that ends a burst
+     * @param unit - the unit of the quiet period
+     * @return the handler to subscribe
+     */
+    public static <T extends EventArgs> IEventHandler<T> debounce(TimingWheel wheel, IEventHandler<T> downstream,
+            long quiet, TimeUnit unit) {
+        check(wheel, downstream, quiet);
+        return new DebouncingHandler<>(wheel, downstream, unit.toNanos(quiet));
+    }
+
+    /**
+     * @see #throttle(TimingWheel, IEventHandler, long, TimeUnit)
+     */
+    public static <T extends EventArgs> IEventHandler<T> throttle(IEventHandler<T> downstream, long interval, TimeUnit unit) {
+        return throttle(TimingWheel.shared(), downstream, interval, unit);
+    }
+
+    /**
+     * Delivers at most one event per interval. The first event is delivered at once, and the
+     * latest event of each interval is delivered when the interval ends.
+     *
+     * @param wheel - the wheel that schedules the operator's timers
+     * @param downstream - the handler that receives the events
+     * @param interval - the shortest time between two deliveries
+     * @param unit - the unit of the interval
+     * @return the handler to subscribe
+     */
+    public static <T extends EventArgs> IEventHandler<T> throttle(TimingWheel wheel, IEventHandler<T> downstream,
+            long interval, TimeUnit unit) {
+        check(wheel, downstream, interval);
+        return new ThrottlingHandler<>(wheel, downstream, unit.toNanos(interval));
+    }
+
+    /**
+     * @see #sample(TimingWheel, IEventHandler, long, TimeUnit)
+     */
+    public static <T extends EventArgs> IEventHandler<T> sample(IEventHandler<T> downstream, long period, TimeUnit unit) {
+        return sample(TimingWheel.shared(), downstream, period, unit);
+    }
+
+    /**
+     * Delivers the latest event once per period, skipping periods in which no event arrived
+     *
+     * @param wheel - the wheel that schedules the operator's timers
+     * @param downstream - the handler that receives the events
+     * @param period - the time between samples
+     * @param unit - the unit of the period
+     * @return the handler to subscribe
+     */
+    public static <T extends EventArgs> IEventHandler<T> sample(TimingWheel wheel, IEventHandler<T> downstream,
+            long period, TimeUnit unit) {
+        check(wheel, downstream, period);
+        return new SamplingHandler<>(wheel, downstream, unit.toNanos(period));
+    }
+
+    /**
+     * @see #tumblingWindow(TimingWheel, IBatchEventHandler, long, TimeUnit)
+     */
+    public static <T extends EventArgs> IEventHandler<T> tumblingWindow(IBatchEventHandler<T> downstream, long length,
+            TimeUnit unit) {
+        return tumblingWindow(TimingWheel.shared(), downstream, length, unit);
+    }
+
+    /**
+     * Collects events into back to back windows and delivers each window as a batch when it closes
+     *
+     * @param wheel - the wheel that schedules the operator's timers
+     * @param downstream - the handler that receives the batches
+     * @param length - the length of each window
+     * @param unit - the unit of the length
+     * @return the handler to subscribe
+     */
+    public static <T extends EventArgs> IEventHandler<T> tumblingWindow(TimingWheel wheel, IBatchEventHandler<T> downstream,
+            long length, TimeUnit unit) {
+        check(wheel, downstream, length);
+        return new TumblingWindowHandler<>(wheel, downstream, unit.toNanos(length));
+    }
+
+    /**
+     * @see #slidingWindow(TimingWheel, IBatchEventHandler, long, long, TimeUnit)
+     */
+    public static <T extends EventArgs> IEventHandler<T> slidingWindow(IBatchEventHandler<T> downstream, long length,
+            long slide, TimeUnit unit) {
+        return slidingWindow(TimingWheel.shared(), downstream, length, slide, unit);
+    }
+
+    /**
+     * Delivers, once per slide, a batch of the events that arrived within the last window length
+     *
+     * @param wheel - the wheel that schedules the operator's timers
+     * @param downstream - the handler that receives the batches
+     * @param length - the length of each window
+     * @param slide - the time between batches
+     * @param unit - the unit of the length and the slide
+     * @return the handler to subscribe
+     */
+    public static <T extends EventArgs> IEventHandler<T> slidingWindow(TimingWheel wheel, IBatchEventHandler<T> downstream,
+            long length, long slide, TimeUnit unit) {
+        check(wheel, downstream, length);
+        if(slide <= 0)
+            throw new IllegalArgumentException("the slide must be positive");
+
+        return new SlidingWindowHandler<>(wheel, downstream, unit.toNanos(length), unit.toNanos(slide));
+    }
+
+    private static void check(TimingWheel wheel, Object downstream, long duration) {
+        if(wheel == null || downstream == null)
+            throw new IllegalArgumentException("wheel and downstream must not be null");
+        if(duration <= 0)
+            throw new IllegalArgumentException("the duration must be positive");
+    }
+}
@@ -0,0 +1,27 @@
+package io.jaros.events.timing;
+
+/**
+ * A handle to a task scheduled on a TimingWheel.
+ * 
+ * @author cjaros
+ */
+public interface ITimeout {
+
+    /**
+     * Cancels the task if it has not run yet. Cancelling is constant time; the wheel forgets
+     * the task the next time its slot comes around.
+     * 
+     * @return true if the task was cancelled, false if it had already run or been cancelled
+     */
+    boolean cancel();
+
+    /**
+     * @return true if the task has been run, or is running
+     */
+    boolean isExpired();
+
+    /**
+     * @return true if the task was cancelled before it ran
+     */
+    boolean isCancelled();
+}
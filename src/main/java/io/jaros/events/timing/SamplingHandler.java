@@ -0,0 +1,73 @@
+package io.jaros.events.timing;
+
+import java.util.concurrent.TimeUnit;
+
+import io.jaros.events.EventArgs;
+import io.jaros.events.generic.IEventHandler;
+
+
+/**
+ * Delivers the latest event once per period, if any event arrived during it. The periods start
+ * with the first event, and stop when a period passes without one, so an idle handler holds no
+ * timer.
+ *
+ * @author cjaros
+ *
+ * @param &lt;T&gt; extends EventArgs - the object type of the events being sampled
+ */
+class SamplingHandler<T extends EventArgs> implements IEventHandler<T>, Runnable {
+
+    private final TimingWheel _wheel;
+    private final IEventHandler<T> _downstream;
+    private final long _periodNanos;
+
+    // Guarded by this
+    private Object _sender;
+    private T _args;
+    private boolean _pending;
+    private boolean _scheduled;
+
+    SamplingHandler(TimingWheel wheel, IEventHandler<T> downstream, long periodNanos) {
+        _wheel = wheel;
+        _downstream = downstream;
+        _periodNanos = periodNanos;
+    }
+
+    @Override
+    public void handleEvent(Object sender, T args) {
+        synchronized(this) {
+            _sender = sender;
+            _args = args;
+            _pending = true;
+
+            if(_scheduled)
+                return;
+
+            _scheduled = true;
+        }
+
+        _wheel.schedule(this, _periodNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void run() {
+        Object sender;
+        T args;
+
+        synchronized(this) {
+            if(!_pending) {
+                _scheduled = false;
+                return;
+            }
+
+            sender = _sender;
+            args = _args;
+            _sender = null;
+            _args = null;
+            _pending = false;
+        }
+
+        _wheel.schedule(this, _periodNanos, TimeUnit.NANOSECONDS);
+        _downstream.handleEvent(sender, args);
+    }
+}
@@ -0,0 +1,99 @@
+package io.jaros.events.timing;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.jaros.events.EventArgs;
+import io.jaros.events.generic.IBatchEventHandler;
+import io.jaros.events.generic.IEventHandler;
+
+
+/**
+ * Delivers, once per slide, a batch of the events that arrived within the last window length.
+ * Windows overlap when the slide is shorter than the length, so an event can appear in several
+ * batches. Slides start with the first event and stop once the window is empty, so an idle
+ * handler holds no timer. The sender of a batch is the sender of its latest event.
+ *
+ * @author cjaros
+ *
+ * @param &lt;T&gt; extends EventArgs - the object type of the events being collected
+ */
+class SlidingWindowHandler<T extends EventArgs> implements IEventHandler<T>, Runnable {
+
+    private final TimingWheel _wheel;
+    private final IBatchEventHandler<T> _downstream;
+    private final long _lengthNanos;
+    private final long _slideNanos;
+
+    // Guarded by this
+    private final ArrayDeque<Stamped<T>> _events = new ArrayDeque<>();
+    private Object _sender;
+    private boolean _scheduled;
+
+    SlidingWindowHandler(TimingWheel wheel, IBatchEventHandler<T> downstream, long lengthNanos, long slideNanos) {
+        _wheel = wheel;
+        _downstream = downstream;
+        _lengthNanos = lengthNanos;
+        _slideNanos = slideNanos;
+    }
+
+    @Override
+    public void handleEvent(Object sender, T args) {
+        synchronized(this) {
+            _sender = sender;
+            _events.addLast(new Stamped<>(System.nanoTime(), args));
+
+            if(_scheduled)
+                return;
+
+            _scheduled = true;
+        }
+
+        _wheel.schedule(this, _slideNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void run() {
+        Object sender;
+        List<T> window;
+
+        synchronized(this) {
+            long oldest = System.nanoTime() - _lengthNanos;
+
+            while(!_events.isEmpty() && _events.peekFirst().time - oldest < 0)
+                _events.pollFirst();
+
+            if(_events.isEmpty()) {
+                _sender = null;
+                _scheduled = false;
+                return;
+            }
+
+            window = new ArrayList<>(_events.size());
+            for(Stamped<T> event: _events)
+                window.add(event.args);
+
+            sender = _sender;
+        }
+
+        _wheel.schedule(this, _slideNanos, TimeUnit.NANOSECONDS);
+        _downstream.handleEvents(sender, Collections.unmodifiableList(window));
+    }
+
+    /**
+     * An event and the time it arrived
+     */
+    private static final class Stamped<T> {
+
+        final long time;
+        final T args;
+
+        Stamped(long time, T args) {
+            this.time = time;
+            this.args = args;
+        }
+    }
+}
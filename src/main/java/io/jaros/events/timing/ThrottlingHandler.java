@@ -0,0 +1,74 @@
+package io.jaros.events.timing;
+
+import java.util.concurrent.TimeUnit;
+
+import io.jaros.events.EventArgs;
+import io.jaros.events.generic.IEventHandler;
+
+
+/**
+ * Delivers at most one event per interval. The first event is delivered straight away and
+ * starts an interval. The latest event to arrive during the interval is delivered when it ends,
+ * and starts another, so the last event of a burst is never lost.
+ *
+ * @author cjaros
+ *
+ * @param &lt;T&gt; extends EventArgs - the object type of the events being throttled
+ */
+class ThrottlingHandler<T extends EventArgs> implements IEventHandler<T>, Runnable {
+
+    private final TimingWheel _wheel;
+    private final IEventHandler<T> _downstream;
+    private final long _intervalNanos;
+
+    // Guarded by this
+    private Object _sender;
+    private T _args;
+    private boolean _pending;
+    private boolean _throttling;
+
+    ThrottlingHandler(TimingWheel wheel, IEventHandler<T> downstream, long intervalNanos) {
+        _wheel = wheel;
+        _downstream = downstream;
+        _intervalNanos = intervalNanos;
+    }
+
+    @Override
+    public void handleEvent(Object sender, T args) {
+        synchronized(this) {
+            if(_throttling) {
+                _sender = sender;
+                _args = args;
+                _pending = true;
+                return;
+            }
+
+            _throttling = true;
+        }
+
+        _wheel.schedule(this, _intervalNanos, TimeUnit.NANOSECONDS);
+        _downstream.handleEvent(sender, args);
+    }
+
+    @Override
+    public void run() {
+        Object sender;
+        T args;
+
+        synchronized(this) {
+            if(!_pending) {
+                _throttling = false;
+                return;
+            }
+
+            sender = _sender;
+            args = _args;
+            _sender = null;
+            _args = null;
+            _pending = false;
+        }
+
+        _wheel.schedule(this, _intervalNanos, TimeUnit.NANOSECONDS);
+        _downstream.handleEvent(sender, args);
+    }
+}
@@ -0,0 +1,362 @@
+package io.jaros.events.timing;
+
+import java.io.Closeable;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+
+/**
+ * A hashed timing wheel that runs delayed tasks on a single thread. The wheel is a ring of
+ * slots, each covering one tick. A task is dropped into the slot its deadline falls in, along
+ * with the number of full turns of the wheel still to wait, so scheduling and cancelling are
+ * constant time however many tasks are pending. Each tick, the thread only visits the tasks in
+ * one slot.
+ *
+ * Tasks run on the wheel's thread, at most one tick late, so they should be short and must not
+ * block. If a task throws, the exception is passed to the thread's uncaught exception handler
+ * and the wheel carries on. While no tasks are pending the thread waits instead of ticking.
+ *
+ * Most code should share the wheel returned by shared(), rather than start a thread of its own.
+ *
+ * @author cjaros
+ */
+public class TimingWheel implements Closeable {
+
+    // Bounds the work done moving newly scheduled tasks into slots in one tick
+    private static final int MAX_TRANSFERS_PER_TICK = 100000;
+
+    private static final AtomicIntegerFieldUpdater<Timeout> STATE =
+            AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "_state");
+
+    private final long _tickNanos;
+    private final Slot[] _wheel;
+    private final int _mask;
+    private final long _start;
+
+    private final Queue<Timeout> _scheduled = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger _pending = new AtomicInteger();
+    private final Object _idle = new Object();
+    private volatile boolean _waiting;
+    private volatile boolean _running = true;
+
+    // Only touched by the wheel's thread
+    private long _tick;
+
+    private final Thread _thread;
+
+    /**
+     * Creates a new wheel and starts its thread
+     *
+     * @param tickDuration - the length of one tick, which is the precision of the wheel
+     * @param unit - the unit of the tick duration
+     * @param ticksPerWheel - the number of slots, rounded up to a power of two. Tasks due more
+     * than one turn of the wheel ahead wait in their slot for the turns to pass
+     */
+    public TimingWheel(long tickDuration, TimeUnit unit, int ticksPerWheel) {
+        if(tickDuration <= 0)
+            throw new IllegalArgumentException("tickDuration must be positive");
+        if(ticksPerWheel < 1 || ticksPerWheel > 1 << 30)
+            throw new IllegalArgumentException("ticksPerWheel must be between 1 and 2^30");
+
+        int size = Integer.highestOneBit(ticksPerWheel);
+        if(size < ticksPerWheel)
+            size <<= 1;
+
+        _tickNanos = Math.max(1, unit.toNanos(tickDuration));
+        _wheel = new Slot[size];
+        _mask = size - 1;
+
+        for(int i = 0; i < size; i++)
+            _wheel[i] = new Slot();
+
+        _start = System.nanoTime();
+
+        _thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                loop();
+            }
+        }, "timing-wheel");
+        _thread.setDaemon(true);
+        _thread.start();
+    }
+
+    /**
+     * @return a wheel with a one millisecond tick, shared by everything that does not supply its own
+     */
+    public static TimingWheel shared() {
+        return Shared.INSTANCE;
+    }
+
+    /**
+     * Schedules a task to run once, after a delay
+     *
+     * @param task - the task to run on the wheel's thread
+     * @param delay - the time to wait. Zero or less runs the task on the next tick
+     * @param unit - the unit of the delay
+     * @return a handle that can cancel the task
+     * @throws IllegalStateException if the wheel has been closed
+     */
+    public ITimeout schedule(Runnable task, long delay, TimeUnit unit) {
+        if(task == null)
+            throw new IllegalArgumentException("task must not be null");
+        if(!_running)
+            throw new IllegalStateException("the timing wheel is closed");
+
+        Timeout timeout = new Timeout(task, System.nanoTime() - _start + Math.max(0, unit.toNanos(delay)));
+
+        _pending.incrementAndGet();
+        _scheduled.offer(timeout);
+
+        if(_waiting) {
+            synchronized(_idle) {
+                _idle.notify();
+            }
+        }
+
+        return timeout;
+    }
+
+    /**
+     * @return the number of tasks that have neither run nor been cancelled
+     */
+    public int getPendingCount() {
+        return _pending.get();
+    }
+
+    /**
+     * Stops the wheel's thread. Pending tasks never run.
+     */
+    @Override
+    public void close() {
+        _running = false;
+
+        synchronized(_idle) {
+            _idle.notify();
+        }
+
+        if(Thread.currentThread() == _thread)
+            return;
+
+        try {
+            _thread.join();
+        }
+        catch(InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void loop() {
+        while(_running) {
+            if(!awaitWork())
+                return;
+
+            long now = System.nanoTime() - _start;
+            long due = (_tick + 1) * _tickNanos;
+
+            if(now < due) {
+                sleep(due - now);
+                continue;
+            }
+
+            transfer();
+            expire(_wheel[(int)(_tick & _mask)]);
+            _tick++;
+        }
+    }
+
+    /**
+     * Waits while nothing is pending. When work arrives after a wait, the wheel skips straight
+     * to the current tick, since every slot it skipped is empty.
+     *
+     * @return false if the wheel was closed while waiting
+     */
+    private boolean awaitWork() {
+        if(_pending.get() > 0)
+            return true;
+
+        boolean waited = false;
+
+        synchronized(_idle) {
+            _waiting = true;
+
+            try {
+                while(_running && _pending.get() == 0) {
+                    _idle.wait();
+                    waited = true;
+                }
+            }
+            catch(InterruptedException ex) {
+                _running = false;
+            }
+            finally {
+                _waiting = false;
+            }
+        }
+
+        if(waited)
+            _tick = Math.max(_tick, (System.nanoTime() - _start) / _tickNanos);
+
+        return _running;
+    }
+
+    private static void sleep(long nanos) {
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        }
+        catch(InterruptedException ex) {
+            // Checked again by the loop
+        }
+    }
+
+    /**
+     * Moves newly scheduled tasks into the slots their deadlines fall in
+     */
+    private void transfer() {
+        for(int i = 0; i < MAX_TRANSFERS_PER_TICK; i++) {
+            Timeout timeout = _scheduled.poll();
+
+            if(timeout == null)
+                return;
+
+            if(timeout._state != Timeout.PENDING)
+                continue;
+
+            long due = timeout._deadline / _tickNanos;
+
+            // A deadline already passed goes in the current slot
+            long tick = Math.max(due, _tick);
+
+            timeout._rounds = (tick - _tick) / _wheel.length;
+            _wheel[(int)(tick & _mask)].add(timeout);
+        }
+    }
+
+    /**
+     * Runs the tasks in a slot that are due this turn, and forgets cancelled ones
+     */
+    private void expire(Slot slot) {
+        Timeout timeout = slot.head;
+
+        while(timeout != null) {
+            Timeout next = timeout._next;
+
+            if(timeout._state != Timeout.PENDING) {
+                slot.remove(timeout);
+            }
+            else if(timeout._rounds <= 0) {
+                slot.remove(timeout);
+                timeout.expire();
+            }
+            else {
+                timeout._rounds--;
+            }
+
+            timeout = next;
+        }
+    }
+
+    /**
+     * The tasks in one slot of the wheel, as a doubly linked list. Only touched by the wheel's thread.
+     */
+    private static final class Slot {
+
+        Timeout head;
+        Timeout tail;
+
+        void add(Timeout timeout) {
+            timeout._previous = tail;
+            timeout._next = null;
+
+            if(tail == null)
+                head = timeout;
+            else
+                tail._next = timeout;
+
+            tail = timeout;
+        }
+
+        void remove(Timeout timeout) {
+            if(timeout._previous == null)
+                head = timeout._next;
+            else
+                timeout._previous._next = timeout._next;
+
+            if(timeout._next == null)
+                tail = timeout._previous;
+            else
+                timeout._next._previous = timeout._previous;
+
+            timeout._previous = null;
+            timeout._next = null;
+        }
+    }
+
+    private final class Timeout implements ITimeout {
+
+        static final int PENDING = 0;
+        static final int EXPIRED = 1;
+        static final int CANCELLED = 2;
+
+        private final Runnable _task;
+        private final long _deadline;
+
+        // Not private, so that STATE can update it
+        volatile int _state;
+
+        // Only touched by the wheel's thread
+        long _rounds;
+        Timeout _previous;
+        Timeout _next;
+
+        Timeout(Runnable task, long deadline) {
+            _task = task;
+            _deadline = deadline;
+        }
+
+        @Override
+        public boolean cancel() {
+            if(!STATE.compareAndSet(this, PENDING, CANCELLED))
+                return false;
+
+            _pending.decrementAndGet();
+            return true;
+        }
+
+        @Override
+        public boolean isExpired() {
+            return _state == EXPIRED;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return _state == CANCELLED;
+        }
+
+        void expire() {
+            if(!STATE.compareAndSet(this, PENDING, EXPIRED))
+                return;
+
+            _pending.decrementAndGet();
+
+            try {
+                _task.run();
+            }
+            catch(RuntimeException ex) {
+                Thread current = Thread.currentThread();
+                current.getUncaughtExceptionHandler().uncaughtException(current, ex);
+            }
+        }
+    }
+
+    /**
+     * Holds the shared wheel, so it is only started when first used
+     */
+    private static final class Shared {
+
+        static final TimingWheel INSTANCE = new TimingWheel(1, TimeUnit.MILLISECONDS, 1024);
+    }
+}
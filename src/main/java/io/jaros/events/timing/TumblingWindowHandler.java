@@ -0,0 +1,65 @@
+package io.jaros.events.timing;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.jaros.events.EventArgs;
+import io.jaros.events.generic.IBatchEventHandler;
+import io.jaros.events.generic.IEventHandler;
+
+
+/**
+ * Collects events into back to back windows of a fixed length and delivers each window as a
+ * batch when it closes. A window opens with the first event after the last one closed, so an
+ * idle handler holds no timer. The sender of a batch is the sender of its latest event.
+ *
+ * @author cjaros
+ *
+ * @param &lt;T&gt; extends EventArgs - the object type of the events being collected
+ */
+class TumblingWindowHandler<T extends EventArgs> implements IEventHandler<T>, Runnable {
+
+    private final TimingWheel _wheel;
+    private final IBatchEventHandler<T> _downstream;
+    private final long _lengthNanos;
+
+    // Guarded by this
+    private Object _sender;
+    private List<T> _window = new ArrayList<>();
+
+    TumblingWindowHandler(TimingWheel wheel, IBatchEventHandler<T> downstream, long lengthNanos) {
+        _wheel = wheel;
+        _downstream = downstream;
+        _lengthNanos = lengthNanos;
+    }
+
+    @Override
+    public void handleEvent(Object sender, T args) {
+        synchronized(this) {
+            _sender = sender;
+            _window.add(args);
+
+            if(_window.size() > 1)
+                return;
+        }
+
+        _wheel.schedule(this, _lengthNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void run() {
+        Object sender;
+        List<T> window;
+
+        synchronized(this) {
+            sender = _sender;
+            window = _window;
+            _sender = null;
+            _window = new ArrayList<>();
+        }
+
+        _downstream.handleEvents(sender, Collections.unmodifiableList(window));
+    }
+}
@@ -1,16 +1,28 @@
 package io.jaros.events.util;
 
 import java.util.ArrayList;
-import java.util.Calendar;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 import io.jaros.events.EventArgs;
 import io.jaros.events.generic.IEventHandler;
+import io.jaros.events.generic.IEventPredicate;
 
 /**
  * This class is a helper class to gather and wait for future events emitted from
  * an object. This is primarily used for unit testing
  * 
+ * The collector is thread-safe, so events may be collected from any number of threads while
+ * another thread waits for them. Waiting threads are woken as soon as an event is collected,
+ * rather than polling.
+ * 
+ * A collector created with a capacity only keeps the most recent events, so it can be left
+ * attached to a busy event during a long test without growing. Older events are discarded,
+ * but still count towards waitForNthEvent.
+ * 
  * @author cjaros
  *
  * @param <T>
@@ -31,15 +43,40 @@ public class EventCollector<T extends EventArgs> {
         public Object sender;
         public T args;
     }
-    
-    public ArrayList<Event> _events;
+
+    private final ReentrantLock _lock = new ReentrantLock();
+    private final Condition _collected = _lock.newCondition();
+    private final int _capacity;
+
+    // Guarded by _lock. The retained events are a circular array starting
+    // at _start. _count is the number of events collected since the last
+    // clear, including any that have been discarded
+    private Event[] _events;
+    private int _start;
+    private int _size;
+    private long _count;
 
     /**
-     * Create a new instance
+     * Create a new instance that keeps every event
      */
     public EventCollector()
     {
-        _events = new ArrayList<>();
+        this(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Create a new instance that keeps the most recent events
+     * 
+     * @param capacity - the number of events to keep
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public EventCollector(int capacity)
+    {
+        if(capacity < 1)
+            throw new IllegalArgumentException("capacity must be at least one");
+        
+        _capacity = capacity;
+        _events = (Event[])new EventCollector.Event[Math.min(capacity, 16)];
     }
 
     /**
@@ -50,7 +87,29 @@ public class EventCollector<T extends EventArgs> {
      */
     public void collect(Object sender, T args)
     {
-        _events.add(new Event(sender, args));
+        Event event = new Event(sender, args);
+        
+        _lock.lock();
+        try {
+            if(_size == _capacity) {
+                // Overwrite the oldest event
+                _events[_start] = event;
+                _start = (_start + 1) % _events.length;
+            }
+            else {
+                if(_size == _events.length)
+                    grow();
+                
+                _events[(_start + _size) % _events.length] = event;
+                _size++;
+            }
+            
+            _count++;
+            _collected.signalAll();
+        }
+        finally {
+            _lock.unlock();
+        }
     }
 
     /**
@@ -59,21 +118,32 @@ public class EventCollector<T extends EventArgs> {
     public IEventHandler<T> handler() {
         return collector;
     }
-    
-    private final IEventHandler<T> collector = new IEventHandler<T>() {
 
+    private final IEventHandler<T> collector = new IEventHandler<T>() {
+        
         @Override
         public void handleEvent(Object sender, T args) {
             collect(sender, args);
-        }        
+        }
     };
-    
+
     /**
-     * Clear the events 
+     * Clear the events
      */
     public void clear()
     {
-        _events.clear();
+        _lock.lock();
+        try {
+            for(int i = 0; i < _size; i++)
+                _events[(_start + i) % _events.length] = null;
+            
+            _start = 0;
+            _size = 0;
+            _count = 0;
+        }
+        finally {
+            _lock.unlock();
+        }
     }
 
     /**
@@ -81,27 +151,82 @@ public class EventCollector<T extends EventArgs> {
      */
     public Event last()
     {
-        if(_events.isEmpty())
-            return null;
-        
-        return _events.get(_events.size() - 1);
+        _lock.lock();
+        try {
+            if(_size == 0)
+                return null;
+            
+            return _events[(_start + _size - 1) % _events.length];
+        }
+        finally {
+            _lock.unlock();
+        }
     }
 
     /**
-     * @return the size of the collection
+     * @return the number of events kept in the collection
      */
     public int size()
     {
-        return _events.size();
+        _lock.lock();
+        try {
+            return _size;
+        }
+        finally {
+            _lock.unlock();
+        }
+    }
+
+    /**
+     * @return the number of events collected since the collection was created or cleared,
+     * including any that have been discarded
+     */
+    public long count()
+    {
+        _lock.lock();
+        try {
+            return _count;
+        }
+        finally {
+            _lock.unlock();
+        }
     }
 
     /**
      * @param index
-     * @return the event at the specified instance
+     * @return the event at the specified instance, counting from the oldest event kept
      */
     public Event get(int index)
     {
-        return _events.get(index);        
+        _lock.lock();
+        try {
+            if(index < 0 || index >= _size)
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + _size);
+            
+            return _events[(_start + index) % _events.length];
+        }
+        finally {
+            _lock.unlock();
+        }
+    }
+
+    /**
+     * @return a copy of the events kept in the collection, oldest first
+     */
+    public List<Event> events()
+    {
+        _lock.lock();
+        try {
+            List<Event> events = new ArrayList<>(_size);
+            
+            for(int i = 0; i < _size; i++)
+                events.add(_events[(_start + i) % _events.length]);
+            
+            return events;
+        }
+        finally {
+            _lock.unlock();
+        }
     }
 
     /**
@@ -109,19 +234,88 @@ public class EventCollector<T extends EventArgs> {
      * exception if the timeout elapses before the nth event is collected.
      * 
      * @param n
-     * @param timeout
+     * @param timeout - in milliseconds
      * @throws TimeoutException
      * @throws InterruptedException
      */
     public void waitForNthEvent(int n, int timeout) throws TimeoutException, InterruptedException
-    {        
-        Calendar end = Calendar.getInstance();
-        end.add(Calendar.MILLISECOND, timeout);
-        while (n > _events.size())
-        {
-            if (Calendar.getInstance().after(end))
-                throw new TimeoutException("timed out waiting for event");
-            Thread.sleep(50);
+    {
+        long remaining = TimeUnit.MILLISECONDS.toNanos(timeout);
+        
+        _lock.lock();
+        try {
+            while(n > _count) {
+                if(remaining <= 0)
+                    throw new TimeoutException("timed out waiting for event");
+                
+                remaining = _collected.awaitNanos(remaining);
+            }
+        }
+        finally {
+            _lock.unlock();
+        }
+    }
+
+    /**
+     * Waits for an event that matches the predicate. Events already kept in the collection are
+     * checked first, oldest first, and then each new event as it is collected. With a capacity,
+     * events that are discarded before the waiting thread gets to check them are missed.
+     * 
+     * @param predicate - the condition the event must meet
+     * @param timeout
+     * @param unit
+     * @return the first matching event
+     * @throws TimeoutException if no matching event is collected before the timeout elapses
+     * @throws InterruptedException
+     */
+    public Event await(IEventPredicate<? super T> predicate, long timeout, TimeUnit unit)
+            throws TimeoutException, InterruptedException
+    {
+        long remaining = unit.toNanos(timeout);
+        
+        _lock.lock();
+        try {
+            // The collection count of the oldest event not yet checked
+            long checked = _count - _size;
+            
+            while(true) {
+                // Skip anything that was discarded or cleared while waiting
+                long oldest = _count - _size;
+                if(checked < oldest || checked > _count)
+                    checked = oldest;
+                
+                for(; checked < _count; checked++) {
+                    Event event = _events[(int)((_start + (checked - oldest)) % _events.length)];
+                    
+                    if(predicate.test(event.sender, event.args))
+                        return event;
+                }
+                
+                if(remaining <= 0)
+                    throw new TimeoutException("timed out waiting for event");
+                
+                remaining = _collected.awaitNanos(remaining);
+            }
         }
+        finally {
+            _lock.unlock();
+        }
+    }
+
+    /**
+     * Doubles the array of an unbounded, or not yet full, collection. Must be called while
+     * holding the lock.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private void grow()
+    {
+        int length = (int)Math.min((long)_events.length * 2, _capacity);
+        Event[] events = (Event[])new EventCollector.Event[length];
+        
+        for(int i = 0; i < _size; i++)
+            events[i] = _events[(_start + i) % _events.length];
+        
+        _events = events;
+        _start = 0;
     }
 }
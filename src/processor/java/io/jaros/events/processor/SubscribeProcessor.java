@@ -0,0 +1,206 @@
+package io.jaros.events.processor;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+
+
+/**
+ * Generates a dispatcher for each class that declares @Subscribe methods. The dispatcher holds
+ * one IEventHandler per method, which calls the method directly, and subscribes each of them to
+ * an EventBus by the type of the method's EventArgs parameter. Methods that cannot be called
+ * this way are reported as compile errors.
+ *
+ * The processor is packaged on its own and registered in its META-INF/services, so javac runs
+ * it only for builds that put it on their processor path. It refers to the library's types by
+ * name, so the library itself does not need to be on the processor path.
+ *
+ * @author cjaros
+ */
+@SupportedAnnotationTypes("io.jaros.events.annotation.Subscribe")
+public class SubscribeProcessor extends AbstractProcessor {
+
+    private static final String SUBSCRIBE = "io.jaros.events.annotation.Subscribe";
+    private static final String DISPATCHER = "io.jaros.events.annotation.IDispatcher";
+    private static final String DISPATCHERS = "io.jaros.events.annotation.Dispatchers";
+    private static final String EVENT_ARGS = "io.jaros.events.EventArgs";
+    private static final String HANDLER = "io.jaros.events.generic.IEventHandler";
+
+    // Must match Dispatchers.SUFFIX
+    private static final String SUFFIX = "_Dispatcher";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment round) {
+        Map<TypeElement, List<ExecutableElement>> subscribers = new LinkedHashMap<>();
+        TypeElement subscribe = processingEnv.getElementUtils().getTypeElement(SUBSCRIBE);
+
+        if(subscribe == null)
+            return false;
+
+        for(Element element: round.getElementsAnnotatedWith(subscribe)) {
+            ExecutableElement method = (ExecutableElement)element;
+
+            if(!check(method))
+                continue;
+
+            TypeElement type = (TypeElement)method.getEnclosingElement();
+            List<ExecutableElement> methods = subscribers.get(type);
+
+            if(methods == null) {
+                methods = new ArrayList<>();
+                subscribers.put(type, methods);
+            }
+
+            methods.add(method);
+        }
+
+        for(Map.Entry<TypeElement, List<ExecutableElement>> entry: subscribers.entrySet()) {
+            if(check(entry.getKey()))
+                write(entry.getKey(), entry.getValue());
+        }
+
+        return true;
+    }
+
+    /**
+     * @return true if generated code can subscribe the method
+     */
+    private boolean check(ExecutableElement method) {
+        Types types = processingEnv.getTypeUtils();
+        Elements elements = processingEnv.getElementUtils();
+
+        TypeMirror object = elements.getTypeElement("java.lang.Object").asType();
+        TypeMirror eventArgs = elements.getTypeElement(EVENT_ARGS).asType();
+        TypeMirror unchecked = elements.getTypeElement("java.lang.RuntimeException").asType();
+        TypeMirror error = elements.getTypeElement("java.lang.Error").asType();
+
+        Element enclosing = method.getEnclosingElement();
+
+        if(enclosing.getKind() != ElementKind.CLASS && enclosing.getKind() != ElementKind.ENUM)
+            return error(method, "@Subscribe methods must be declared in a class");
+
+        if(method.getModifiers().contains(Modifier.PRIVATE))
+            return error(method, "@Subscribe methods must not be private");
+
+        if(method.getModifiers().contains(Modifier.STATIC))
+            return error(method, "@Subscribe methods must not be static");
+
+        if(method.getParameters().size() != 2
+                || !types.isSameType(method.getParameters().get(0).asType(), object)
+                || method.getParameters().get(1).asType().getKind() != TypeKind.DECLARED
+                || !types.isAssignable(types.erasure(method.getParameters().get(1).asType()), eventArgs))
+            return error(method, "@Subscribe methods must take (Object sender, T args), where T extends EventArgs");
+
+        for(TypeMirror thrown: method.getThrownTypes()) {
+            if(!types.isAssignable(thrown, unchecked) && !types.isAssignable(thrown, error))
+                return error(method, "@Subscribe methods must not throw checked exceptions");
+        }
+
+        return true;
+    }
+
+    /**
+     * @return true if generated code in the same package can see the type
+     */
+    private boolean check(TypeElement type) {
+        for(Element current = type; current instanceof TypeElement; current = current.getEnclosingElement()) {
+            NestingKind nesting = ((TypeElement)current).getNestingKind();
+
+            if(nesting == NestingKind.LOCAL || nesting == NestingKind.ANONYMOUS)
+                return error(type, "classes with @Subscribe methods must not be local or anonymous");
+
+            if(current.getModifiers().contains(Modifier.PRIVATE))
+                return error(type, "classes with @Subscribe methods must not be private");
+        }
+
+        return true;
+    }
+
+    private boolean error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+        return false;
+    }
+
+    private void write(TypeElement type, List<ExecutableElement> methods) {
+        Types types = processingEnv.getTypeUtils();
+        Elements elements = processingEnv.getElementUtils();
+
+        String packageName = elements.getPackageOf(type).getQualifiedName().toString();
+        String binaryName = elements.getBinaryName(type).toString();
+        String name = binaryName + SUFFIX;
+        String simpleName = packageName.isEmpty() ? name : name.substring(packageName.length() + 1);
+
+        // Raw types keep generic subscribers and arguments simple, the
+        // method calls are still checked when the dispatcher is compiled
+        String subscriber = types.erasure(type.asType()).toString();
+
+        try(PrintWriter out = new PrintWriter(processingEnv.getFiler().createSourceFile(name, type).openWriter())) {
+            if(!packageName.isEmpty()) {
+                out.println("package " + packageName + ";");
+                out.println();
+            }
+
+            out.println("/**");
+            out.println(" * Subscribes the @Subscribe methods declared by " + subscriber + ".");
+            out.println(" * Generated by " + SubscribeProcessor.class.getName() + ", do not edit.");
+            out.println(" */");
+            out.println("@SuppressWarnings({ \"rawtypes\", \"unchecked\" })");
+            out.println("public final class " + simpleName + " implements " + DISPATCHER
+                    + "<" + subscriber + "> {");
+            out.println();
+            out.println("    @Override");
+            out.println("    public io.jaros.events.ISubscription register(final " + subscriber
+                    + " subscriber, io.jaros.events.EventBus bus) {");
+            out.println("        " + HANDLER + "[] handlers = new " + HANDLER + "[" + methods.size() + "];");
+            out.println("        io.jaros.events.ISubscription[] subscriptions = new io.jaros.events.ISubscription["
+                    + methods.size() + "];");
+
+            for(int i = 0; i < methods.size(); i++) {
+                ExecutableElement method = methods.get(i);
+                String args = types.erasure(method.getParameters().get(1).asType()).toString();
+
+                out.println();
+                out.println("        handlers[" + i + "] = new " + HANDLER + "<" + args + ">() {");
+                out.println("            @Override");
+                out.println("            public void handleEvent(java.lang.Object sender, " + args + " args) {");
+                out.println("                subscriber." + method.getSimpleName() + "(sender, args);");
+                out.println("            }");
+                out.println("        };");
+                out.println("        subscriptions[" + i + "] = bus.subscribe(" + args + ".class, handlers[" + i + "]);");
+            }
+
+            out.println();
+            out.println("        return " + DISPATCHERS + ".combine(subscriptions, handlers);");
+            out.println("    }");
+            out.println("}");
+        }
+        catch(IOException ex) {
+            error(type, "could not write " + name + ": " + ex.getMessage());
+        }
+    }
+}
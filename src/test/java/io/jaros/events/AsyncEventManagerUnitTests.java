@@ -0,0 +1,197 @@
+package io.jaros.events;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.jaros.events.util.CollectedEvent;
+
+public class AsyncEventManagerUnitTests {
+
+    private ExecutorService _executor;
+    private AsyncEventManager<EventArgs> _event;
+    private List<CollectedEvent> _eventCollector;
+    
+    @Before
+    public void setUp() {
+        _executor = Executors.newFixedThreadPool(4);
+        _event = new AsyncEventManager<>(_executor);
+        _eventCollector = Collections.synchronizedList(new ArrayList<CollectedEvent>());
+    }
+    
+    @After
+    public void tearDown() {
+        _executor.shutdownNow();
+    }
+    
+    private final ISimpleEventHandler _handler1 = new ISimpleEventHandler() {
+        
+        @Override
+        public void handleEvent(Object sender, EventArgs args) {
+            _eventCollector.add(new CollectedEvent(this, sender, args));                
+        }
+    };
+    
+    @Test
+    public void testRaiseAsync() throws Exception {
+        _event.getEvent().subscribe(_handler1);
+        
+        RaiseFuture future = _event.raiseAsync(this, new EventArgs());
+        future.get(5, TimeUnit.SECONDS);
+        
+        assertTrue(future.isDone());
+        assertFalse(future.isFailed());
+        assertEquals(1, _eventCollector.size());
+        assertEquals(this, _eventCollector.get(0).sender);
+        assertEquals(_handler1, _eventCollector.get(0).handler);
+    }
+    
+    @Test
+    public void testRaiseWithoutHandlers() throws Exception {
+        RaiseFuture future = _event.raiseAsync(this, new EventArgs());
+        
+        assertTrue(future.isDone());
+        future.get();
+    }
+    
+    @Test
+    public void testSlowHandlerDoesNotBlockRaise() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        
+        ISimpleEventHandler slow = new ISimpleEventHandler() {
+            @Override
+            public void handleEvent(Object sender, EventArgs args) {
+                try {
+                    release.await();
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        
+        _event.getEvent().subscribe(slow);
+        _event.getEvent().subscribe(_handler1);
+        
+        RaiseFuture future = _event.raiseAsync(this, new EventArgs());
+        
+        assertFalse(future.isDone());
+        
+        release.countDown();
+        future.get(5, TimeUnit.SECONDS);
+        
+        assertEquals(1, _eventCollector.size());
+    }
+    
+    @Test
+    public void testRaiseWithException() throws Exception {
+        ISimpleEventHandler exceptionHandler = new ISimpleEventHandler() {            
+            @Override
+            public void handleEvent(Object sender, EventArgs args) {
+                throw new RuntimeException("cause an error");                
+            }
+        };
+        
+        _event.getEvent().subscribe(exceptionHandler);
+        _event.getEvent().subscribe(_handler1);
+        
+        RaiseFuture future = _event.raiseAsync(this, new EventArgs());
+        
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            fail("expected an ExecutionException");
+        }
+        catch(ExecutionException ex) {
+            assertEquals("cause an error", ex.getCause().getMessage());
+        }
+        
+        // Unlike synchronous raise, the other handlers still receive the event
+        assertTrue(future.isFailed());
+        assertEquals(1, _eventCollector.size());
+    }
+    
+    @Test
+    public void testRaiseReportsHandlerExceptions() throws Exception {
+        final List<Throwable> reported = Collections.synchronizedList(new ArrayList<Throwable>());
+        final CountDownLatch failed = new CountDownLatch(1);
+        
+        ExecutorService executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable task) {
+                Thread thread = new Thread(task);
+                thread.setUncaughtExceptionHandler(new Thread.UncaughtExceptionHandler() {
+                    @Override
+                    public void uncaughtException(Thread t, Throwable e) {
+                        reported.add(e);
+                        failed.countDown();
+                    }
+                });
+                return thread;
+            }
+        });
+        
+        try {
+            AsyncEventManager<EventArgs> event = new AsyncEventManager<>(executor);
+            event.getEvent().subscribe(new ISimpleEventHandler() {
+                @Override
+                public void handleEvent(Object sender, EventArgs args) {
+                    throw new RuntimeException("cause an error");
+                }
+            });
+            
+            event.raise(this, new EventArgs());
+            
+            assertTrue(failed.await(5, TimeUnit.SECONDS));
+            assertEquals("cause an error", reported.get(0).getMessage());
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    @Test
+    public void testRaiseReportsRejectedDeliveries() {
+        final List<Throwable> reported = new ArrayList<>();
+        Thread current = Thread.currentThread();
+        Thread.UncaughtExceptionHandler previous = current.getUncaughtExceptionHandler();
+        
+        current.setUncaughtExceptionHandler(new Thread.UncaughtExceptionHandler() {
+            @Override
+            public void uncaughtException(Thread t, Throwable e) {
+                reported.add(e);
+            }
+        });
+        
+        try {
+            AsyncEventManager<EventArgs> event = new AsyncEventManager<>(new Executor() {
+                @Override
+                public void execute(Runnable command) {
+                    throw new RejectedExecutionException();
+                }
+            });
+            event.getEvent().subscribe(_handler1);
+            
+            event.raise(this, new EventArgs());
+            
+            assertEquals(1, reported.size());
+            assertTrue(reported.get(0) instanceof RejectedExecutionException);
+        }
+        finally {
+            current.setUncaughtExceptionHandler(previous);
+        }
+    }
+}
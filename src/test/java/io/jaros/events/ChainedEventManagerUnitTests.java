@@ -0,0 +1,191 @@
+package io.jaros.events;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import io.jaros.events.generic.IEventHandler;
+import io.jaros.events.util.CollectedEvent;
+
+public class ChainedEventManagerUnitTests {
+
+    private ChainedEventManager<EventArgs> _event;
+    private List<CollectedEvent> _eventCollector;
+
+    private IEventHandler<EventArgs> collecting() {
+        return new IEventHandler<EventArgs>() {
+            @Override
+            public void handleEvent(Object sender, EventArgs args) {
+                _eventCollector.add(new CollectedEvent(this, sender, args));
+            }
+        };
+    }
+
+    @Before
+    public void setUp() {
+        _event = new ChainedEventManager<>();
+        _eventCollector = new ArrayList<>();
+    }
+
+    @Test
+    public void testRaiseWithoutHandlers() {
+        _event.raise(this, new EventArgs());
+
+        assertEquals(0, _eventCollector.size());
+        assertTrue(_event.isChained());
+    }
+
+    @Test
+    public void testChainCallsHandlersInOrder() {
+        List<IEventHandler<EventArgs>> handlers = new ArrayList<>();
+
+        for(int i = 0; i < 5; i++) {
+            handlers.add(collecting());
+            _event.getEvent().subscribeStrong(handlers.get(i));
+        }
+
+        EventArgs args = new EventArgs();
+        _event.raise(this, args);
+
+        assertTrue(_event.isChained());
+        assertEquals(5, _eventCollector.size());
+
+        for(int i = 0; i < 5; i++) {
+            assertEquals(handlers.get(i), _eventCollector.get(i).handler);
+            assertEquals(this, _eventCollector.get(i).sender);
+            assertEquals(args, _eventCollector.get(i).args);
+        }
+    }
+
+    @Test
+    public void testSoftAndWeakHandlersFollowTheChain() {
+        IEventHandler<EventArgs> soft = collecting();
+        IEventHandler<EventArgs> weak = collecting();
+        IEventHandler<EventArgs> strong = collecting();
+
+        _event.getEvent().subscribe(soft);
+        _event.getEvent().subscribeWeak(weak);
+        _event.getEvent().subscribeStrong(strong);
+        _event.raise(this, new EventArgs());
+
+        assertEquals(3, _eventCollector.size());
+        assertEquals(strong, _eventCollector.get(0).handler);
+        assertEquals(soft, _eventCollector.get(1).handler);
+        assertEquals(weak, _eventCollector.get(2).handler);
+    }
+
+    @Test
+    public void testChainIsRebuiltWhenSubscriptionsChange() {
+        IEventHandler<EventArgs> first = collecting();
+        IEventHandler<EventArgs> second = collecting();
+
+        ISubscription subscription = _event.getEvent().subscribeStrong(first);
+        _event.raise(this, new EventArgs());
+
+        _event.getEvent().subscribeStrong(second);
+        _event.raise(this, new EventArgs());
+
+        subscription.close();
+        _event.raise(this, new EventArgs());
+
+        _event.clearHandlers();
+        _event.raise(this, new EventArgs());
+
+        assertEquals(4, _eventCollector.size());
+        assertEquals(first, _eventCollector.get(0).handler);
+        assertEquals(first, _eventCollector.get(1).handler);
+        assertEquals(second, _eventCollector.get(2).handler);
+        assertEquals(second, _eventCollector.get(3).handler);
+    }
+
+    @Test
+    public void testWeakAndSoftChangesKeepTheChain() {
+        IEventHandler<EventArgs> weak = collecting();
+
+        _event.getEvent().subscribeStrong(collecting());
+        _event.raise(this, new EventArgs());
+        Object chain = _event.target();
+
+        ISubscription soft = _event.getEvent().subscribe(collecting());
+        _event.getEvent().subscribeWeak(weak);
+        _event.raise(this, new EventArgs());
+        soft.close();
+        _event.getEvent().unsubscribe(weak);
+        _event.raise(this, new EventArgs());
+
+        assertSame(chain, _event.target());
+        assertEquals(1 + 3 + 1, _eventCollector.size());
+    }
+
+    @Test
+    public void testRemovingHandlersRelinksImmediately() {
+        IEventHandler<EventArgs> first = collecting();
+        IEventHandler<EventArgs> second = collecting();
+
+        _event.getEvent().subscribeStrong(first);
+        _event.getEvent().subscribeStrong(second);
+        _event.raise(this, new EventArgs());
+        Object chain = _event.target();
+
+        _event.getEvent().unsubscribe(first);
+        Object shorter = _event.target();
+        assertNotSame(chain, shorter);
+
+        _event.clearHandlers();
+        assertNotSame(shorter, _event.target());
+        assertFalse(_event.hasHandlers());
+    }
+
+    @Test
+    public void testClosingInPlaceIsNoticed() {
+        IEventHandler<EventArgs> first = collecting();
+        IEventHandler<EventArgs> second = collecting();
+
+        ISubscription subscription = _event.getEvent().subscribeStrong(first);
+        _event.getEvent().subscribeStrong(second);
+        _event.raise(this, new EventArgs());
+
+        // Closing clears the entry without a new array or a new size
+        subscription.close();
+        _event.raise(this, new EventArgs());
+
+        assertEquals(3, _eventCollector.size());
+        assertEquals(second, _eventCollector.get(2).handler);
+    }
+
+    @Test
+    public void testLargeHandlerSetsUseALoop() {
+        for(int i = 0; i <= ChainedEventManager.MAX_CHAINED; i++)
+            _event.getEvent().subscribeStrong(collecting());
+
+        _event.raise(this, new EventArgs());
+
+        assertFalse(_event.isChained());
+        assertEquals(ChainedEventManager.MAX_CHAINED + 1, _eventCollector.size());
+    }
+
+    @Test
+    public void testExceptionStopsTheChain() {
+        _event.getEvent().subscribeStrong(new IEventHandler<EventArgs>() {
+            @Override
+            public void handleEvent(Object sender, EventArgs args) {
+                throw new IllegalStateException("handler failed");
+            }
+        });
+        _event.getEvent().subscribeStrong(collecting());
+
+        try {
+            _event.raise(this, new EventArgs());
+            fail("the handler's exception should be thrown by raise");
+        }
+        catch(IllegalStateException ex) {
+            assertEquals("handler failed", ex.getMessage());
+        }
+
+        assertEquals(0, _eventCollector.size());
+    }
+}
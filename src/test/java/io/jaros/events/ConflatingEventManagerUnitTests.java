@@ -0,0 +1,157 @@
+package io.jaros.events;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import io.jaros.events.generic.EventArg;
+import io.jaros.events.generic.IEventHandler;
+import io.jaros.events.generic.IKeyExtractor;
+import io.jaros.events.util.CollectedEvent;
+
+public class ConflatingEventManagerUnitTests {
+
+    private List<CollectedEvent> _eventCollector;
+    
+    private final IEventHandler<EventArg<Integer>> _handler = new IEventHandler<EventArg<Integer>>() {
+        @Override
+        public void handleEvent(Object sender, EventArg<Integer> args) {
+            _eventCollector.add(new CollectedEvent(this, sender, args));
+        }
+    };
+    
+    @Before
+    public void setUp() {
+        _eventCollector = Collections.synchronizedList(new ArrayList<CollectedEvent>());
+    }
+    
+    @SuppressWarnings("unchecked")
+    private int valueAt(int index) {
+        return ((EventArg<Integer>)_eventCollector.get(index).args).getValue();
+    }
+    
+    @Test
+    public void testLatestValuePerSender() {
+        ConflatingEventManager<EventArg<Integer>> event = new ConflatingEventManager<>();
+        event.getEvent().subscribe(_handler);
+        
+        Object other = new Object();
+        
+        for(int i = 1; i <= 100; i++)
+            event.raise(this, new EventArg<Integer>(i));
+        event.raise(other, new EventArg<Integer>(-1));
+        
+        assertEquals(0, _eventCollector.size());
+        assertEquals(2, event.getPendingCount());
+        
+        assertEquals(2, event.drain());
+        
+        assertEquals(2, _eventCollector.size());
+        for(int i = 0; i < 2; i++) {
+            if(_eventCollector.get(i).sender == this)
+                assertEquals(100, valueAt(i));
+            else
+                assertEquals(-1, valueAt(i));
+        }
+        
+        assertEquals(0, event.drain());
+    }
+    
+    @Test
+    public void testKeyExtractor() {
+        // Conflate odd and even values separately
+        ConflatingEventManager<EventArg<Integer>> event = new ConflatingEventManager<>(
+                new IKeyExtractor<EventArg<Integer>>() {
+                    @Override
+                    public Object getKey(Object sender, EventArg<Integer> args) {
+                        return args.getValue() % 2;
+                    }
+                }, null);
+        event.getEvent().subscribe(_handler);
+        
+        for(int i = 1; i <= 10; i++)
+            event.raise(this, new EventArg<Integer>(i));
+        
+        event.drain();
+        
+        assertEquals(2, _eventCollector.size());
+        assertEquals(19, valueAt(0) + valueAt(1));
+    }
+    
+    @Test
+    public void testExecutorDrain() throws InterruptedException {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        
+        try {
+            ConflatingEventManager<EventArg<Integer>> event = new ConflatingEventManager<>(null, executor);
+            event.getEvent().subscribe(_handler);
+            
+            for(int i = 1; i <= 10000; i++)
+                event.raise(this, new EventArg<Integer>(i));
+            
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+            
+            // Some updates are conflated, but the last one is always delivered
+            assertTrue(_eventCollector.size() <= 10000);
+            assertEquals(10000, valueAt(_eventCollector.size() - 1));
+            assertEquals(0, event.getPendingCount());
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    @Test
+    public void testExecutorDrainReportsHandlerExceptions() {
+        final List<Throwable> reported = new ArrayList<>();
+        
+        ConflatingEventManager<EventArg<Integer>> event = new ConflatingEventManager<>(null, new Executor() {
+            @Override
+            public void execute(Runnable task) {
+                task.run();
+            }
+        });
+        
+        event.getEvent().subscribe(new IEventHandler<EventArg<Integer>>() {
+            @Override
+            public void handleEvent(Object sender, EventArg<Integer> args) {
+                if(args.getValue() < 0)
+                    throw new IllegalStateException("handler failed");
+            }
+        });
+        event.getEvent().subscribe(_handler);
+        
+        Thread current = Thread.currentThread();
+        Thread.UncaughtExceptionHandler previous = current.getUncaughtExceptionHandler();
+        current.setUncaughtExceptionHandler(new Thread.UncaughtExceptionHandler() {
+            @Override
+            public void uncaughtException(Thread t, Throwable e) {
+                reported.add(e);
+            }
+        });
+        
+        try {
+            event.raise(this, new EventArg<Integer>(-1));
+            event.raise(this, new EventArg<Integer>(1));
+        }
+        finally {
+            current.setUncaughtExceptionHandler(previous);
+        }
+        
+        assertEquals(1, reported.size());
+        assertTrue(reported.get(0) instanceof IllegalStateException);
+        assertEquals(1, _eventCollector.size());
+        assertEquals(1, valueAt(0));
+        assertEquals(0, event.getPendingCount());
+    }
+}
@@ -0,0 +1,112 @@
+package io.jaros.events;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import io.jaros.events.generic.EventArg;
+import io.jaros.events.generic.IEventHandler;
+import io.jaros.events.util.CollectedEvent;
+
+public class EventBusUnitTests {
+
+    private EventBus _bus;
+    private ArrayList<CollectedEvent> _eventCollector;
+    
+    /**
+     * A more specific kind of EventArg used to check routing to superclasses
+     */
+    private static class NamedEventArg extends EventArg<String> {
+        NamedEventArg(String value) {
+            super(value);
+        }
+    }
+    
+    private final IEventHandler<EventArgs> _anyHandler = new IEventHandler<EventArgs>() {
+        @Override
+        public void handleEvent(Object sender, EventArgs args) {
+            _eventCollector.add(new CollectedEvent(this, sender, args));
+        }
+    };
+    
+    private final IEventHandler<NamedEventArg> _namedHandler = new IEventHandler<NamedEventArg>() {
+        @Override
+        public void handleEvent(Object sender, NamedEventArg args) {
+            _eventCollector.add(new CollectedEvent(this, sender, args));
+        }
+    };
+    
+    @Before
+    public void setUp() {
+        _bus = new EventBus();
+        _eventCollector = new ArrayList<>();
+    }
+    
+    @Test
+    public void testRoutesToClassAndSuperclasses() {
+        _bus.subscribe(EventArgs.class, _anyHandler);
+        _bus.subscribe(NamedEventArg.class, _namedHandler);
+        
+        NamedEventArg named = new NamedEventArg("zap");
+        _bus.publish(this, named);
+        
+        assertEquals(2, _eventCollector.size());
+        assertEquals(_namedHandler, _eventCollector.get(0).handler);
+        assertEquals(named, _eventCollector.get(0).args);
+        assertEquals(_anyHandler, _eventCollector.get(1).handler);
+        
+        _bus.publish(this, new EventArg<Integer>(1));
+        
+        assertEquals(3, _eventCollector.size());
+        assertEquals(_anyHandler, _eventCollector.get(2).handler);
+    }
+    
+    @Test
+    public void testSubscribeAfterPublishIsSeen() {
+        _bus.publish(this, new NamedEventArg("before"));
+        
+        _bus.subscribe(NamedEventArg.class, _namedHandler);
+        _bus.publish(this, new NamedEventArg("after"));
+        
+        assertEquals(1, _eventCollector.size());
+        assertEquals("after", ((NamedEventArg)_eventCollector.get(0).args).getValue());
+    }
+    
+    @Test
+    public void testUnsubscribe() {
+        _bus.subscribe(EventArgs.class, _anyHandler);
+        _bus.subscribe(NamedEventArg.class, _anyHandler);
+        
+        _bus.publish(this, new NamedEventArg("both"));
+        
+        assertEquals(2, _eventCollector.size());
+        
+        _bus.unsubscribe(NamedEventArg.class, _anyHandler);
+        _bus.publish(this, new NamedEventArg("one"));
+        
+        assertEquals(3, _eventCollector.size());
+    }
+    
+    @Test
+    public void testCloseSubscription() {
+        ISubscription subscription = _bus.subscribe(NamedEventArg.class, _namedHandler);
+        
+        _bus.publish(this, new NamedEventArg("first"));
+        subscription.close();
+        _bus.publish(this, new NamedEventArg("second"));
+        
+        assertEquals(1, _eventCollector.size());
+    }
+    
+    @Test
+    public void testClear() {
+        _bus.subscribe(EventArgs.class, _anyHandler);
+        _bus.clear();
+        _bus.publish(this, new EventArgs());
+        
+        assertEquals(0, _eventCollector.size());
+    }
+}
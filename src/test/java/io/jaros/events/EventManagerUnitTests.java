@@ -1,11 +1,15 @@
 package io.jaros.events;
 
 import static org.junit.Assert.*;
+import io.jaros.events.generic.IBatchEventHandler;
+import io.jaros.events.generic.IEventArgsSupplier;
 import io.jaros.events.generic.IEventHandler;
 import io.jaros.events.util.CollectedEvent;
 
 import java.lang.ref.WeakReference;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import org.junit.After;
 import org.junit.Before;
@@ -245,4 +249,217 @@ public class EventManagerUnitTests {
         assertEquals(null, _eventCollector.get(1).handler);
     }
     
+    @Test
+    public void testSubscribeDuringRaise() {
+        ISimpleEventHandler subscriber = new ISimpleEventHandler() {
+            @Override
+            public void handleEvent(Object sender, EventArgs args) {
+                _eventCollector.add(new CollectedEvent(this, sender, args));
+                _event.getEvent().subscribe(_handler1);
+            }
+        };
+        
+        _event.getEvent().subscribe(subscriber);
+        
+        _event.raise(this, new EventArgs());
+        
+        // The handler added while raising is not part of the snapshot being raised
+        assertEquals(1, _eventCollector.size());
+        assertEquals(subscriber, _eventCollector.get(0).handler);
+        
+        _event.getEvent().unsubscribe(subscriber);
+        
+        _event.raise(this, new EventArgs());
+        
+        assertEquals(2, _eventCollector.size());
+        assertEquals(_handler1, _eventCollector.get(1).handler);
+    }
+    
+    @Test
+    public void testCollectedHandlersArePurged() throws InterruptedException {
+        for(int i = 0; i < 100; i++) {
+            _event.getEvent().subscribeWeak(new ISimpleEventHandler() {            
+                @Override
+                public void handleEvent(Object sender, EventArgs args) {
+                    _eventCollector.add(new CollectedEvent(this, sender, args));
+                }
+            });
+        }
+        _event.getEvent().subscribeWeak(_handler1);
+        
+        assertEquals(101, _event.snapshot().size);
+        
+        // GC, the cleared references are enqueued and purged when the snapshot is next read
+        for(int i = 0; i < 10 && _event.snapshot().size > 1; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        
+        assertEquals(1, _event.snapshot().size);
+        
+        _event.raise(this, new EventArgs());
+        
+        assertEquals(1, _eventCollector.size());
+        assertEquals(_handler1, _eventCollector.get(0).handler);
+    }
+    
+    @Test
+    public void testCloseSubscription() {
+        ISubscription subscription1 = _event.getEvent().subscribe(_handler1);
+        _event.getEvent().subscribe(_handler2);
+        
+        subscription1.close();
+        
+        _event.raise(this, new EventArgs());
+        
+        assertEquals(1, _eventCollector.size());
+        assertEquals(_handler2, _eventCollector.get(0).handler);
+        
+        // Should be a no-op
+        subscription1.close();
+    }
+    
+    @Test
+    public void testCloseOneOfSeveralSubscriptions() {
+        ISubscription subscription = _event.getEvent().subscribe(_handler1);
+        _event.getEvent().subscribeWeak(_handler1);
+        
+        _event.raise(this, new EventArgs());
+        
+        assertEquals(2, _eventCollector.size());
+        
+        subscription.close();
+        
+        _event.raise(this, new EventArgs());
+        
+        assertEquals(3, _eventCollector.size());
+        
+        _event.getEvent().subscribe(_handler1);
+        
+        // Unsubscribing removes every subscription of the handler
+        _event.getEvent().unsubscribe(_handler1);
+        
+        _event.raise(this, new EventArgs());
+        
+        assertEquals(3, _eventCollector.size());
+    }
+    
+    @Test
+    public void testSubscriptionChurn() {
+        ArrayList<ISubscription> subscriptions = new ArrayList<>();
+        
+        _event.getEvent().subscribe(_handler2);
+        
+        for(int i = 0; i < 10000; i++) {
+            ISimpleEventHandler handler = new ISimpleEventHandler() {            
+                @Override
+                public void handleEvent(Object sender, EventArgs args) {
+                    _eventCollector.add(new CollectedEvent(this, sender, args));
+                }
+            };
+            
+            subscriptions.add(_event.getEvent().subscribe(handler));
+            
+            if(i % 2 == 0)
+                _event.getEvent().unsubscribe(handler);
+            else
+                subscriptions.get(i).close();
+        }
+        
+        _event.raise(this, new EventArgs());
+        
+        assertEquals(1, _eventCollector.size());
+        assertEquals(_handler2, _eventCollector.get(0).handler);
+        
+        // Removed subscriptions are compacted away rather than piling up
+        assertTrue(_event.snapshot().size < 100);
+    }
+    
+    @Test
+    public void testRaiseAll() {
+        final ArrayList<List<EventArgs>> batches = new ArrayList<>();
+        
+        IBatchEventHandler<EventArgs> batchHandler = new IBatchEventHandler<EventArgs>() {
+            @Override
+            public void handleEvent(Object sender, EventArgs args) {
+                fail("batch handler should receive the whole batch");
+            }
+            
+            @Override
+            public void handleEvents(Object sender, List<EventArgs> args) {
+                batches.add(new ArrayList<>(args));
+            }
+        };
+        
+        _event.addHandler(batchHandler);
+        _event.addHandler(_handler1);
+        
+        EventArgs first = new EventArgs();
+        EventArgs second = new EventArgs();
+        
+        _event.raiseAll(this, Arrays.asList(first, second));
+        
+        assertEquals(1, batches.size());
+        assertEquals(Arrays.asList(first, second), batches.get(0));
+        
+        assertEquals(2, _eventCollector.size());
+        assertSame(first, _eventCollector.get(0).args);
+        assertSame(second, _eventCollector.get(1).args);
+        assertEquals(_handler1, _eventCollector.get(1).handler);
+        
+        _event.raiseAll(this, new ArrayList<EventArgs>());
+        
+        assertEquals(1, batches.size());
+        assertEquals(2, _eventCollector.size());
+    }
+    
+    @Test(expected = UnsupportedOperationException.class)
+    public void testRaiseAllBatchIsUnmodifiable() {
+        _event.addHandler(new IBatchEventHandler<EventArgs>() {
+            @Override
+            public void handleEvent(Object sender, EventArgs args) {
+            }
+            
+            @Override
+            public void handleEvents(Object sender, List<EventArgs> args) {
+                args.clear();
+            }
+        });
+        
+        _event.raiseAll(this, new ArrayList<>(Arrays.asList(new EventArgs())));
+    }
+    
+    @Test
+    public void testRaiseWithSupplier() {
+        final int[] built = new int[1];
+        
+        IEventArgsSupplier<EventArgs> supplier = new IEventArgsSupplier<EventArgs>() {
+            @Override
+            public EventArgs get() {
+                built[0]++;
+                return new EventArgs();
+            }
+        };
+        
+        assertFalse(_event.hasHandlers());
+        _event.raise(this, supplier);
+        
+        assertEquals(0, built[0]);
+        
+        ISubscription subscription = _event.getEvent().subscribe(_handler1);
+        
+        assertTrue(_event.hasHandlers());
+        _event.raise(this, supplier);
+        
+        assertEquals(1, built[0]);
+        assertEquals(1, _eventCollector.size());
+        
+        // A closed subscription is not a live handler
+        subscription.close();
+        
+        assertFalse(_event.hasHandlers());
+        _event.raise(this, supplier);
+        
+        assertEquals(1, built[0]);
+    }
 }
@@ -0,0 +1,221 @@
+package io.jaros.events;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import io.jaros.events.generic.IHandlerErrorSink;
+import io.jaros.events.util.CollectedEvent;
+
+public class IsolatingEventManagerUnitTests {
+
+    private List<CollectedEvent> _eventCollector;
+    private List<Throwable> _failures;
+    private List<Runnable> _quarantined;
+    private boolean _failing;
+    
+    private final IHandlerErrorSink _sink = new IHandlerErrorSink() {
+        @Override
+        public void handlerFailed(Object handler, Object sender, EventArgs args, Throwable failure) {
+            _failures.add(failure);
+        }
+    };
+    
+    private final Executor _executor = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            _quarantined.add(command);
+        }
+    };
+    
+    private final ISimpleEventHandler _good = new ISimpleEventHandler() {
+        @Override
+        public void handleEvent(Object sender, EventArgs args) {
+            _eventCollector.add(new CollectedEvent(this, sender, args));
+        }
+    };
+    
+    private final ISimpleEventHandler _bad = new ISimpleEventHandler() {
+        @Override
+        public void handleEvent(Object sender, EventArgs args) {
+            if(_failing)
+                throw new RuntimeException("cause an error");
+            
+            _eventCollector.add(new CollectedEvent(this, sender, args));
+        }
+    };
+    
+    @Before
+    public void setUp() {
+        _eventCollector = new ArrayList<>();
+        _failures = new ArrayList<>();
+        _quarantined = new ArrayList<>();
+        _failing = true;
+    }
+    
+    @Test
+    public void testExceptionDoesNotStopDelivery() {
+        IsolatingEventManager<EventArgs> event = new IsolatingEventManager<>(_sink);
+        event.getEvent().subscribe(_bad);
+        event.getEvent().subscribe(_good);
+        
+        event.raise(this, new EventArgs());
+        
+        assertEquals(1, _eventCollector.size());
+        assertEquals(_good, _eventCollector.get(0).handler);
+        assertEquals(1, _failures.size());
+        assertEquals("cause an error", _failures.get(0).getMessage());
+    }
+    
+    @Test
+    public void testCircuitBreaker() throws InterruptedException {
+        IsolatingEventManager<EventArgs> event = new IsolatingEventManager<>(_sink, Long.MAX_VALUE, 2, 50000000L, null, null);
+        event.getEvent().subscribe(_bad);
+        
+        event.raise(this, new EventArgs());
+        assertFalse(event.isQuarantined(_bad));
+        
+        event.raise(this, new EventArgs());
+        assertTrue(event.isQuarantined(_bad));
+        
+        // Suspended handlers are skipped
+        event.raise(this, new EventArgs());
+        assertEquals(2, _failures.size());
+        
+        Thread.sleep(100);
+        _failing = false;
+        
+        // The trial after the cooldown succeeds and restores the handler
+        event.raise(this, new EventArgs());
+        
+        assertFalse(event.isQuarantined(_bad));
+        assertEquals(1, _eventCollector.size());
+    }
+    
+    @Test
+    public void testFailedTrialQuarantinesAgain() throws InterruptedException {
+        IsolatingEventManager<EventArgs> event = new IsolatingEventManager<>(_sink, Long.MAX_VALUE, 1, 50000000L, null, null);
+        event.getEvent().subscribe(_bad);
+        
+        event.raise(this, new EventArgs());
+        assertTrue(event.isQuarantined(_bad));
+        
+        Thread.sleep(100);
+        assertFalse(event.isQuarantined(_bad));
+        
+        event.raise(this, new EventArgs());
+        assertTrue(event.isQuarantined(_bad));
+        assertEquals(2, _failures.size());
+    }
+    
+    @Test
+    public void testQuarantineLane() {
+        IsolatingEventManager<EventArgs> event = new IsolatingEventManager<>(_sink, Long.MAX_VALUE, 1, Long.MAX_VALUE / 2, _executor, null);
+        event.getEvent().subscribe(_bad);
+        event.getEvent().subscribe(_good);
+        
+        event.raise(this, new EventArgs());
+        assertTrue(event.isQuarantined(_bad));
+        
+        _failing = false;
+        event.raise(this, new EventArgs());
+        
+        // The quarantined handler is delivered to on the executor instead
+        assertEquals(2, _eventCollector.size());
+        assertEquals(1, _quarantined.size());
+        
+        _quarantined.get(0).run();
+        
+        assertEquals(3, _eventCollector.size());
+        assertEquals(_bad, _eventCollector.get(2).handler);
+    }
+    
+    @Test
+    public void testLatencyBudget() {
+        ISimpleEventHandler slow = new ISimpleEventHandler() {
+            @Override
+            public void handleEvent(Object sender, EventArgs args) {
+                try {
+                    Thread.sleep(5);
+                }
+                catch(InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        
+        IsolatingEventManager<EventArgs> event = new IsolatingEventManager<>(_sink, 1000000L, 3, Long.MAX_VALUE / 2, null, null);
+        event.getEvent().subscribe(slow);
+        event.getEvent().subscribe(_good);
+        
+        for(int i = 0; i < 3; i++)
+            event.raise(this, new EventArgs());
+        
+        assertTrue(event.isQuarantined(slow));
+        assertFalse(event.isQuarantined(_good));
+        assertEquals(0, _failures.size());
+    }
+    
+    @Test
+    public void testStrongSubscriberIsQuarantined() throws InterruptedException {
+        IsolatingEventManager<EventArgs> event = new IsolatingEventManager<>(_sink, Long.MAX_VALUE, 2, 50000000L, null, null);
+        event.getEvent().subscribeStrong(_bad);
+        event.getEvent().subscribe(_good);
+        
+        event.raise(this, new EventArgs());
+        assertFalse(event.isQuarantined(_bad));
+        
+        event.raise(this, new EventArgs());
+        assertTrue(event.isQuarantined(_bad));
+        assertFalse(event.isQuarantined(_good));
+        
+        // The quarantined strong subscriber is skipped, the others still receive the event
+        event.raise(this, new EventArgs());
+        assertEquals(2, _failures.size());
+        assertEquals(3, _eventCollector.size());
+        
+        Thread.sleep(100);
+        _failing = false;
+        
+        event.raise(this, new EventArgs());
+        
+        assertFalse(event.isQuarantined(_bad));
+        assertEquals(5, _eventCollector.size());
+        assertEquals(_bad, _eventCollector.get(3).handler);
+    }
+    
+    @Test
+    public void testStrikesFollowStrongSubscriptionsWhenCompacted() {
+        IsolatingEventManager<EventArgs> event = new IsolatingEventManager<>(_sink, Long.MAX_VALUE, 1, Long.MAX_VALUE / 2, null, null);
+        List<ISubscription> others = new ArrayList<>();
+        
+        for(int i = 0; i < 100; i++)
+            others.add(event.getEvent().subscribeStrong(new ISimpleEventHandler() {
+                @Override
+                public void handleEvent(Object sender, EventArgs args) {
+                }
+            }));
+        
+        ISubscription bad = event.getEvent().subscribeStrong(_bad);
+        event.raise(this, new EventArgs());
+        assertTrue(event.isQuarantined(_bad));
+        
+        // Closing most of the others compacts the strong array and moves the bad subscriber
+        for(ISubscription other: others)
+            other.close();
+        
+        event.raise(this, new EventArgs());
+        assertTrue(event.isQuarantined(_bad));
+        assertEquals(1, _failures.size());
+        
+        // A new subscription of the same handler starts with no strikes
+        bad.close();
+        event.getEvent().subscribeStrong(_bad);
+        assertFalse(event.isQuarantined(_bad));
+    }
+}
@@ -0,0 +1,137 @@
+package io.jaros.events;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import io.jaros.events.generic.IEventHandler;
+import io.jaros.events.generic.IKeyExtractor;
+import io.jaros.events.metrics.EventMetrics;
+import io.jaros.events.util.CollectedEvent;
+
+public class KeyedSubscriptionUnitTests {
+
+    private static class AccountEventArgs extends EventArgs {
+
+        final String account;
+
+        AccountEventArgs(String account) {
+            this.account = account;
+        }
+    }
+
+    private static final IKeyExtractor<AccountEventArgs> ACCOUNT = new IKeyExtractor<AccountEventArgs>() {
+        @Override
+        public Object getKey(Object sender, AccountEventArgs args) {
+            return args.account;
+        }
+    };
+
+    private EventMetrics _metrics;
+    private EventManager<AccountEventArgs> _event;
+    private ArrayList<CollectedEvent> _eventCollector;
+
+    private IEventHandler<AccountEventArgs> collecting() {
+        return new IEventHandler<AccountEventArgs>() {
+            @Override
+            public void handleEvent(Object sender, AccountEventArgs args) {
+                _eventCollector.add(new CollectedEvent(this, sender, args));
+            }
+        };
+    }
+
+    @Before
+    public void setUp() {
+        _metrics = new EventMetrics();
+        _event = new EventManager<>(ACCOUNT, _metrics);
+        _eventCollector = new ArrayList<>();
+    }
+
+    @Test
+    public void testRaiseVisitsOnlyMatchingKey() {
+        IEventHandler<AccountEventArgs> alice = collecting();
+        IEventHandler<AccountEventArgs> bob = collecting();
+        IEventHandler<AccountEventArgs> everyone = collecting();
+
+        _event.getEvent().subscribe("alice", alice);
+        _event.getEvent().subscribe("bob", bob);
+        _event.getEvent().subscribe(everyone);
+
+        _event.raise(this, new AccountEventArgs("alice"));
+
+        assertEquals(2, _eventCollector.size());
+        assertEquals(everyone, _eventCollector.get(0).handler);
+        assertEquals(alice, _eventCollector.get(1).handler);
+        assertEquals(2, _metrics.getFanOut().getMax());
+
+        _event.raise(this, new AccountEventArgs("carol"));
+
+        assertEquals(3, _eventCollector.size());
+        assertEquals(everyone, _eventCollector.get(2).handler);
+    }
+
+    @Test
+    public void testUnsubscribeKey() {
+        IEventHandler<AccountEventArgs> handler = collecting();
+
+        _event.getEvent().subscribe("alice", handler);
+        _event.getEvent().subscribe("bob", handler);
+        _event.getEvent().unsubscribe("alice", handler);
+
+        _event.raise(this, new AccountEventArgs("alice"));
+        _event.raise(this, new AccountEventArgs("bob"));
+
+        assertEquals(1, _eventCollector.size());
+        assertEquals("bob", ((AccountEventArgs)_eventCollector.get(0).args).account);
+
+        // Removing the handler removes it from every key
+        _event.getEvent().unsubscribe(handler);
+        _event.raise(this, new AccountEventArgs("bob"));
+
+        assertEquals(1, _eventCollector.size());
+    }
+
+    @Test
+    public void testCloseKeyedSubscription() {
+        IEventHandler<AccountEventArgs> handler = collecting();
+
+        ISubscription subscription = _event.getEvent().subscribe("alice", handler);
+        _event.raise(this, new AccountEventArgs("alice"));
+
+        subscription.close();
+        _event.raise(this, new AccountEventArgs("alice"));
+
+        assertEquals(1, _eventCollector.size());
+    }
+
+    @Test
+    public void testKeyChurn() {
+        IEventHandler<AccountEventArgs> handler = collecting();
+
+        for(int i = 0; i < 10000; i++)
+            _event.getEvent().subscribe("account" + i, handler).close();
+
+        _event.getEvent().subscribe("alice", handler);
+        _event.raise(this, new AccountEventArgs("alice"));
+
+        assertEquals(1, _eventCollector.size());
+    }
+
+    @Test
+    public void testClearHandlers() {
+        _event.getEvent().subscribe("alice", collecting());
+        _event.clearHandlers();
+
+        _event.raise(this, new AccountEventArgs("alice"));
+
+        assertEquals(0, _eventCollector.size());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testSubscribeKeyOnUnkeyedEvent() {
+        new EventManager<AccountEventArgs>().getEvent().subscribe("alice", collecting());
+    }
+}
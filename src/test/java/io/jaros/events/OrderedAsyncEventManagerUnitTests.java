@@ -0,0 +1,317 @@
+package io.jaros.events;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.jaros.events.generic.IEventHandler;
+import io.jaros.events.generic.IKeyExtractor;
+
+public class OrderedAsyncEventManagerUnitTests {
+
+    private static class AccountEventArgs extends EventArgs {
+
+        final int account;
+        final int sequence;
+
+        AccountEventArgs(int account, int sequence) {
+            this.account = account;
+            this.sequence = sequence;
+        }
+    }
+
+    private static final IKeyExtractor<AccountEventArgs> ACCOUNT = new IKeyExtractor<AccountEventArgs>() {
+        @Override
+        public Object getKey(Object sender, AccountEventArgs args) {
+            return args.account;
+        }
+    };
+
+    private ExecutorService _executor;
+    private OrderedAsyncEventManager<AccountEventArgs> _event;
+
+    @Before
+    public void setUp() {
+        _executor = Executors.newFixedThreadPool(4);
+        _event = new OrderedAsyncEventManager<>(ACCOUNT, _executor, 8);
+    }
+
+    @After
+    public void tearDown() {
+        _executor.shutdownNow();
+    }
+
+    private void awaitDrained(OrderedAsyncEventManager<?> event) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+
+        while(event.getPendingCount() > 0 && System.currentTimeMillis() < deadline)
+            Thread.sleep(5);
+
+        assertEquals(0, event.getPendingCount());
+    }
+
+    @Test
+    public void testEventsForEachKeyStayInOrder() throws InterruptedException {
+        final int accounts = 32;
+        final int perAccount = 2000;
+        final Map<Integer, List<Integer>> seen = new ConcurrentHashMap<>();
+
+        for(int i = 0; i < accounts; i++)
+            seen.put(i, Collections.synchronizedList(new ArrayList<Integer>()));
+
+        _event.getEvent().subscribe(new IEventHandler<AccountEventArgs>() {
+            @Override
+            public void handleEvent(Object sender, AccountEventArgs args) {
+                seen.get(args.account).add(args.sequence);
+            }
+        });
+
+        // Each raising thread owns half of the accounts, so each account's
+        // events are raised in sequence order
+        Thread[] raisers = new Thread[2];
+        for(int t = 0; t < raisers.length; t++) {
+            final int offset = t;
+            raisers[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for(int sequence = 0; sequence < perAccount; sequence++)
+                        for(int account = offset; account < accounts; account += 2)
+                            _event.raise(this, new AccountEventArgs(account, sequence));
+                }
+            });
+            raisers[t].start();
+        }
+
+        for(Thread raiser: raisers)
+            raiser.join();
+
+        awaitDrained(_event);
+
+        for(int account = 0; account < accounts; account++) {
+            List<Integer> sequences = seen.get(account);
+            assertEquals(perAccount, sequences.size());
+
+            for(int i = 0; i < perAccount; i++)
+                assertEquals(i, (int)sequences.get(i));
+        }
+    }
+
+    @Test
+    public void testLanesRunInParallel() throws InterruptedException {
+        final CountDownLatch both = new CountDownLatch(2);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        _event.getEvent().subscribe(new IEventHandler<AccountEventArgs>() {
+            @Override
+            public void handleEvent(Object sender, AccountEventArgs args) {
+                both.countDown();
+
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                }
+                catch(InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+
+        int first = 0;
+        int second = 1;
+        while(_event.laneOf(second) == _event.laneOf(first))
+            second++;
+
+        _event.raise(this, new AccountEventArgs(first, 0));
+        _event.raise(this, new AccountEventArgs(second, 0));
+        _event.raise(this, new AccountEventArgs(first, 1));
+
+        // Both lanes are in a handler at once
+        assertTrue(both.await(5, TimeUnit.SECONDS));
+        assertEquals(2, _event.getLaneDepth(_event.laneOf(first)));
+        assertEquals(1, _event.getLaneDepth(_event.laneOf(second)));
+        assertEquals(3, _event.getPendingCount());
+
+        release.countDown();
+        awaitDrained(_event);
+    }
+
+    @Test
+    public void testFailingHandlerDoesNotStopLane() throws InterruptedException {
+        final List<Integer> delivered = Collections.synchronizedList(new ArrayList<Integer>());
+        final List<Throwable> reported = Collections.synchronizedList(new ArrayList<Throwable>());
+
+        ExecutorService executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable task) {
+                Thread thread = new Thread(task);
+                thread.setUncaughtExceptionHandler(new Thread.UncaughtExceptionHandler() {
+                    @Override
+                    public void uncaughtException(Thread t, Throwable e) {
+                        reported.add(e);
+                    }
+                });
+                return thread;
+            }
+        });
+
+        try {
+            OrderedAsyncEventManager<AccountEventArgs> event = new OrderedAsyncEventManager<>(ACCOUNT, executor, 1);
+            event.getEvent().subscribe(new IEventHandler<AccountEventArgs>() {
+                @Override
+                public void handleEvent(Object sender, AccountEventArgs args) {
+                    if(args.sequence == 1)
+                        throw new IllegalStateException("handler failed");
+
+                    delivered.add(args.sequence);
+                }
+            });
+
+            for(int i = 0; i < 3; i++)
+                event.raise(this, new AccountEventArgs(7, i));
+
+            awaitDrained(event);
+
+            assertEquals(2, delivered.size());
+            assertEquals(0, (int)delivered.get(0));
+            assertEquals(2, (int)delivered.get(1));
+            assertEquals(1, reported.size());
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testHandlerErrorDoesNotStopLane() throws InterruptedException {
+        final List<Integer> delivered = Collections.synchronizedList(new ArrayList<Integer>());
+        final List<Throwable> reported = Collections.synchronizedList(new ArrayList<Throwable>());
+
+        ExecutorService executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable task) {
+                Thread thread = new Thread(task);
+                thread.setUncaughtExceptionHandler(new Thread.UncaughtExceptionHandler() {
+                    @Override
+                    public void uncaughtException(Thread t, Throwable e) {
+                        reported.add(e);
+                    }
+                });
+                return thread;
+            }
+        });
+
+        try {
+            OrderedAsyncEventManager<AccountEventArgs> event = new OrderedAsyncEventManager<>(ACCOUNT, executor, 1);
+            event.getEvent().subscribe(new IEventHandler<AccountEventArgs>() {
+                @Override
+                public void handleEvent(Object sender, AccountEventArgs args) {
+                    if(args.sequence == 1)
+                        throw new AssertionError("handler failed");
+
+                    delivered.add(args.sequence);
+                }
+            });
+
+            for(int i = 0; i < 3; i++)
+                event.raise(this, new AccountEventArgs(7, i));
+
+            awaitDrained(event);
+
+            // A later event starts the lane again
+            event.raise(this, new AccountEventArgs(7, 3));
+            awaitDrained(event);
+
+            assertEquals(3, delivered.size());
+            assertEquals(2, (int)delivered.get(1));
+            assertEquals(3, (int)delivered.get(2));
+            assertEquals(1, reported.size());
+            assertTrue(reported.get(0) instanceof AssertionError);
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testRejectedLaneIsDrainedByRaiser() {
+        final List<Integer> delivered = new ArrayList<>();
+
+        OrderedAsyncEventManager<AccountEventArgs> event = new OrderedAsyncEventManager<>(ACCOUNT, new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                throw new RejectedExecutionException();
+            }
+        }, 4);
+
+        event.getEvent().subscribe(new IEventHandler<AccountEventArgs>() {
+            @Override
+            public void handleEvent(Object sender, AccountEventArgs args) {
+                delivered.add(args.sequence);
+            }
+        });
+
+        event.raise(this, new AccountEventArgs(1, 0));
+        event.raise(this, new AccountEventArgs(1, 1));
+
+        assertEquals(2, delivered.size());
+        assertEquals(0, event.getPendingCount());
+    }
+
+    @Test
+    public void testKeyedSubscriptionsUseTheSameKeys() throws InterruptedException {
+        final List<Integer> delivered = Collections.synchronizedList(new ArrayList<Integer>());
+        OrderedAsyncEventManager<AccountEventArgs> event = new OrderedAsyncEventManager<>(ACCOUNT, _executor, 4, true, null);
+
+        event.getEvent().subscribe(3, new IEventHandler<AccountEventArgs>() {
+            @Override
+            public void handleEvent(Object sender, AccountEventArgs args) {
+                delivered.add(args.account);
+            }
+        });
+
+        for(int account = 0; account < 6; account++)
+            event.raise(this, new AccountEventArgs(account, 0));
+
+        awaitDrained(event);
+
+        assertEquals(1, delivered.size());
+        assertEquals(3, (int)delivered.get(0));
+    }
+
+    @Test
+    public void testOrdersBySenderWithoutExtractor() throws InterruptedException {
+        final List<Object> senders = Collections.synchronizedList(new ArrayList<>());
+        OrderedAsyncEventManager<AccountEventArgs> event = new OrderedAsyncEventManager<>(null, _executor, 4);
+
+        event.getEvent().subscribe(new IEventHandler<AccountEventArgs>() {
+            @Override
+            public void handleEvent(Object sender, AccountEventArgs args) {
+                senders.add(sender);
+            }
+        });
+
+        Object sender = new Object();
+        assertEquals(event.laneOf(sender), event.laneOf(sender));
+
+        event.raise(sender, new AccountEventArgs(0, 0));
+        event.raise(null, new AccountEventArgs(0, 1));
+        awaitDrained(event);
+
+        assertEquals(2, senders.size());
+        assertTrue(senders.contains(sender));
+    }
+}
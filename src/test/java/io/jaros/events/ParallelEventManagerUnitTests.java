@@ -0,0 +1,153 @@
+package io.jaros.events;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ParallelEventManagerUnitTests {
+
+    private ForkJoinPool _pool;
+    private AtomicInteger _count;
+    private Set<Thread> _threads;
+    private List<ISimpleEventHandler> _handlers;
+
+    @Before
+    public void setUp() {
+        _pool = new ForkJoinPool(4);
+        _count = new AtomicInteger();
+        _threads = Collections.newSetFromMap(new ConcurrentHashMap<Thread, Boolean>());
+        _handlers = new ArrayList<>();
+    }
+
+    @After
+    public void tearDown() {
+        _pool.shutdownNow();
+    }
+
+    private void subscribe(ParallelEventManager<EventArgs> event, int count) {
+        for(int i = 0; i < count; i++) {
+            ISimpleEventHandler handler = new ISimpleEventHandler() {
+                @Override
+                public void handleEvent(Object sender, EventArgs args) {
+                    _threads.add(Thread.currentThread());
+                    _count.incrementAndGet();
+                }
+            };
+
+            // Keep the handlers reachable for the length of the test
+            _handlers.add(handler);
+            event.getEvent().subscribe(handler);
+        }
+    }
+
+    private ISimpleEventHandler failing(final String message) {
+        ISimpleEventHandler handler = new ISimpleEventHandler() {
+            @Override
+            public void handleEvent(Object sender, EventArgs args) {
+                throw new RuntimeException(message);
+            }
+        };
+
+        _handlers.add(handler);
+        return handler;
+    }
+
+    @Test
+    public void testSerialBelowThreshold() {
+        ParallelEventManager<EventArgs> event = new ParallelEventManager<>(_pool, 100, 10, true, null);
+        subscribe(event, 50);
+
+        event.raise(this, new EventArgs());
+
+        assertEquals(50, _count.get());
+        assertEquals(Collections.singleton(Thread.currentThread()), _threads);
+    }
+
+    @Test
+    public void testParallelAboveThreshold() {
+        ParallelEventManager<EventArgs> event = new ParallelEventManager<>(_pool, 100, 10, true, null);
+        subscribe(event, 1000);
+
+        event.raise(this, new EventArgs());
+
+        assertEquals(1000, _count.get());
+        assertFalse(_threads.contains(Thread.currentThread()));
+    }
+
+    @Test
+    public void testFailuresAreAggregated() {
+        ParallelEventManager<EventArgs> event = new ParallelEventManager<>(_pool, 10, 4, true, null);
+        event.getEvent().subscribe(failing("first"));
+        subscribe(event, 100);
+        event.getEvent().subscribe(failing("second"));
+
+        try {
+            event.raise(this, new EventArgs());
+            fail("expected the handler failure to be thrown");
+        }
+        catch(RuntimeException ex) {
+            assertEquals(1, ex.getSuppressed().length);
+        }
+
+        // A failure does not stop delivery to the other handlers
+        assertEquals(100, _count.get());
+    }
+
+    @Test
+    public void testRaiseParallel() throws Exception {
+        ParallelEventManager<EventArgs> event = new ParallelEventManager<>(_pool, 10, 4, false, null);
+        subscribe(event, 100);
+        event.getEvent().subscribe(failing("failed"));
+
+        RaiseFuture future = event.raiseParallel(this, new EventArgs());
+
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            fail("expected the handler failure to be reported");
+        }
+        catch(ExecutionException ex) {
+            assertEquals("failed", ex.getCause().getMessage());
+        }
+
+        assertTrue(future.isFailed());
+        assertEquals(100, _count.get());
+    }
+
+    @Test
+    public void testRaiseWithoutJoin() throws Exception {
+        final List<Throwable> reported = Collections.synchronizedList(new ArrayList<Throwable>());
+        final CountDownLatch latch = new CountDownLatch(1);
+        _pool.shutdownNow();
+        _pool = new ForkJoinPool(4, ForkJoinPool.defaultForkJoinWorkerThreadFactory, new Thread.UncaughtExceptionHandler() {
+            @Override
+            public void uncaughtException(Thread t, Throwable e) {
+                reported.add(e);
+                latch.countDown();
+            }
+        }, false);
+
+        ParallelEventManager<EventArgs> event = new ParallelEventManager<>(_pool, 10, 4, false, null);
+        subscribe(event, 100);
+        event.getEvent().subscribe(failing("failed"));
+
+        event.raise(this, new EventArgs());
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(100, _count.get());
+        assertEquals(1, reported.size());
+        assertEquals("failed", reported.get(0).getMessage());
+    }
+}
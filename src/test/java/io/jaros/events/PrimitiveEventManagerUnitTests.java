@@ -0,0 +1,117 @@
+package io.jaros.events;
+
+import static org.junit.Assert.*;
+
+import java.lang.ref.WeakReference;
+
+import org.junit.Test;
+
+import io.jaros.events.generic.IDoubleEventHandler;
+import io.jaros.events.generic.IIntEventHandler;
+import io.jaros.events.generic.ILongEventHandler;
+
+public class PrimitiveEventManagerUnitTests {
+
+    private Object _lastSender;
+    private int _intValue;
+    private long _longValue;
+    private double _doubleValue;
+    private int _count;
+    
+    private final IIntEventHandler _intHandler = new IIntEventHandler() {
+        @Override
+        public void handleEvent(Object sender, int value) {
+            _lastSender = sender;
+            _intValue = value;
+            _count++;
+        }
+    };
+    
+    @Test
+    public void testIntSubscribeAndUnsubscribe() {
+        IntEventManager event = new IntEventManager();
+        
+        event.raise(this, 1);
+        assertEquals(0, _count);
+        
+        event.getEvent().subscribe(_intHandler);
+        event.raise(this, 42);
+        
+        assertEquals(1, _count);
+        assertEquals(42, _intValue);
+        assertEquals(this, _lastSender);
+        
+        event.getEvent().unsubscribe(_intHandler);
+        event.raise(this, 43);
+        
+        assertEquals(1, _count);
+        assertEquals(42, _intValue);
+    }
+    
+    @Test
+    public void testIntClearHandlers() {
+        IntEventManager event = new IntEventManager();
+        
+        event.addHandler(_intHandler);
+        event.clearHandlers();
+        event.raise(this, 42);
+        
+        assertEquals(0, _count);
+    }
+    
+    @Test
+    public void testLongAndDouble() {
+        LongEventManager longEvent = new LongEventManager();
+        DoubleEventManager doubleEvent = new DoubleEventManager();
+        
+        longEvent.getEvent().subscribe(new ILongEventHandler() {
+            @Override
+            public void handleEvent(Object sender, long value) {
+                _longValue = value;
+            }
+        });
+        doubleEvent.getEvent().subscribe(new IDoubleEventHandler() {
+            @Override
+            public void handleEvent(Object sender, double value) {
+                _doubleValue = value;
+            }
+        });
+        
+        longEvent.raise(this, Long.MAX_VALUE);
+        doubleEvent.raise(this, 0.5);
+        
+        assertEquals(Long.MAX_VALUE, _longValue);
+        assertEquals(0.5, _doubleValue, 0);
+    }
+    
+    @Test
+    public void testSubscribeWeak() throws InterruptedException {
+        IntEventManager event = new IntEventManager();
+        
+        IIntEventHandler handler = new IIntEventHandler() {
+            @Override
+            public void handleEvent(Object sender, int value) {
+                _count++;
+            }
+        };
+        
+        WeakReference<IIntEventHandler> wr = new WeakReference<>(handler);
+        
+        event.getEvent().subscribeWeak(handler);
+        event.raise(this, 1);
+        
+        assertEquals(1, _count);
+        
+        handler = null;
+        
+        // GC, clear out the weak reference
+        for(int i = 0; i < 5 && wr.get() != null; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        
+        event.raise(this, 2);
+        
+        assertEquals(1, _count);
+    }
+}
@@ -0,0 +1,218 @@
+package io.jaros.events;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import io.jaros.events.generic.IEventHandler;
+import io.jaros.events.generic.IKeyExtractor;
+import io.jaros.events.util.CollectedEvent;
+
+public class StrongSubscriptionUnitTests {
+
+    private EventManager<EventArgs> _event;
+    private List<CollectedEvent> _eventCollector;
+
+    private IEventHandler<EventArgs> collecting() {
+        return new IEventHandler<EventArgs>() {
+            @Override
+            public void handleEvent(Object sender, EventArgs args) {
+                _eventCollector.add(new CollectedEvent(this, sender, args));
+            }
+        };
+    }
+
+    @Before
+    public void setUp() {
+        _event = new EventManager<>();
+        _eventCollector = new ArrayList<>();
+    }
+
+    @Test
+    public void testStrongHandlerIsNotCollected() throws InterruptedException {
+        _event.getEvent().subscribeStrong(collecting());
+
+        for(int i = 0; i < 5; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+
+        _event.raise(this, new EventArgs());
+
+        assertEquals(1, _eventCollector.size());
+        assertTrue(_event.hasHandlers());
+    }
+
+    @Test
+    public void testStrongHandlersAreCalledBeforeOthers() {
+        IEventHandler<EventArgs> soft = collecting();
+        IEventHandler<EventArgs> strong = collecting();
+
+        _event.getEvent().subscribe(soft);
+        _event.getEvent().subscribeStrong(strong);
+        _event.raise(this, new EventArgs());
+
+        assertEquals(2, _eventCollector.size());
+        assertEquals(strong, _eventCollector.get(0).handler);
+        assertEquals(soft, _eventCollector.get(1).handler);
+    }
+
+    @Test
+    public void testCloseRemovesOneSubscription() {
+        IEventHandler<EventArgs> handler = collecting();
+
+        ISubscription first = _event.getEvent().subscribeStrong(handler);
+        _event.getEvent().subscribeStrong(handler);
+
+        first.close();
+        first.close();
+        _event.raise(this, new EventArgs());
+
+        assertEquals(1, _eventCollector.size());
+    }
+
+    @Test
+    public void testRemoveHandlerRemovesEveryMode() {
+        IEventHandler<EventArgs> handler = collecting();
+
+        _event.getEvent().subscribeStrong(handler);
+        _event.getEvent().subscribeStrong(handler);
+        _event.getEvent().subscribeWeak(handler);
+
+        _event.getEvent().unsubscribe(handler);
+        _event.raise(this, new EventArgs());
+
+        assertEquals(0, _eventCollector.size());
+        assertFalse(_event.hasHandlers());
+    }
+
+    @Test
+    public void testStaleSubscriptionDoesNotRemoveNewOne() {
+        IEventHandler<EventArgs> handler = collecting();
+
+        ISubscription stale = _event.getEvent().subscribeStrong(handler);
+        _event.getEvent().unsubscribe(handler);
+        _event.getEvent().subscribeStrong(handler);
+
+        stale.close();
+        _event.raise(this, new EventArgs());
+
+        assertEquals(1, _eventCollector.size());
+    }
+
+    @Test
+    public void testManyClosesCompactTheList() {
+        List<IEventHandler<EventArgs>> handlers = new ArrayList<>();
+        List<ISubscription> subscriptions = new ArrayList<>();
+
+        for(int i = 0; i < 1000; i++) {
+            IEventHandler<EventArgs> handler = collecting();
+            handlers.add(handler);
+            subscriptions.add(_event.getEvent().subscribeStrong(handler));
+        }
+
+        for(int i = 0; i < 1000; i += 3)
+            subscriptions.get(i).close();
+
+        // Removal still finds handlers once their positions have moved
+        _event.getEvent().unsubscribe(handlers.get(1));
+        _event.raise(this, new EventArgs());
+
+        List<Object> called = new ArrayList<>();
+        for(CollectedEvent event: _eventCollector)
+            called.add(event.handler);
+
+        assertEquals(1000 - 334 - 1, called.size());
+        assertFalse(called.contains(handlers.get(0)));
+        assertFalse(called.contains(handlers.get(1)));
+        assertTrue(called.contains(handlers.get(2)));
+
+        // The order of subscription is kept
+        assertEquals(handlers.get(2), called.get(0));
+        assertEquals(handlers.get(998), called.get(called.size() - 1));
+
+        for(ISubscription subscription: subscriptions)
+            subscription.close();
+
+        assertFalse(_event.hasHandlers());
+        assertEquals(0, _event.getFootprint().getSubscriptionCount());
+    }
+
+    @Test
+    public void testKeyedStrongSubscription() {
+        EventManager<EventArgs> keyed = new EventManager<>(new IKeyExtractor<EventArgs>() {
+            @Override
+            public Object getKey(Object sender, EventArgs args) {
+                return sender;
+            }
+        }, null);
+
+        keyed.getEvent().subscribeStrong("alice", collecting());
+        keyed.raise("bob", new EventArgs());
+        keyed.raise("alice", new EventArgs());
+
+        assertEquals(1, _eventCollector.size());
+        assertEquals("alice", _eventCollector.get(0).sender);
+        assertEquals(1, keyed.getFootprint().getStrongCount());
+    }
+
+    @Test
+    public void testFootprint() {
+        EventManager<EventArgs> weak = new EventManager<>();
+        List<IEventHandler<EventArgs>> handlers = new ArrayList<>();
+
+        for(int i = 0; i < 10000; i++) {
+            IEventHandler<EventArgs> handler = collecting();
+            handlers.add(handler);
+            _event.getEvent().subscribeStrong(handler);
+            weak.getEvent().subscribeWeak(handler);
+        }
+
+        SubscriptionFootprint strong = _event.getFootprint();
+        SubscriptionFootprint weakFootprint = weak.getFootprint();
+
+        assertEquals(10000, strong.getStrongCount());
+        assertEquals(10000, weakFootprint.getWeakCount());
+        assertEquals(0, weakFootprint.getStrongCount());
+        assertTrue(strong.toString(), strong.getBytesPerSubscription() < 48);
+        assertTrue(weakFootprint.toString(), weakFootprint.getBytesPerSubscription() > strong.getBytesPerSubscription());
+    }
+
+    @Test
+    public void testAsyncAndParallelDeliverToStrongHandlers() throws Exception {
+        ForkJoinPool pool = new ForkJoinPool(2);
+
+        try {
+            AsyncEventManager<EventArgs> async = new AsyncEventManager<>(pool);
+            ParallelEventManager<EventArgs> parallel = new ParallelEventManager<>(pool, 2, 1, true, null);
+            final List<CollectedEvent> collected = Collections.synchronizedList(_eventCollector);
+
+            IEventHandler<EventArgs> handler = new IEventHandler<EventArgs>() {
+                @Override
+                public void handleEvent(Object sender, EventArgs args) {
+                    collected.add(new CollectedEvent(this, sender, args));
+                }
+            };
+
+            async.addStrongHandler(handler);
+            async.addHandler(handler);
+            async.raiseAsync(this, new EventArgs()).get();
+            assertEquals(2, collected.size());
+
+            parallel.addStrongHandler(handler);
+            parallel.addStrongHandler(handler);
+            parallel.addHandler(handler);
+            parallel.raise(this, new EventArgs());
+            assertEquals(5, collected.size());
+        }
+        finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package io.jaros.events.annotation;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.lang.ref.WeakReference;
+import java.net.URI;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import io.jaros.events.EventArgs;
+import io.jaros.events.EventBus;
+import io.jaros.events.ISubscription;
+import io.jaros.events.generic.EventArg;
+import io.jaros.events.processor.SubscribeProcessor;
+
+public class SubscribeUnitTests {
+
+    static class Listener {
+
+        final List<Object> received = new ArrayList<>();
+
+        @Subscribe
+        void onAny(Object sender, EventArgs args) {
+            received.add(args);
+        }
+
+        @Subscribe
+        public void onNamed(Object sender, EventArg<String> args) {
+            received.add(args.getValue());
+        }
+    }
+
+    static class ChildListener extends Listener {
+
+        final List<Object> senders = new ArrayList<>();
+
+        @Subscribe
+        protected void onSender(Object sender, EventArgs args) {
+            senders.add(sender);
+        }
+    }
+
+    private EventBus _bus;
+
+    @Before
+    public void setUp() {
+        _bus = new EventBus();
+    }
+
+    @Test
+    public void testRegisterSubscribesAnnotatedMethods() {
+        Listener listener = new Listener();
+        _bus.register(listener);
+
+        EventArgs plain = new EventArgs();
+        _bus.publish(this, plain);
+        _bus.publish(this, new EventArg<>("zap"));
+
+        // The EventArg reaches both methods, most specific type first
+        assertEquals(3, listener.received.size());
+        assertSame(plain, listener.received.get(0));
+        assertEquals("zap", listener.received.get(1));
+        assertTrue(listener.received.get(2) instanceof EventArg);
+    }
+
+    @Test
+    public void testCloseRemovesEveryMethod() {
+        Listener listener = new Listener();
+        ISubscription subscription = _bus.register(listener);
+
+        subscription.close();
+        _bus.publish(this, new EventArg<>("zap"));
+
+        assertEquals(0, listener.received.size());
+    }
+
+    @Test
+    public void testRegistrationIsHeldUntilClosed() throws InterruptedException {
+        Listener listener = new Listener();
+        WeakReference<Listener> reference = new WeakReference<>(listener);
+
+        // The subscription is discarded, as in the usual bus.register(this)
+        _bus.register(listener);
+
+        for(int i = 0; i < 5; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+
+        _bus.publish(this, new EventArg<>("zap"));
+        assertEquals(2, listener.received.size());
+
+        _bus.clear();
+        listener = null;
+
+        for(int i = 0; i < 5 && reference.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+
+        // Clearing the bus lets go of the subscriber
+        assertNull(reference.get());
+    }
+
+    @Test
+    public void testSuperclassMethodsAreRegistered() {
+        ChildListener listener = new ChildListener();
+        ISubscription subscription = _bus.register(listener);
+
+        _bus.publish("sender", new EventArgs());
+
+        assertEquals(1, listener.received.size());
+        assertEquals(1, listener.senders.size());
+        assertEquals("sender", listener.senders.get(0));
+
+        subscription.close();
+        _bus.publish("sender", new EventArgs());
+
+        assertEquals(1, listener.received.size());
+        assertEquals(1, listener.senders.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRegisterWithoutDispatcher() {
+        _bus.register(new Object());
+    }
+
+    @Test
+    public void testGeneratedDispatcherIsNamedAfterClass() throws ClassNotFoundException {
+        Class<?> dispatcher = Class.forName(Listener.class.getName() + Dispatchers.SUFFIX);
+
+        assertTrue(IDispatcher.class.isAssignableFrom(dispatcher));
+    }
+
+    @Test
+    public void testInvalidMethodsAreCompileErrors() throws Exception {
+        List<String> errors = compile("package test;\n"
+                + "public class Bad {\n"
+                + "    @io.jaros.events.annotation.Subscribe\n"
+                + "    private void hidden(Object sender, io.jaros.events.EventArgs args) { }\n"
+                + "    @io.jaros.events.annotation.Subscribe\n"
+                + "    void wrongArgs(String sender, io.jaros.events.EventArgs args) { }\n"
+                + "    @io.jaros.events.annotation.Subscribe\n"
+                + "    void throwing(Object sender, io.jaros.events.EventArgs args) throws Exception { }\n"
+                + "}\n");
+
+        assertEquals(errors.toString(), 3, errors.size());
+        assertTrue(errors.get(0).contains("private"));
+        assertTrue(errors.get(1).contains("(Object sender, T args)"));
+        assertTrue(errors.get(2).contains("checked exceptions"));
+    }
+
+    private static List<String> compile(final String source) throws Exception {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        File output = Files.createTempDirectory("subscribe").toFile();
+
+        JavaFileObject file = new SimpleJavaFileObject(URI.create("string:///test/Bad.java"), JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return source;
+            }
+        };
+
+        JavaCompiler.CompilationTask task = compiler.getTask(null, null, diagnostics,
+                Arrays.asList("-classpath", System.getProperty("java.class.path"), "-d", output.getPath(), "-proc:only"),
+                null, Arrays.asList(file));
+        task.setProcessors(Arrays.asList(new SubscribeProcessor()));
+        task.call();
+
+        List<String> errors = new ArrayList<>();
+        for(Diagnostic<? extends JavaFileObject> diagnostic: diagnostics.getDiagnostics()) {
+            if(diagnostic.getKind() == Diagnostic.Kind.ERROR)
+                errors.add(diagnostic.getMessage(null));
+        }
+
+        return errors;
+    }
+}
@@ -0,0 +1,121 @@
+package io.jaros.events.bridge;
+
+import static org.junit.Assert.*;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.jaros.events.EventManager;
+import io.jaros.events.generic.EventArg;
+import io.jaros.events.generic.IEventPredicate;
+import io.jaros.events.journal.IEventCodec;
+import io.jaros.events.util.EventCollector;
+
+public class EventBridgeUnitTests {
+
+    private static final IEventCodec<EventArg<Integer>> CODEC = new IEventCodec<EventArg<Integer>>() {
+        @Override
+        public long senderId(Object sender) {
+            return 42;
+        }
+        
+        @Override
+        public void encode(EventArg<Integer> args, ByteBuffer target) {
+            target.putInt(args.getValue());
+        }
+        
+        @Override
+        public EventArg<Integer> decode(ByteBuffer source) {
+            return new EventArg<>(source.getInt());
+        }
+    };
+    
+    private EventManager<EventArg<Integer>> _local;
+    private EventManager<EventArg<Integer>> _mirror;
+    private EventCollector<EventArg<Integer>> _collector;
+    private EventBridgeReceiver<EventArg<Integer>> _receiver;
+    private EventBridgeSender<EventArg<Integer>> _sender;
+    
+    @Before
+    public void setUp() throws Exception {
+        _local = new EventManager<>();
+        _mirror = new EventManager<>();
+        _collector = new EventCollector<>();
+        _mirror.addHandler(_collector.handler());
+        
+        _receiver = new EventBridgeReceiver<>(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), CODEC, _mirror, 4096);
+        _receiver.start();
+    }
+    
+    @After
+    public void tearDown() throws Exception {
+        if(_sender != null)
+            _sender.close();
+        
+        _receiver.close();
+    }
+    
+    @Test
+    public void testEventsAreMirrored() throws Exception {
+        _sender = new EventBridgeSender<>(_receiver.getLocalAddress(), CODEC, 100000, 256);
+        _sender.start();
+        _local.addHandler(_sender);
+        
+        for(int i = 0; i < 10000; i++)
+            _local.raise(this, new EventArg<>(i));
+        
+        _collector.waitForNthEvent(10000, 10000);
+        
+        assertEquals(0, _sender.getDroppedCount());
+        assertEquals(Long.valueOf(42), _collector.get(0).sender);
+        
+        // Frames are coalesced but events keep their order
+        for(int i = 0; i < 10000; i++)
+            assertEquals(Integer.valueOf(i), _collector.get(i).args.getValue());
+    }
+    
+    @Test
+    public void testFullQueueDropsInsteadOfBlocking() throws Exception {
+        // Not started, so nothing is sent and the queue fills up
+        _sender = new EventBridgeSender<>(_receiver.getLocalAddress(), CODEC, 10, 256);
+        _local.addHandler(_sender);
+        
+        for(int i = 0; i < 15; i++)
+            _local.raise(this, new EventArg<>(i));
+        
+        assertEquals(10, _sender.getQueuedCount());
+        assertEquals(5, _sender.getDroppedCount());
+        
+        _sender.start();
+        _collector.waitForNthEvent(10, 10000);
+        
+        assertEquals(Integer.valueOf(9), _collector.last().args.getValue());
+    }
+    
+    @Test
+    public void testReconnectsWhenReceiverStartsLate() throws Exception {
+        InetSocketAddress address = _receiver.getLocalAddress();
+        _receiver.close();
+        
+        _sender = new EventBridgeSender<>(address, CODEC, 100, 256);
+        _sender.start();
+        _local.addHandler(_sender);
+        _local.raise(this, new EventArg<>(1));
+        
+        _receiver = new EventBridgeReceiver<>(address, CODEC, _mirror, 4096);
+        _receiver.start();
+        
+        assertEquals(Integer.valueOf(1), _collector.await(new IEventPredicate<EventArg<Integer>>() {
+            @Override
+            public boolean test(Object sender, EventArg<Integer> args) {
+                return true;
+            }
+        }, 10, TimeUnit.SECONDS).args.getValue());
+    }
+}
@@ -0,0 +1,149 @@
+package io.jaros.events.journal;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.jaros.events.generic.EventArg;
+import io.jaros.events.generic.IEventHandler;
+
+public class JournalingEventManagerUnitTests {
+
+    private static final IEventCodec<EventArg<Integer>> CODEC = new IEventCodec<EventArg<Integer>>() {
+        @Override
+        public long senderId(Object sender) {
+            return sender instanceof Long ? (Long)sender : 7;
+        }
+        
+        @Override
+        public void encode(EventArg<Integer> args, ByteBuffer target) {
+            target.putInt(args.getValue());
+        }
+        
+        @Override
+        public EventArg<Integer> decode(ByteBuffer source) {
+            return new EventArg<>(source.getInt());
+        }
+    };
+    
+    private File _directory;
+    private ArrayList<Integer> _values;
+    private ArrayList<Object> _senders;
+    
+    private final IEventHandler<EventArg<Integer>> _handler = new IEventHandler<EventArg<Integer>>() {
+        @Override
+        public void handleEvent(Object sender, EventArg<Integer> args) {
+            _senders.add(sender);
+            _values.add(args.getValue());
+        }
+    };
+    
+    @Before
+    public void setUp() throws IOException {
+        _directory = File.createTempFile("journal", "");
+        _directory.delete();
+        _values = new ArrayList<>();
+        _senders = new ArrayList<>();
+    }
+    
+    @After
+    public void tearDown() {
+        File[] files = _directory.listFiles();
+        
+        if(files != null) {
+            for(File file: files)
+                file.delete();
+        }
+        
+        _directory.delete();
+    }
+    
+    @Test
+    public void testRaiseAndReplay() throws IOException {
+        EventJournal<EventArg<Integer>> journal = new EventJournal<>(_directory, 4096, 4, CODEC);
+        JournalingEventManager<EventArg<Integer>> event = new JournalingEventManager<>(journal);
+        
+        event.raise(this, new EventArg<>(1));
+        event.raise(this, new EventArg<>(2));
+        
+        long end = event.replay(0, _handler);
+        
+        assertEquals(Arrays.asList(1, 2), _values);
+        assertEquals(Arrays.<Object>asList(7L, 7L), _senders);
+        assertEquals(journal.getEndOffset(), end);
+        
+        event.raise(this, new EventArg<>(3));
+        event.replay(end, _handler);
+        
+        assertEquals(Arrays.asList(1, 2, 3), _values);
+        journal.close();
+    }
+    
+    @Test
+    public void testRollingAndRetention() throws IOException {
+        // Each record is 16 bytes, so a segment holds three events
+        EventJournal<EventArg<Integer>> journal = new EventJournal<>(_directory, 64, 2, CODEC);
+        
+        for(int i = 0; i < 10; i++)
+            journal.append(this, new EventArg<>(i));
+        
+        assertEquals(2, _directory.list().length);
+        assertEquals(96, journal.getStartOffset());
+        
+        journal.replay(0, _handler);
+        
+        assertEquals(Arrays.asList(6, 7, 8, 9), _values);
+        journal.close();
+    }
+    
+    @Test
+    public void testReopen() throws IOException {
+        EventJournal<EventArg<Integer>> journal = new EventJournal<>(_directory, 64, 4, CODEC);
+        
+        for(int i = 0; i < 5; i++)
+            journal.append(this, new EventArg<>(i));
+        
+        long end = journal.getEndOffset();
+        journal.close();
+        
+        journal = new EventJournal<>(_directory, 64, 4, CODEC);
+        
+        assertEquals(end, journal.getEndOffset());
+        
+        journal.append(this, new EventArg<>(5));
+        journal.replay(0, _handler);
+        
+        assertEquals(Arrays.asList(0, 1, 2, 3, 4, 5), _values);
+        journal.close();
+    }
+    
+    @Test(expected = IllegalStateException.class)
+    public void testEventLargerThanSegment() throws IOException {
+        EventJournal<EventArg<Integer>> journal = new EventJournal<>(_directory, 64, 4, new IEventCodec<EventArg<Integer>>() {
+            @Override
+            public long senderId(Object sender) {
+                return 0;
+            }
+            
+            @Override
+            public void encode(EventArg<Integer> args, ByteBuffer target) {
+                target.put(new byte[100]);
+            }
+            
+            @Override
+            public EventArg<Integer> decode(ByteBuffer source) {
+                return null;
+            }
+        });
+        
+        journal.append(this, new EventArg<>(1));
+    }
+}
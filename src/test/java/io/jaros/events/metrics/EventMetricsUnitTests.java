@@ -0,0 +1,136 @@
+package io.jaros.events.metrics;
+
+import static org.junit.Assert.*;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Map;
+
+import javax.management.ObjectName;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import io.jaros.events.EventArgs;
+import io.jaros.events.EventManager;
+import io.jaros.events.ISimpleEventHandler;
+
+public class EventMetricsUnitTests {
+
+    private EventMetrics _metrics;
+    private EventManager<EventArgs> _event;
+    
+    private final ISimpleEventHandler _handler = new ISimpleEventHandler() {
+        @Override
+        public void handleEvent(Object sender, EventArgs args) {
+        }
+    };
+    
+    @Before
+    public void setUp() {
+        _metrics = new EventMetrics();
+        _event = new EventManager<>(_metrics);
+    }
+    
+    @Test
+    public void testRaiseAndFanOut() {
+        _event.raise(this, new EventArgs());
+        
+        _event.getEvent().subscribe(_handler);
+        _event.getEvent().subscribe(new SlowHandler());
+        _event.raise(this, new EventArgs());
+        
+        assertEquals(2, _metrics.getRaiseCount());
+        assertEquals(2, _metrics.getDeliveryCount());
+        assertEquals(2, _metrics.getMaxFanOut());
+        assertEquals(1, _metrics.getMeanFanOut(), 0);
+        assertTrue(_metrics.getHandlerLatencyMax() >= 2000000);
+    }
+    
+    @Test
+    public void testFailureIsRecordedAndRethrown() {
+        _event.getEvent().subscribe(new ISimpleEventHandler() {
+            @Override
+            public void handleEvent(Object sender, EventArgs args) {
+                throw new RuntimeException("cause an error");
+            }
+        });
+        
+        try {
+            _event.raise(this, new EventArgs());
+            fail("expected the handler's exception");
+        }
+        catch(RuntimeException ex) {
+            assertEquals("cause an error", ex.getMessage());
+        }
+        
+        assertEquals(1, _metrics.getHandlerFailureCount());
+        assertEquals(1, _metrics.getRaiseCount());
+    }
+    
+    @Test
+    public void testSlowHandlers() {
+        final ArrayList<Class<?>> reported = new ArrayList<>();
+        
+        _metrics.setSlowHandlerThreshold(1000000);
+        _metrics.setSlowHandlerListener(new ISlowHandlerListener() {
+            @Override
+            public void slowHandler(Class<?> handlerClass, long elapsedNanos) {
+                reported.add(handlerClass);
+            }
+        });
+        
+        _event.getEvent().subscribe(_handler);
+        _event.getEvent().subscribe(new SlowHandler());
+        _event.raise(this, new EventArgs());
+        
+        assertEquals(1, _metrics.getSlowHandlerCount());
+        assertEquals(1, reported.size());
+        assertEquals(SlowHandler.class, reported.get(0));
+        
+        Map<String, Long> slow = _metrics.getSlowHandlers();
+        assertEquals(1, slow.size());
+        assertEquals(1L, (long)slow.get(SlowHandler.class.getName()));
+    }
+    
+    @Test
+    public void testCollectedHandlers() throws InterruptedException {
+        _event.getEvent().subscribeWeak(new SlowHandler());
+        _event.getEvent().subscribe(_handler).close();
+        
+        for(int i = 0; i < 10 && _metrics.getCollectedHandlerCount() == 0; i++) {
+            System.gc();
+            Thread.sleep(100);
+            _event.raise(this, new EventArgs());
+        }
+        
+        // The closed subscription is not counted as collected
+        assertEquals(1, _metrics.getCollectedHandlerCount());
+    }
+    
+    @Test
+    public void testRegister() throws Exception {
+        ObjectName name = _metrics.register("test event");
+        
+        try {
+            _event.raise(this, new EventArgs());
+            
+            assertEquals(1L, ManagementFactory.getPlatformMBeanServer().getAttribute(name, "RaiseCount"));
+        }
+        finally {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+        }
+    }
+    
+    private static class SlowHandler implements ISimpleEventHandler {
+        @Override
+        public void handleEvent(Object sender, EventArgs args) {
+            try {
+                Thread.sleep(2);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package io.jaros.events.metrics;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class HistogramUnitTests {
+
+    @Test
+    public void testEmpty() {
+        Histogram histogram = new Histogram();
+        
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getValueAtPercentile(99));
+        assertEquals(0, histogram.getMean(), 0);
+    }
+    
+    @Test
+    public void testPercentiles() {
+        Histogram histogram = new Histogram();
+        
+        for(int i = 1; i <= 10000; i++)
+            histogram.record(i * 1000L);
+        
+        assertEquals(10000, histogram.getCount());
+        assertEquals(10000000, histogram.getMax());
+        assertEquals(5000500, histogram.getMean(), 0.001);
+        
+        // Within the 1/32 precision of the buckets
+        assertEquals(5000000, histogram.getValueAtPercentile(50), 5000000 / 32);
+        assertEquals(9900000, histogram.getValueAtPercentile(99), 9900000 / 32);
+        assertEquals(10000000, histogram.getValueAtPercentile(100));
+    }
+    
+    @Test
+    public void testBucketBoundaries() {
+        long[] values = { 0, 1, 63, 64, 65, 127, 128, 1000, 123456789, Long.MAX_VALUE / 3, Long.MAX_VALUE };
+        
+        for(long value: values) {
+            int index = Histogram.index(value);
+            
+            assertTrue("value " + value, Histogram.highestValue(index) >= value);
+            assertTrue("value " + value, index == 0 || Histogram.highestValue(index - 1) < value);
+        }
+    }
+    
+    @Test
+    public void testReset() {
+        Histogram histogram = new Histogram();
+        
+        histogram.record(42);
+        histogram.reset();
+        
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+    }
+}
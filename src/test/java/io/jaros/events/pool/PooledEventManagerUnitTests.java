@@ -0,0 +1,152 @@
+package io.jaros.events.pool;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import io.jaros.events.generic.IEventHandler;
+
+public class PooledEventManagerUnitTests {
+
+    private PooledEventManager<PooledEventArg<String>> _event;
+    private ArrayList<String> _values;
+    
+    private EventArgsPool<PooledEventArg<String>> createPool(boolean debug) {
+        return new EventArgsPool<PooledEventArg<String>>(4, debug) {
+            @Override
+            protected PooledEventArg<String> create() {
+                return new PooledEventArg<>();
+            }
+        };
+    }
+    
+    private final IEventHandler<PooledEventArg<String>> _handler = new IEventHandler<PooledEventArg<String>>() {
+        @Override
+        public void handleEvent(Object sender, PooledEventArg<String> args) {
+            _values.add(args.getValue());
+        }
+    };
+    
+    @Before
+    public void setUp() {
+        _event = new PooledEventManager<>();
+        _values = new ArrayList<>();
+    }
+    
+    @Test
+    public void testArgsAreRecycled() {
+        EventArgsPool<PooledEventArg<String>> pool = createPool(false);
+        _event.getEvent().subscribe(_handler);
+        
+        PooledEventArg<String> first = pool.acquire().setValue("a");
+        _event.raise(this, first);
+        
+        assertTrue(first.isReleased());
+        
+        PooledEventArg<String> second = pool.acquire();
+        
+        assertSame(first, second);
+        assertNull(second.getValue());
+        
+        _event.raise(this, second.setValue("b"));
+        
+        assertEquals(2, _values.size());
+        assertEquals("a", _values.get(0));
+        assertEquals("b", _values.get(1));
+    }
+    
+    @Test
+    public void testPinnedArgsAreNotRecycled() {
+        EventArgsPool<PooledEventArg<String>> pool = createPool(false);
+        final ArrayList<PooledEventArg<String>> kept = new ArrayList<>();
+        
+        _event.getEvent().subscribe(new IEventHandler<PooledEventArg<String>>() {
+            @Override
+            public void handleEvent(Object sender, PooledEventArg<String> args) {
+                args.pin();
+                kept.add(args);
+            }
+        });
+        
+        PooledEventArg<String> args = pool.acquire().setValue("kept");
+        _event.raise(this, args);
+        
+        assertFalse(args.isReleased());
+        assertNotSame(args, pool.acquire());
+        assertEquals("kept", kept.get(0).getValue());
+        
+        kept.get(0).release();
+        
+        assertTrue(args.isReleased());
+        assertSame(args, pool.acquire());
+    }
+    
+    @Test
+    public void testArgsReleasedWhenHandlerThrows() {
+        EventArgsPool<PooledEventArg<String>> pool = createPool(false);
+        
+        _event.getEvent().subscribe(new IEventHandler<PooledEventArg<String>>() {
+            @Override
+            public void handleEvent(Object sender, PooledEventArg<String> args) {
+                throw new RuntimeException("cause an error");
+            }
+        });
+        
+        PooledEventArg<String> args = pool.acquire();
+        
+        try {
+            _event.raise(this, args);
+            fail("expected the handler's exception");
+        }
+        catch(RuntimeException ex) {
+            assertEquals("cause an error", ex.getMessage());
+        }
+        
+        assertTrue(args.isReleased());
+    }
+    
+    @Test(expected = IllegalStateException.class)
+    public void testUseAfterReleaseInDebugMode() {
+        EventArgsPool<PooledEventArg<String>> pool = createPool(true);
+        final ArrayList<PooledEventArg<String>> leaked = new ArrayList<>();
+        
+        _event.getEvent().subscribe(new IEventHandler<PooledEventArg<String>>() {
+            @Override
+            public void handleEvent(Object sender, PooledEventArg<String> args) {
+                // Keeps the args without pinning them
+                leaked.add(args);
+            }
+        });
+        
+        _event.raise(this, pool.acquire().setValue("leaked"));
+        
+        leaked.get(0).getValue();
+    }
+    
+    @Test(expected = IllegalStateException.class)
+    public void testDoubleRelease() {
+        PooledEventArg<String> args = createPool(false).acquire();
+        
+        args.release();
+        args.release();
+    }
+    
+    @Test
+    public void testRaiseAllReleasesEveryArgs() {
+        EventArgsPool<PooledEventArg<String>> pool = createPool(false);
+        _event.getEvent().subscribe(_handler);
+        
+        PooledEventArg<String> first = pool.acquire().setValue("a");
+        PooledEventArg<String> second = pool.acquire().setValue("b");
+        
+        _event.raiseAll(this, Arrays.asList(first, second));
+        
+        assertEquals(Arrays.asList("a", "b"), _values);
+        assertTrue(first.isReleased());
+        assertTrue(second.isReleased());
+    }
+}
@@ -0,0 +1,422 @@
+package io.jaros.events.reactive;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import io.jaros.events.EventManager;
+import io.jaros.events.generic.EventArg;
+import io.jaros.events.generic.IEventHandler;
+
+public class EventPublisherUnitTests {
+
+    private static class RecordingSubscriber implements Subscriber<EventArg<Integer>> {
+
+        final List<Integer> values = new ArrayList<>();
+        Subscription subscription;
+        Throwable error;
+        boolean complete;
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(EventArg<Integer> item) {
+            values.add(item.getValue());
+        }
+
+        @Override
+        public void onError(Throwable failure) {
+            error = failure;
+        }
+
+        @Override
+        public void onComplete() {
+            complete = true;
+        }
+    }
+
+    private EventManager<EventArg<Integer>> _event;
+    private RecordingSubscriber _subscriber;
+
+    @Before
+    public void setUp() {
+        _event = new EventManager<>();
+        _subscriber = new RecordingSubscriber();
+    }
+
+    private void raise(int... values) {
+        for(int value: values)
+            _event.raise(this, new EventArg<>(value));
+    }
+
+    private EventPublisher<EventArg<Integer>> publish(int bufferSize, BackpressureStrategy strategy) {
+        EventPublisher<EventArg<Integer>> publisher = new EventPublisher<>(_event.getEvent(), bufferSize, strategy);
+        publisher.subscribe(_subscriber);
+        return publisher;
+    }
+
+    @Test
+    public void testDeliversOnlyWhatIsRequested() {
+        publish(10, BackpressureStrategy.DROP_NEWEST);
+
+        raise(1, 2, 3);
+        assertTrue(_subscriber.values.isEmpty());
+
+        _subscriber.subscription.request(2);
+        assertEquals(Arrays.asList(1, 2), _subscriber.values);
+
+        raise(4);
+        _subscriber.subscription.request(5);
+        assertEquals(Arrays.asList(1, 2, 3, 4), _subscriber.values);
+
+        // Demand left over is used by later raises
+        raise(5);
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5), _subscriber.values);
+    }
+
+    @Test
+    public void testUnboundedDemand() {
+        publish(1, BackpressureStrategy.DROP_NEWEST);
+
+        _subscriber.subscription.request(Long.MAX_VALUE);
+        _subscriber.subscription.request(Long.MAX_VALUE);
+        raise(1, 2, 3);
+
+        assertEquals(Arrays.asList(1, 2, 3), _subscriber.values);
+    }
+
+    @Test
+    public void testDropOldest() {
+        EventPublisher<EventArg<Integer>> publisher = publish(2, BackpressureStrategy.DROP_OLDEST);
+
+        raise(1, 2, 3, 4);
+        _subscriber.subscription.request(10);
+
+        assertEquals(Arrays.asList(3, 4), _subscriber.values);
+        assertEquals(2, publisher.getDroppedCount());
+    }
+
+    @Test
+    public void testDropNewest() {
+        EventPublisher<EventArg<Integer>> publisher = publish(2, BackpressureStrategy.DROP_NEWEST);
+
+        raise(1, 2, 3, 4);
+        _subscriber.subscription.request(10);
+
+        assertEquals(Arrays.asList(1, 2), _subscriber.values);
+        assertEquals(2, publisher.getDroppedCount());
+    }
+
+    @Test
+    public void testConflate() {
+        EventPublisher<EventArg<Integer>> publisher = publish(2, BackpressureStrategy.CONFLATE);
+
+        raise(1, 2, 3, 4);
+        _subscriber.subscription.request(10);
+
+        assertEquals(Arrays.asList(1, 4), _subscriber.values);
+        assertEquals(2, publisher.getDroppedCount());
+    }
+
+    @Test(timeout = 5000)
+    public void testBlockWaitsForDemand() throws InterruptedException {
+        publish(1, BackpressureStrategy.BLOCK);
+        raise(1);
+
+        final CountDownLatch raised = new CountDownLatch(1);
+        Thread raiser = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                raise(2);
+                raised.countDown();
+            }
+        });
+        raiser.start();
+
+        assertFalse(raised.await(100, TimeUnit.MILLISECONDS));
+
+        synchronized(_subscriber) {
+            _subscriber.subscription.request(1);
+        }
+        assertTrue(raised.await(5, TimeUnit.SECONDS));
+        raiser.join();
+
+        synchronized(_subscriber) {
+            _subscriber.subscription.request(1);
+            assertEquals(Arrays.asList(1, 2), _subscriber.values);
+        }
+    }
+
+    @Test(timeout = 5000)
+    public void testCancelReleasesBlockedRaiser() throws InterruptedException {
+        publish(1, BackpressureStrategy.BLOCK);
+        raise(1);
+
+        Thread raiser = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                raise(2);
+            }
+        });
+        raiser.start();
+
+        Thread.sleep(50);
+        _subscriber.subscription.cancel();
+        raiser.join();
+
+        assertFalse(_event.hasHandlers());
+        assertTrue(_subscriber.values.isEmpty());
+    }
+
+    @Test
+    public void testCancelUnsubscribes() {
+        publish(10, BackpressureStrategy.DROP_NEWEST);
+        _subscriber.subscription.request(10);
+
+        raise(1);
+        _subscriber.subscription.cancel();
+        raise(2);
+
+        assertEquals(Arrays.asList(1), _subscriber.values);
+        assertFalse(_event.hasHandlers());
+    }
+
+    @Test
+    public void testNonPositiveRequestFails() {
+        publish(10, BackpressureStrategy.DROP_NEWEST);
+
+        _subscriber.subscription.request(0);
+
+        assertTrue(_subscriber.error instanceof IllegalArgumentException);
+        assertFalse(_event.hasHandlers());
+    }
+
+    @Test
+    public void testNonPositiveRequestDuringOnNextFailsAfterIt() {
+        final List<String> signals = new ArrayList<>();
+
+        RecordingSubscriber subscriber = new RecordingSubscriber() {
+            @Override
+            public void onNext(EventArg<Integer> item) {
+                signals.add("next " + item.getValue());
+                subscription.request(-1);
+                signals.add("returned");
+            }
+
+            @Override
+            public void onError(Throwable failure) {
+                signals.add("error");
+                error = failure;
+            }
+        };
+
+        new EventPublisher<>(_event.getEvent(), 10, BackpressureStrategy.DROP_NEWEST).subscribe(subscriber);
+        raise(1, 2);
+        subscriber.subscription.request(2);
+
+        // The failure is signalled once onNext has returned, and no event follows it
+        assertEquals(Arrays.asList("next 1", "returned", "error"), signals);
+        assertTrue(subscriber.error instanceof IllegalArgumentException);
+        assertFalse(_event.hasHandlers());
+    }
+
+    @Test
+    public void testCloseCompletesAfterBufferDrains() {
+        EventPublisher<EventArg<Integer>> publisher = publish(10, BackpressureStrategy.DROP_NEWEST);
+
+        raise(1, 2);
+        publisher.close();
+        raise(3);
+        assertFalse(_subscriber.complete);
+
+        _subscriber.subscription.request(1);
+        assertFalse(_subscriber.complete);
+
+        _subscriber.subscription.request(1);
+        assertTrue(_subscriber.complete);
+        assertEquals(Arrays.asList(1, 2), _subscriber.values);
+        assertFalse(_event.hasHandlers());
+    }
+
+    @Test
+    public void testSubscribersHaveTheirOwnDemand() {
+        RecordingSubscriber other = new RecordingSubscriber();
+        EventPublisher<EventArg<Integer>> publisher = publish(10, BackpressureStrategy.DROP_NEWEST);
+        publisher.subscribe(other);
+
+        _subscriber.subscription.request(1);
+        other.subscription.request(3);
+        raise(1, 2, 3);
+
+        assertEquals(Arrays.asList(1), _subscriber.values);
+        assertEquals(Arrays.asList(1, 2, 3), other.values);
+    }
+
+    @Test
+    public void testRaisingSubscriberRequestsInBatches() throws InterruptedException {
+        final List<Long> requests = new ArrayList<>();
+        final List<Integer> values = new ArrayList<>();
+
+        _event.getEvent().subscribe(new IEventHandler<EventArg<Integer>>() {
+            @Override
+            public void handleEvent(Object sender, EventArg<Integer> args) {
+                values.add(args.getValue());
+            }
+        });
+
+        final EventRaisingSubscriber<EventArg<Integer>> subscriber = new EventRaisingSubscriber<>(_event, this, 2);
+
+        Publisher<EventArg<Integer>> source = new Publisher<EventArg<Integer>>() {
+            @Override
+            public void subscribe(Subscriber<? super EventArg<Integer>> s) {
+                s.onSubscribe(new Subscription() {
+                    @Override
+                    public void request(long n) {
+                        requests.add(n);
+                    }
+
+                    @Override
+                    public void cancel() {
+                    }
+                });
+            }
+        };
+        source.subscribe(subscriber);
+
+        assertEquals(Arrays.asList(2L), requests);
+
+        subscriber.onNext(new EventArg<>(1));
+        assertEquals(1, requests.size());
+        subscriber.onNext(new EventArg<>(2));
+        assertEquals(Arrays.asList(2L, 2L), requests);
+
+        subscriber.onComplete();
+        assertTrue(subscriber.await(1, TimeUnit.SECONDS));
+        assertTrue(subscriber.isComplete());
+        assertNull(subscriber.getError());
+        assertEquals(Arrays.asList(1, 2), values);
+    }
+
+    @Test
+    public void testPublisherFeedsRaisingSubscriber() throws InterruptedException {
+        EventManager<EventArg<Integer>> mirror = new EventManager<>();
+        final List<Integer> values = new ArrayList<>();
+
+        mirror.getEvent().subscribe(new IEventHandler<EventArg<Integer>>() {
+            @Override
+            public void handleEvent(Object sender, EventArg<Integer> args) {
+                values.add(args.getValue());
+            }
+        });
+
+        EventPublisher<EventArg<Integer>> publisher = new EventPublisher<>(_event.getEvent(), 4, BackpressureStrategy.BLOCK);
+        EventRaisingSubscriber<EventArg<Integer>> subscriber = new EventRaisingSubscriber<>(mirror, this, 3);
+        publisher.subscribe(subscriber);
+
+        raise(1, 2, 3, 4, 5, 6, 7);
+        publisher.close();
+
+        assertTrue(subscriber.await(1, TimeUnit.SECONDS));
+        assertTrue(subscriber.isComplete());
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5, 6, 7), values);
+    }
+
+    @Test
+    public void testRaisingSubscriberCancelsWhenHandlerThrows() {
+        EventManager<EventArg<Integer>> mirror = new EventManager<>();
+        mirror.getEvent().subscribe(new IEventHandler<EventArg<Integer>>() {
+            @Override
+            public void handleEvent(Object sender, EventArg<Integer> args) {
+                throw new IllegalStateException("handler failed");
+            }
+        });
+
+        EventPublisher<EventArg<Integer>> publisher = new EventPublisher<>(_event.getEvent(), 4, BackpressureStrategy.DROP_NEWEST);
+        EventRaisingSubscriber<EventArg<Integer>> subscriber = new EventRaisingSubscriber<>(mirror, this, 3);
+        publisher.subscribe(subscriber);
+
+        Thread current = Thread.currentThread();
+        Thread.UncaughtExceptionHandler previous = current.getUncaughtExceptionHandler();
+        final List<Throwable> reported = new ArrayList<>();
+        current.setUncaughtExceptionHandler(new Thread.UncaughtExceptionHandler() {
+            @Override
+            public void uncaughtException(Thread t, Throwable e) {
+                reported.add(e);
+            }
+        });
+
+        try {
+            raise(1);
+        }
+        finally {
+            current.setUncaughtExceptionHandler(previous);
+        }
+
+        assertTrue(subscriber.getError() instanceof IllegalStateException);
+        assertEquals(1, reported.size());
+        assertFalse(_event.hasHandlers());
+    }
+
+    @Test
+    public void testRaisingSubscriberIgnoresItemsAfterCancelling() {
+        final List<Integer> values = new ArrayList<>();
+        final List<Integer> cancels = new ArrayList<>();
+
+        _event.getEvent().subscribe(new IEventHandler<EventArg<Integer>>() {
+            @Override
+            public void handleEvent(Object sender, EventArg<Integer> args) {
+                if(args.getValue() == 1)
+                    throw new IllegalStateException("handler failed");
+
+                values.add(args.getValue());
+            }
+        });
+
+        EventRaisingSubscriber<EventArg<Integer>> subscriber = new EventRaisingSubscriber<>(_event, this, 4);
+        subscriber.onSubscribe(new Subscription() {
+            @Override
+            public void request(long n) {
+            }
+
+            @Override
+            public void cancel() {
+                cancels.add(1);
+            }
+        });
+
+        Thread current = Thread.currentThread();
+        Thread.UncaughtExceptionHandler previous = current.getUncaughtExceptionHandler();
+        current.setUncaughtExceptionHandler(new Thread.UncaughtExceptionHandler() {
+            @Override
+            public void uncaughtException(Thread t, Throwable e) {
+            }
+        });
+
+        try {
+            subscriber.onNext(new EventArg<>(1));
+
+            // Already in flight when the publisher was cancelled
+            subscriber.onNext(new EventArg<>(2));
+        }
+        finally {
+            current.setUncaughtExceptionHandler(previous);
+        }
+
+        assertTrue(values.isEmpty());
+        assertEquals(1, cancels.size());
+        assertTrue(subscriber.getError() instanceof IllegalStateException);
+    }
+}
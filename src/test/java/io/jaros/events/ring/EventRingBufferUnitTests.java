@@ -0,0 +1,148 @@
+package io.jaros.events.ring;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.jaros.events.EventManager;
+import io.jaros.events.generic.EventArg;
+import io.jaros.events.generic.IEventHandler;
+
+public class EventRingBufferUnitTests {
+
+    private EventManager<EventArg<Integer>> _event;
+    private EventRingBuffer<EventArg<Integer>> _ring;
+    
+    private final AtomicInteger _count = new AtomicInteger();
+    private final AtomicLong _sum = new AtomicLong();
+    
+    private final IEventHandler<EventArg<Integer>> _handler = new IEventHandler<EventArg<Integer>>() {
+        @Override
+        public void handleEvent(Object sender, EventArg<Integer> args) {
+            _sum.addAndGet(args.getValue());
+            _count.incrementAndGet();
+        }
+    };
+    
+    @Before
+    public void setUp() {
+        _event = new EventManager<>();
+        _event.addHandler(_handler);
+    }
+    
+    @After
+    public void tearDown() throws InterruptedException {
+        if(_ring != null)
+            _ring.stop();
+    }
+    
+    @Test
+    public void testPublishAndDrain() throws InterruptedException {
+        _ring = new EventRingBuffer<>(_event, 16);
+        _ring.start();
+        
+        for(int i = 1; i <= 1000; i++)
+            assertTrue(_ring.publish(this, new EventArg<Integer>(i)));
+        
+        _ring.stop();
+        
+        assertEquals(1000, _count.get());
+        assertEquals(500500, _sum.get());
+    }
+    
+    @Test
+    public void testOrderWithSingleConsumer() throws InterruptedException {
+        final AtomicInteger last = new AtomicInteger();
+        final AtomicInteger outOfOrder = new AtomicInteger();
+        
+        _event.addHandler(new IEventHandler<EventArg<Integer>>() {
+            @Override
+            public void handleEvent(Object sender, EventArg<Integer> args) {
+                if(args.getValue() != last.get() + 1)
+                    outOfOrder.incrementAndGet();
+                last.set(args.getValue());
+            }
+        });
+        
+        _ring = new EventRingBuffer<>(_event, 8, 1, 4, WaitStrategy.YIELD, OverflowStrategy.BLOCK, 
+                Executors.defaultThreadFactory());
+        _ring.start();
+        
+        for(int i = 1; i <= 500; i++)
+            _ring.publish(this, new EventArg<Integer>(i));
+        
+        _ring.stop();
+        
+        assertEquals(500, last.get());
+        assertEquals(0, outOfOrder.get());
+    }
+    
+    @Test
+    public void testMultipleProducersAndConsumers() throws InterruptedException {
+        _ring = new EventRingBuffer<>(_event, 64, 3, 16, WaitStrategy.YIELD, OverflowStrategy.BLOCK, 
+                Executors.defaultThreadFactory());
+        _ring.start();
+        
+        Thread[] producers = new Thread[4];
+        for(int p = 0; p < producers.length; p++) {
+            producers[p] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for(int i = 1; i <= 10000; i++)
+                        _ring.publish(this, new EventArg<Integer>(i));
+                }
+            });
+            producers[p].start();
+        }
+        
+        for(Thread producer: producers)
+            producer.join();
+        
+        _ring.stop();
+        
+        assertEquals(40000, _count.get());
+        assertEquals(4 * 50005000L, _sum.get());
+    }
+    
+    @Test
+    public void testDropWhenFull() {
+        // Not started, so nothing is consumed
+        _ring = new EventRingBuffer<>(_event, 4, 1, 4, WaitStrategy.BUSY_SPIN, OverflowStrategy.DROP, 
+                Executors.defaultThreadFactory());
+        
+        for(int i = 0; i < 4; i++)
+            assertTrue(_ring.publish(this, new EventArg<Integer>(i)));
+        
+        assertFalse(_ring.publish(this, new EventArg<Integer>(5)));
+        assertEquals(4, _ring.size());
+    }
+    
+    @Test(expected = IllegalStateException.class)
+    public void testFailWhenFull() {
+        _ring = new EventRingBuffer<>(_event, 2, 1, 4, WaitStrategy.BUSY_SPIN, OverflowStrategy.FAIL, 
+                Executors.defaultThreadFactory());
+        
+        _ring.publish(this, new EventArg<Integer>(1));
+        _ring.publish(this, new EventArg<Integer>(2));
+        _ring.publish(this, new EventArg<Integer>(3));
+    }
+    
+    @Test
+    public void testPublishedBeforeStartIsRaised() throws InterruptedException {
+        _ring = new EventRingBuffer<>(_event, 4);
+        
+        _ring.publish(this, new EventArg<Integer>(7));
+        
+        _ring.start();
+        _ring.stop();
+        
+        assertEquals(1, _count.get());
+        assertEquals(7, _sum.get());
+    }
+}
@@ -0,0 +1,180 @@
+package io.jaros.events.timing;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.jaros.events.EventManager;
+import io.jaros.events.generic.EventArg;
+import io.jaros.events.generic.IBatchEventHandler;
+import io.jaros.events.util.EventCollector;
+
+public class EventOperatorsUnitTests {
+
+    private TimingWheel _wheel;
+    private EventManager<EventArg<Integer>> _event;
+    private EventCollector<EventArg<Integer>> _collector;
+    private List<List<Integer>> _batches;
+
+    private final IBatchEventHandler<EventArg<Integer>> _batchHandler = new IBatchEventHandler<EventArg<Integer>>() {
+        @Override
+        public void handleEvent(Object sender, EventArg<Integer> args) {
+            handleEvents(sender, Arrays.asList(args));
+        }
+
+        @Override
+        public void handleEvents(Object sender, List<EventArg<Integer>> args) {
+            List<Integer> values = new ArrayList<>();
+            for(EventArg<Integer> arg: args)
+                values.add(arg.getValue());
+
+            synchronized(_batches) {
+                _batches.add(values);
+                _batches.notifyAll();
+            }
+        }
+    };
+
+    @Before
+    public void setUp() {
+        _wheel = new TimingWheel(1, TimeUnit.MILLISECONDS, 64);
+        _event = new EventManager<>();
+        _collector = new EventCollector<>();
+        _batches = new ArrayList<>();
+    }
+
+    @After
+    public void tearDown() {
+        _wheel.close();
+    }
+
+    private void raise(int... values) {
+        for(int value: values)
+            _event.raise(this, new EventArg<>(value));
+    }
+
+    private List<Integer> values() {
+        List<Integer> values = new ArrayList<>();
+        for(EventCollector<EventArg<Integer>>.Event event: _collector.events())
+            values.add(event.args.getValue());
+
+        return values;
+    }
+
+    private List<List<Integer>> awaitBatches(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+
+        synchronized(_batches) {
+            while(_batches.size() < count && System.currentTimeMillis() < deadline)
+                _batches.wait(100);
+
+            assertTrue(_batches.size() >= count);
+            return new ArrayList<>(_batches);
+        }
+    }
+
+    @Test
+    public void testDebounceDeliversLastEventOfBurst() throws TimeoutException, InterruptedException {
+        _event.addHandler(EventOperators.debounce(_wheel, _collector.handler(), 100, TimeUnit.MILLISECONDS));
+
+        raise(1, 2, 3);
+        Thread.sleep(30);
+        raise(4);
+        assertEquals(0, _collector.size());
+
+        _collector.waitForNthEvent(1, 5000);
+        Thread.sleep(150);
+
+        assertEquals(Arrays.asList(4), values());
+        assertEquals(0, _wheel.getPendingCount());
+    }
+
+    @Test
+    public void testThrottleDeliversFirstAndLatest() throws TimeoutException, InterruptedException {
+        _event.addHandler(EventOperators.throttle(_wheel, _collector.handler(), 100, TimeUnit.MILLISECONDS));
+
+        raise(1, 2, 3);
+        assertEquals(Arrays.asList(1), values());
+
+        _collector.waitForNthEvent(2, 5000);
+        Thread.sleep(150);
+
+        assertEquals(Arrays.asList(1, 3), values());
+
+        // The throttle has reopened, so the next event is delivered at once
+        raise(5);
+        assertEquals(Arrays.asList(1, 3, 5), values());
+    }
+
+    @Test
+    public void testSampleDeliversLatestPerPeriod() throws TimeoutException, InterruptedException {
+        _event.addHandler(EventOperators.sample(_wheel, _collector.handler(), 50, TimeUnit.MILLISECONDS));
+
+        raise(1, 2);
+        _collector.waitForNthEvent(1, 5000);
+        raise(3);
+        _collector.waitForNthEvent(2, 5000);
+        Thread.sleep(150);
+
+        assertEquals(Arrays.asList(2, 3), values());
+        assertEquals(0, _wheel.getPendingCount());
+    }
+
+    @Test
+    public void testTumblingWindow() throws InterruptedException {
+        _event.addHandler(EventOperators.tumblingWindow(_wheel, _batchHandler, 50, TimeUnit.MILLISECONDS));
+
+        raise(1, 2, 3);
+        assertEquals(Arrays.asList(Arrays.asList(1, 2, 3)), awaitBatches(1));
+
+        raise(4);
+        assertEquals(Arrays.asList(Arrays.asList(1, 2, 3), Arrays.asList(4)), awaitBatches(2));
+    }
+
+    @Test
+    public void testSlidingWindowRepeatsEventsUntilTheyAge() throws InterruptedException {
+        _event.addHandler(EventOperators.slidingWindow(_wheel, _batchHandler, 100, 30, TimeUnit.MILLISECONDS));
+
+        raise(1, 2);
+        List<List<Integer>> batches = awaitBatches(2);
+        assertEquals(Arrays.asList(1, 2), batches.get(0));
+        assertEquals(Arrays.asList(1, 2), batches.get(1));
+
+        // Once the events are older than the window, the batches stop
+        Thread.sleep(250);
+        int delivered = awaitBatches(0).size();
+        Thread.sleep(100);
+
+        assertEquals(delivered, awaitBatches(0).size());
+        assertEquals(0, _wheel.getPendingCount());
+    }
+
+    @Test
+    public void testOperatorsCompose() throws TimeoutException, InterruptedException {
+        _event.addHandler(EventOperators.debounce(_wheel,
+                EventOperators.tumblingWindow(_wheel, _batchHandler, 50, TimeUnit.MILLISECONDS),
+                20, TimeUnit.MILLISECONDS));
+
+        raise(1, 2);
+        assertEquals(Arrays.asList(Arrays.asList(2)), awaitBatches(1));
+    }
+
+    @Test
+    public void testManyOperatorsShareOneWheel() throws TimeoutException, InterruptedException {
+        int count = 10000;
+
+        for(int i = 0; i < count; i++)
+            EventOperators.debounce(_wheel, _collector.handler(), 20, TimeUnit.MILLISECONDS).handleEvent(this, new EventArg<>(i));
+
+        _collector.waitForNthEvent(count, 10000);
+        assertEquals(0, _wheel.getPendingCount());
+    }
+}
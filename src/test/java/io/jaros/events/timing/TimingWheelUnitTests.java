@@ -0,0 +1,146 @@
+package io.jaros.events.timing;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TimingWheelUnitTests {
+
+    private TimingWheel _wheel;
+
+    @Before
+    public void setUp() {
+        _wheel = new TimingWheel(1, TimeUnit.MILLISECONDS, 8);
+    }
+
+    @After
+    public void tearDown() {
+        _wheel.close();
+    }
+
+    private Runnable countDown(final CountDownLatch latch) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                latch.countDown();
+            }
+        };
+    }
+
+    @Test
+    public void testRunsAfterDelay() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        long start = System.nanoTime();
+
+        ITimeout timeout = _wheel.schedule(countDown(latch), 30, TimeUnit.MILLISECONDS);
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(30));
+        assertTrue(timeout.isExpired());
+        assertEquals(0, _wheel.getPendingCount());
+    }
+
+    @Test
+    public void testDelaysLongerThanOneTurn() throws InterruptedException {
+        final List<Integer> order = Collections.synchronizedList(new ArrayList<Integer>());
+        final CountDownLatch latch = new CountDownLatch(3);
+
+        // The wheel has eight one millisecond slots, so these wrap around it several times
+        for(final int delay: new int[] { 45, 5, 25 }) {
+            _wheel.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    order.add(delay);
+                    latch.countDown();
+                }
+            }, delay, TimeUnit.MILLISECONDS);
+        }
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList(5, 25, 45), order);
+    }
+
+    @Test
+    public void testCancel() throws InterruptedException {
+        CountDownLatch cancelled = new CountDownLatch(1);
+        CountDownLatch later = new CountDownLatch(1);
+
+        ITimeout timeout = _wheel.schedule(countDown(cancelled), 10, TimeUnit.MILLISECONDS);
+        _wheel.schedule(countDown(later), 30, TimeUnit.MILLISECONDS);
+
+        assertTrue(timeout.cancel());
+        assertFalse(timeout.cancel());
+        assertTrue(timeout.isCancelled());
+        assertEquals(1, _wheel.getPendingCount());
+
+        assertTrue(later.await(5, TimeUnit.SECONDS));
+        assertEquals(1, cancelled.getCount());
+        assertFalse(timeout.isExpired());
+    }
+
+    @Test
+    public void testFailingTaskDoesNotStopTheWheel() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        final CountDownLatch reported = new CountDownLatch(1);
+
+        _wheel.schedule(new Runnable() {
+            @Override
+            public void run() {
+                Thread.currentThread().setUncaughtExceptionHandler(new Thread.UncaughtExceptionHandler() {
+                    @Override
+                    public void uncaughtException(Thread t, Throwable e) {
+                        reported.countDown();
+                    }
+                });
+                throw new IllegalStateException("task failed");
+            }
+        }, 1, TimeUnit.MILLISECONDS);
+        _wheel.schedule(countDown(latch), 20, TimeUnit.MILLISECONDS);
+
+        assertTrue(reported.await(5, TimeUnit.SECONDS));
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testResumesAfterIdle() throws InterruptedException {
+        CountDownLatch first = new CountDownLatch(1);
+        _wheel.schedule(countDown(first), 1, TimeUnit.MILLISECONDS);
+        assertTrue(first.await(5, TimeUnit.SECONDS));
+
+        Thread.sleep(50);
+
+        CountDownLatch second = new CountDownLatch(1);
+        long start = System.nanoTime();
+        _wheel.schedule(countDown(second), 20, TimeUnit.MILLISECONDS);
+
+        assertTrue(second.await(5, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(20));
+    }
+
+    @Test
+    public void testManyPendingTimers() throws InterruptedException {
+        int count = 100000;
+        CountDownLatch latch = new CountDownLatch(count);
+
+        for(int i = 0; i < count; i++)
+            _wheel.schedule(countDown(latch), i % 50, TimeUnit.MILLISECONDS);
+
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertEquals(0, _wheel.getPendingCount());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testScheduleAfterClose() {
+        _wheel.close();
+        _wheel.schedule(countDown(new CountDownLatch(1)), 1, TimeUnit.MILLISECONDS);
+    }
+}
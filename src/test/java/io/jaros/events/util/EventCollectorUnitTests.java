@@ -0,0 +1,110 @@
+package io.jaros.events.util;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import io.jaros.events.generic.EventArg;
+import io.jaros.events.generic.IEventPredicate;
+
+public class EventCollectorUnitTests {
+
+    private EventCollector<EventArg<Integer>> _collector;
+    
+    @Before
+    public void setUp() {
+        _collector = new EventCollector<>();
+    }
+    
+    private Thread publish(final EventCollector<EventArg<Integer>> collector, final int count) {
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                for(int i = 0; i < count; i++)
+                    collector.handler().handleEvent(this, new EventArg<>(i));
+            }
+        });
+        
+        thread.start();
+        return thread;
+    }
+    
+    @Test
+    public void testWaitForNthEvent() throws Exception {
+        Thread publisher = publish(_collector, 1000);
+        
+        _collector.waitForNthEvent(1000, 5000);
+        publisher.join();
+        
+        assertEquals(1000, _collector.size());
+        assertEquals(Integer.valueOf(0), _collector.get(0).args.getValue());
+        assertEquals(Integer.valueOf(999), _collector.last().args.getValue());
+    }
+    
+    @Test(expected = TimeoutException.class)
+    public void testWaitForNthEventTimesOut() throws Exception {
+        _collector.collect(this, new EventArg<>(1));
+        _collector.waitForNthEvent(2, 10);
+    }
+    
+    @Test
+    public void testBoundedKeepsLastEvents() throws Exception {
+        EventCollector<EventArg<Integer>> collector = new EventCollector<>(10);
+        
+        publish(collector, 1000).join();
+        
+        assertEquals(10, collector.size());
+        assertEquals(1000, collector.count());
+        assertEquals(Integer.valueOf(990), collector.get(0).args.getValue());
+        assertEquals(Integer.valueOf(999), collector.last().args.getValue());
+        assertEquals(10, collector.events().size());
+        
+        collector.waitForNthEvent(1000, 0);
+    }
+    
+    @Test
+    public void testAwait() throws Exception {
+        _collector.collect(this, new EventArg<>(1));
+        
+        IEventPredicate<EventArg<Integer>> isFive = new IEventPredicate<EventArg<Integer>>() {
+            @Override
+            public boolean test(Object sender, EventArg<Integer> args) {
+                return args.getValue() == 5;
+            }
+        };
+        
+        Thread publisher = publish(_collector, 10);
+        
+        assertEquals(Integer.valueOf(5), _collector.await(isFive, 5, TimeUnit.SECONDS).args.getValue());
+        publisher.join();
+        
+        // Events already collected are matched without waiting
+        assertEquals(Integer.valueOf(5), _collector.await(isFive, 0, TimeUnit.SECONDS).args.getValue());
+    }
+    
+    @Test(expected = TimeoutException.class)
+    public void testAwaitTimesOut() throws Exception {
+        _collector.collect(this, new EventArg<>(1));
+        
+        _collector.await(new IEventPredicate<EventArg<Integer>>() {
+            @Override
+            public boolean test(Object sender, EventArg<Integer> args) {
+                return args.getValue() == 2;
+            }
+        }, 10, TimeUnit.MILLISECONDS);
+    }
+    
+    @Test
+    public void testClear() {
+        _collector.collect(this, new EventArg<>(1));
+        _collector.clear();
+        
+        assertEquals(0, _collector.size());
+        assertEquals(0, _collector.count());
+        assertNull(_collector.last());
+    }
+}
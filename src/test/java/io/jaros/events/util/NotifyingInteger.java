@@ -39,6 +39,10 @@ public class NotifyingInteger {
      * @param value
      */
     private void onValueChanged(int value) {
+        // Skip building the event arguments when nobody is listening
+        if(!_valueChanged.hasHandlers())
+            return;
+        
         try {
             _valueChanged.raise(this, new EventArg<Integer>(value));
         }